@@ -8,4 +8,11 @@ public interface Agent {
      * Get the name/type of this agent
      */
     String getAgentName();
+    
+    /**
+     * Configuration key of this agent, e.g. "Resume Analyzer Agent" -> "resume-analyzer"
+     */
+    default String getAgentKey() {
+        return getAgentName().replaceAll("(?i)\\s*agent$", "").trim().toLowerCase().replaceAll("\\s+", "-");
+    }
 }
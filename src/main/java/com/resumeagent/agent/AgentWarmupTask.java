@@ -0,0 +1,35 @@
+package com.resumeagent.agent;
+
+import com.resumeagent.service.WarmupTask;
+import com.resumeagent.util.TokenCounter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the agents (and with them the chat client) and loads the tokenizer's
+ * BPE ranks, which otherwise happens on the first model call.
+ */
+@Component
+@Order(2)
+public class AgentWarmupTask implements WarmupTask {
+    
+    private final ObjectProvider<Agent> agents;
+    private final TokenCounter tokenCounter;
+    
+    public AgentWarmupTask(ObjectProvider<Agent> agents, TokenCounter tokenCounter) {
+        this.agents = agents;
+        this.tokenCounter = tokenCounter;
+    }
+    
+    @Override
+    public String getName() {
+        return "agents";
+    }
+    
+    @Override
+    public void warmUp() {
+        agents.orderedStream().forEach(Agent::getAgentName);
+        tokenCounter.count("warm-up");
+    }
+}
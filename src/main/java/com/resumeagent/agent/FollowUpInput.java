@@ -0,0 +1,61 @@
+package com.resumeagent.agent;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The task and named input sections of an agent call, from which a follow-up for
+ * missing fields is built. Only the sections the missing fields need are sent again,
+ * see {@link OutputSchema#require(String, String, String...)}.
+ */
+public class FollowUpInput {
+    
+    public static final String REQUIREMENT_TEXT = "Client Requirement";
+    public static final String REQUIREMENTS = "Client Requirements";
+    public static final String RESUME = "Candidate Resume";
+    
+    private final String task;
+    private final Map<String, String> sections = new LinkedHashMap<>();
+    private final Set<String> trimmable = new HashSet<>();
+    
+    public FollowUpInput(String task) {
+        this.task = task;
+    }
+    
+    public FollowUpInput section(String name, String text) {
+        sections.put(name, text);
+        return this;
+    }
+    
+    /**
+     * A section that may be shortened to keep the follow-up small
+     */
+    public FollowUpInput trimmableSection(String name, String text) {
+        trimmable.add(name);
+        return section(name, text);
+    }
+    
+    String getTask() {
+        return task;
+    }
+    
+    /**
+     * The named sections that were provided, in the order they were added
+     */
+    Map<String, String> sectionsFor(Collection<String> names) {
+        Map<String, String> selected = new LinkedHashMap<>();
+        sections.forEach((name, text) -> {
+            if (names.contains(name)) {
+                selected.put(name, text);
+            }
+        });
+        return selected;
+    }
+    
+    boolean isTrimmable(String name) {
+        return trimmable.contains(name);
+    }
+}
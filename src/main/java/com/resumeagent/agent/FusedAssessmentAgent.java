@@ -0,0 +1,110 @@
+package com.resumeagent.agent;
+
+import com.resumeagent.model.AnalysisResult;
+import com.resumeagent.model.ClientRequirement;
+import com.resumeagent.model.InterviewPrep;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Produces the fit analysis and the interview prep in a single model call, so the
+ * requirement context is sent once per workflow instead of twice. Parsing is
+ * delegated to the analyzer and interview prep agents so both modes produce
+ * identical models. When one section is missing or cut off, only that section's
+ * fields are asked for again.
+ */
+@Component
+public class FusedAssessmentAgent implements Agent {
+    
+    private static final OutputSchema OUTPUT_SCHEMA = new OutputSchema()
+            .require("analysis", ResumeAnalyzerAgent.OUTPUT_SCHEMA)
+            .require("interview_prep", InterviewPrepAgent.OUTPUT_SCHEMA);
+    
+    private final LlmGateway llmGateway;
+    private final StructuredOutputParser outputParser;
+    private final ResumeAnalyzerAgent analyzerAgent;
+    private final InterviewPrepAgent prepAgent;
+    
+    public FusedAssessmentAgent(LlmGateway llmGateway,
+                                StructuredOutputParser outputParser,
+                                ResumeAnalyzerAgent analyzerAgent,
+                                InterviewPrepAgent prepAgent) {
+        this.llmGateway = llmGateway;
+        this.outputParser = outputParser;
+        this.analyzerAgent = analyzerAgent;
+        this.prepAgent = prepAgent;
+    }
+    
+    @Override
+    public String getAgentName() {
+        return "Fused Assessment Agent";
+    }
+    
+    public Assessment assess(String candidateId, String resumeText, ClientRequirement requirement) {
+        return assessAsync(candidateId, resumeText, requirement).block();
+    }
+    
+    public Mono<Assessment> assessAsync(String candidateId, String resumeText, ClientRequirement requirement) {
+        String promptText = """
+            Given the candidate resume text and client requirements, analyze the fit and
+            generate interview preparation materials for the candidate.
+            Return ONLY a valid JSON object (no markdown, no code blocks) with:
+            {
+              "analysis": {
+                "fit_score": 75,
+                "matched_skills": ["skill1", "skill2"],
+                "missing_skills": ["skill3"],
+                "skill_evidence": {"skill1": "evidence from resume"},
+                "recommendations": ["recommendation1", "recommendation2"]
+              },
+              "interview_prep": {
+                "technical_questions": ["question1", "question2"],
+                "behavioral_questions": ["question1", "question2"],
+                "talking_points": ["point1", "point2"],
+                "tips": ["tip1", "tip2"]
+              }
+            }
+            
+            Client Requirements:
+            Role: {role}
+            Level: {level}
+            Required Skills: {requiredSkills}
+            Years of Experience: {years}
+            
+            Candidate Resume:
+            {resumeText}
+            """;
+        
+        Map<String, Object> params = new HashMap<>();
+        params.put("role", requirement.getRole());
+        params.put("level", requirement.getLevel());
+        params.put("requiredSkills", String.join(", ", requirement.getRequiredSkills()));
+        params.put("years", requirement.getYearsOfExperience());
+        params.put("resumeText", resumeText);
+        
+        FollowUpInput followUp = new FollowUpInput("Given the candidate resume text and client requirements, "
+                + "analyze the fit and generate interview preparation materials for the candidate.")
+                .section(FollowUpInput.REQUIREMENTS, ResumeAnalyzerAgent.describe(requirement))
+                .trimmableSection(FollowUpInput.RESUME, resumeText);
+        return llmGateway.callAsync(this, promptText, params, "resumeText")
+                .flatMap(response -> outputParser.parseAsync(this, response, OUTPUT_SCHEMA, followUp, null))
+                .map(json -> {
+                    AnalysisResult analysis = analyzerAgent.parseAnalysis(json.get("analysis"), candidateId, requirement.getId());
+                    analysis.setModel(llmGateway.getModel(this));
+                    InterviewPrep prep = prepAgent.parseInterviewPrep(json.get("interview_prep"), candidateId, requirement.getId());
+                    return new Assessment(analysis, prep);
+                });
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class Assessment {
+        private AnalysisResult analysis;
+        private InterviewPrep interviewPrep;
+    }
+}
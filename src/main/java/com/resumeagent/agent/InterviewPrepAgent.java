@@ -1,13 +1,10 @@
 package com.resumeagent.agent;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.resumeagent.model.ClientRequirement;
 import com.resumeagent.model.InterviewPrep;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -15,12 +12,19 @@ import java.util.*;
 @Component
 public class InterviewPrepAgent implements Agent {
     
-    private final ChatClient chatClient;
-    private final ObjectMapper objectMapper;
+    /**
+     * Fields an interview prep cannot be built without
+     */
+    static final OutputSchema OUTPUT_SCHEMA = new OutputSchema()
+            .require("technical_questions", "[\"question1\", \"question2\"]", FollowUpInput.REQUIREMENTS)
+            .require("behavioral_questions", "[\"question1\", \"question2\"]", FollowUpInput.REQUIREMENTS);
     
-    public InterviewPrepAgent(ChatClient.Builder chatClientBuilder) {
-        this.chatClient = chatClientBuilder.build();
-        this.objectMapper = new ObjectMapper();
+    private final LlmGateway llmGateway;
+    private final StructuredOutputParser outputParser;
+    
+    public InterviewPrepAgent(LlmGateway llmGateway, StructuredOutputParser outputParser) {
+        this.llmGateway = llmGateway;
+        this.outputParser = outputParser;
     }
     
     @Override
@@ -29,6 +33,10 @@ public class InterviewPrepAgent implements Agent {
     }
     
     public InterviewPrep generateQuestions(String candidateId, ClientRequirement requirement) {
+        return generateQuestionsAsync(candidateId, requirement).block();
+    }
+    
+    public Mono<InterviewPrep> generateQuestionsAsync(String candidateId, ClientRequirement requirement) {
         String promptText = """
             Generate interview preparation materials for a candidate.
             Return ONLY a valid JSON object (no markdown, no code blocks) with:
@@ -46,78 +54,52 @@ public class InterviewPrepAgent implements Agent {
             Years of Experience: {years}
             """;
         
-        PromptTemplate promptTemplate = new PromptTemplate(promptText);
         Map<String, Object> params = new HashMap<>();
         params.put("role", requirement.getRole());
         params.put("level", requirement.getLevel());
         params.put("requiredSkills", String.join(", ", requirement.getRequiredSkills()));
         params.put("years", requirement.getYearsOfExperience());
         
-        Prompt prompt = promptTemplate.create(params);
-        String response = chatClient.prompt(prompt).call().content();
-        
-        return parseInterviewPrepResponse(response, candidateId, requirement.getId());
+        FollowUpInput followUp = new FollowUpInput("Generate interview preparation materials for a candidate.")
+                .section(FollowUpInput.REQUIREMENTS, ResumeAnalyzerAgent.describe(requirement));
+        return llmGateway.callAsync(this, promptText, params, null)
+                .flatMap(response -> outputParser.parseAsync(this, response, OUTPUT_SCHEMA, followUp, null))
+                .map(json -> parseInterviewPrep(json, candidateId, requirement.getId()));
     }
     
-    private InterviewPrep parseInterviewPrepResponse(String jsonResponse, String candidateId, String clientId) {
-        try {
-            // Clean up the response
-            String cleanedJson = jsonResponse.trim();
-            if (cleanedJson.startsWith("```json")) {
-                cleanedJson = cleanedJson.substring(7);
-            }
-            if (cleanedJson.startsWith("```")) {
-                cleanedJson = cleanedJson.substring(3);
-            }
-            if (cleanedJson.endsWith("```")) {
-                cleanedJson = cleanedJson.substring(0, cleanedJson.length() - 3);
-            }
-            cleanedJson = cleanedJson.trim();
-            
-            JsonNode jsonNode = objectMapper.readTree(cleanedJson);
-            
-            List<String> technicalQuestions = new ArrayList<>();
-            if (jsonNode.has("technical_questions")) {
-                jsonNode.get("technical_questions").forEach(node -> technicalQuestions.add(node.asText()));
-            }
-            
-            List<String> behavioralQuestions = new ArrayList<>();
-            if (jsonNode.has("behavioral_questions")) {
-                jsonNode.get("behavioral_questions").forEach(node -> behavioralQuestions.add(node.asText()));
-            }
-            
-            List<String> talkingPoints = new ArrayList<>();
-            if (jsonNode.has("talking_points")) {
-                jsonNode.get("talking_points").forEach(node -> talkingPoints.add(node.asText()));
-            }
-            
-            List<String> tips = new ArrayList<>();
-            if (jsonNode.has("tips")) {
-                jsonNode.get("tips").forEach(node -> tips.add(node.asText()));
-            }
-            
-            return InterviewPrep.builder()
-                    .id(UUID.randomUUID().toString())
-                    .candidateId(candidateId)
-                    .clientId(clientId)
-                    .technicalQuestions(technicalQuestions)
-                    .behavioralQuestions(behavioralQuestions)
-                    .talkingPoints(talkingPoints)
-                    .tips(tips)
-                    .generatedAt(LocalDateTime.now())
-                    .build();
-        } catch (Exception e) {
-            // Fallback
-            return InterviewPrep.builder()
-                    .id(UUID.randomUUID().toString())
-                    .candidateId(candidateId)
-                    .clientId(clientId)
-                    .technicalQuestions(Arrays.asList("Unable to generate questions"))
-                    .behavioralQuestions(new ArrayList<>())
-                    .talkingPoints(new ArrayList<>())
-                    .tips(new ArrayList<>())
-                    .generatedAt(LocalDateTime.now())
-                    .build();
+    /**
+     * Map the model's JSON fields onto an InterviewPrep
+     */
+    InterviewPrep parseInterviewPrep(JsonNode jsonNode, String candidateId, String clientId) {
+        List<String> technicalQuestions = new ArrayList<>();
+        if (jsonNode.has("technical_questions")) {
+            jsonNode.get("technical_questions").forEach(node -> technicalQuestions.add(node.asText()));
+        }
+        
+        List<String> behavioralQuestions = new ArrayList<>();
+        if (jsonNode.has("behavioral_questions")) {
+            jsonNode.get("behavioral_questions").forEach(node -> behavioralQuestions.add(node.asText()));
+        }
+        
+        List<String> talkingPoints = new ArrayList<>();
+        if (jsonNode.has("talking_points")) {
+            jsonNode.get("talking_points").forEach(node -> talkingPoints.add(node.asText()));
         }
+        
+        List<String> tips = new ArrayList<>();
+        if (jsonNode.has("tips")) {
+            jsonNode.get("tips").forEach(node -> tips.add(node.asText()));
+        }
+        
+        return InterviewPrep.builder()
+                .id(UUID.randomUUID().toString())
+                .candidateId(candidateId)
+                .clientId(clientId)
+                .technicalQuestions(technicalQuestions)
+                .behavioralQuestions(behavioralQuestions)
+                .talkingPoints(talkingPoints)
+                .tips(tips)
+                .generatedAt(LocalDateTime.now())
+                .build();
     }
 }
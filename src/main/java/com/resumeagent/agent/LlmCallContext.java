@@ -0,0 +1,74 @@
+package com.resumeagent.agent;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Priority class and tenant of the model calls made on the current thread.
+ * Calls default to interactive priority for the default tenant. Reactive
+ * pipelines carry the same values in their subscriber context, see {@link #capture()}.
+ */
+public final class LlmCallContext {
+    
+    public static final String DEFAULT_TENANT = "default";
+    // Requests without an API key, unless X-Tenant-Id is trusted
+    public static final String ANONYMOUS_TENANT = "anonymous";
+    
+    private static final ThreadLocal<LlmPriority> PRIORITY = ThreadLocal.withInitial(() -> LlmPriority.INTERACTIVE);
+    private static final ThreadLocal<String> TENANT = ThreadLocal.withInitial(() -> DEFAULT_TENANT);
+    
+    private static final String PRIORITY_KEY = LlmCallContext.class.getName() + ".priority";
+    private static final String TENANT_KEY = LlmCallContext.class.getName() + ".tenant";
+    
+    private LlmCallContext() {
+    }
+    
+    /**
+     * Copy the current thread's priority and tenant into a subscriber context, for
+     * pipelines whose model calls are assembled on other threads
+     */
+    public static Function<Context, Context> capture() {
+        LlmPriority priority = getPriority();
+        String tenant = getTenant();
+        return context -> context.put(PRIORITY_KEY, priority).put(TENANT_KEY, tenant);
+    }
+    
+    /**
+     * Like {@link #capture()}, but with the given priority instead of the thread's
+     */
+    public static Function<Context, Context> capture(LlmPriority priority) {
+        String tenant = getTenant();
+        return context -> context.put(PRIORITY_KEY, priority).put(TENANT_KEY, tenant);
+    }
+    
+    public static LlmPriority getPriority(ContextView context, LlmPriority defaultPriority) {
+        return context.getOrDefault(PRIORITY_KEY, defaultPriority);
+    }
+    
+    public static String getTenant(ContextView context, String defaultTenant) {
+        return context.getOrDefault(TENANT_KEY, defaultTenant);
+    }
+    
+    public static LlmPriority getPriority() {
+        return PRIORITY.get();
+    }
+    
+    public static void setPriority(LlmPriority priority) {
+        PRIORITY.set(priority);
+    }
+    
+    public static String getTenant() {
+        return TENANT.get();
+    }
+    
+    public static void setTenant(String tenant) {
+        TENANT.set(tenant == null || tenant.isBlank() ? DEFAULT_TENANT : tenant);
+    }
+    
+    public static void clear() {
+        PRIORITY.remove();
+        TENANT.remove();
+    }
+}
@@ -0,0 +1,249 @@
+package com.resumeagent.agent;
+
+import com.resumeagent.config.AgentProperties;
+import com.resumeagent.jfr.AgentCallEvent;
+import com.resumeagent.util.TokenCounter;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single path through which agents call the chat model. Every rendered prompt is
+ * measured against the agent's input budget, admitted by the scheduler according
+ * to the caller's priority and tenant, and token usage is recorded per agent and tenant.
+ */
+@Component
+public class LlmGateway {
+    
+    // Headroom for tokenization differences at the seam where trimmed text is re-inserted
+    private static final int TRIM_MARGIN_TOKENS = 16;
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+    
+    private final ChatClient chatClient;
+    private final TokenCounter tokenCounter;
+    private final AgentProperties agentProperties;
+    private final TokenUsageTracker usageTracker;
+    private final TenantUsageTracker tenantUsageTracker;
+    private final LlmScheduler scheduler;
+    private final String defaultModel;
+    
+    // Interactive traffic, used by background work to find idle capacity
+    private final AtomicInteger interactiveInFlight = new AtomicInteger();
+    private volatile long lastInteractiveActivity = System.currentTimeMillis();
+    
+    public LlmGateway(ChatClient.Builder chatClientBuilder,
+                      TokenCounter tokenCounter,
+                      AgentProperties agentProperties,
+                      TokenUsageTracker usageTracker,
+                      TenantUsageTracker tenantUsageTracker,
+                      LlmScheduler scheduler,
+                      @Value("${spring.ai.openai.chat.options.model:gpt-4o}") String defaultModel) {
+        this.chatClient = chatClientBuilder.build();
+        this.tokenCounter = tokenCounter;
+        this.agentProperties = agentProperties;
+        this.usageTracker = usageTracker;
+        this.tenantUsageTracker = tenantUsageTracker;
+        this.scheduler = scheduler;
+        this.defaultModel = defaultModel;
+    }
+    
+    /**
+     * Render the prompt template and call the model, blocking the calling thread.
+     *
+     * @param trimmableParam name of the parameter that may be shortened to fit the
+     *                       input budget, or null if the prompt must be sent whole
+     */
+    public String call(Agent agent, String promptText, Map<String, Object> params, String trimmableParam) {
+        return callAsync(agent, promptText, params, trimmableParam, null).block();
+    }
+    
+    /**
+     * Render the prompt template and call the given model instead of the agent's configured one.
+     *
+     * @param model model name, or null for the agent's configured model
+     */
+    public String call(Agent agent, String promptText, Map<String, Object> params, String trimmableParam, String model) {
+        return callAsync(agent, promptText, params, trimmableParam, model).block();
+    }
+    
+    public Mono<String> callAsync(Agent agent, String promptText, Map<String, Object> params, String trimmableParam) {
+        return callAsync(agent, promptText, params, trimmableParam, null);
+    }
+    
+    /**
+     * Render the prompt template and call the model without holding a thread while
+     * the call waits for a scheduler slot or for the response. Cancelling the
+     * subscription withdraws the call from the queue or aborts the HTTP request.
+     * Priority and tenant come from the subscriber context when present, otherwise
+     * from the calling thread.
+     */
+    public Mono<String> callAsync(Agent agent, String promptText, Map<String, Object> params, String trimmableParam, String model) {
+        LlmPriority threadPriority = LlmCallContext.getPriority();
+        String threadTenant = LlmCallContext.getTenant();
+        return Mono.deferContextual(context -> {
+            LlmPriority priority = LlmCallContext.getPriority(context, threadPriority);
+            String tenant = LlmCallContext.getTenant(context, threadTenant);
+            PreparedCall call = prepare(agent, promptText, params, trimmableParam, model);
+            boolean interactive = priority == LlmPriority.INTERACTIVE;
+            AgentCallEvent event = new AgentCallEvent();
+            event.begin();
+            long queuedAt = System.nanoTime();
+            
+            return Mono.usingWhen(
+                            scheduler.acquire(priority, tenant, call.promptTokens)
+                                    .doOnNext(permit -> event.setQueueMillis((System.nanoTime() - queuedAt) / 1_000_000)),
+                            permit -> chatClient.prompt(call.prompt).stream().chatResponse().collectList(),
+                            permit -> Mono.fromRunnable(permit::close))
+                    .map(responses -> complete(call, tenant, responses, event))
+                    .doOnSubscribe(subscription -> {
+                        if (interactive) {
+                            interactiveInFlight.incrementAndGet();
+                            lastInteractiveActivity = System.currentTimeMillis();
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (interactive) {
+                            lastInteractiveActivity = System.currentTimeMillis();
+                            interactiveInFlight.decrementAndGet();
+                        }
+                        commit(event, call, priority, tenant, signal);
+                    });
+        });
+    }
+    
+    private PreparedCall prepare(Agent agent, String promptText, Map<String, Object> params, String trimmableParam, String model) {
+        String agentKey = agent.getAgentKey();
+        AgentProperties.AgentSettings settings = agentProperties.getSettings(agentKey);
+        String effectiveModel = model != null ? model : getModel(agent);
+        
+        Map<String, Object> values = new HashMap<>(params);
+        String rendered = render(promptText, values);
+        int promptTokens = tokenCounter.count(rendered);
+        boolean trimmed = false;
+        
+        Integer maxInputTokens = settings.getMaxInputTokens();
+        if (maxInputTokens != null && promptTokens > maxInputTokens && trimmableParam != null) {
+            String value = String.valueOf(values.get(trimmableParam));
+            int allowed = tokenCounter.count(value) - (promptTokens - maxInputTokens) - TRIM_MARGIN_TOKENS;
+            if (allowed > 0) {
+                values.put(trimmableParam, tokenCounter.truncate(value, allowed));
+                rendered = render(promptText, values);
+                promptTokens = tokenCounter.count(rendered);
+                trimmed = true;
+            }
+        }
+        if (maxInputTokens != null && promptTokens > maxInputTokens) {
+            usageTracker.recordRejected(agentKey, effectiveModel);
+            throw new TokenBudgetExceededException(agentKey, promptTokens, maxInputTokens);
+        }
+        
+        // Responses are streamed so no thread waits on the socket; ask for usage in the final chunk
+        OpenAiChatOptions.Builder options = OpenAiChatOptions.builder().model(effectiveModel).streamUsage(true);
+        if (settings.getTemperature() != null) {
+            options.temperature(settings.getTemperature());
+        }
+        if (settings.getMaxOutputTokens() != null) {
+            options.maxTokens(settings.getMaxOutputTokens());
+        }
+        return new PreparedCall(agentKey, effectiveModel, new Prompt(rendered, options.build()), promptTokens, trimmed);
+    }
+    
+    private String complete(PreparedCall call, String tenant, List<ChatResponse> responses, AgentCallEvent event) {
+        StringBuilder content = new StringBuilder();
+        Usage usage = null;
+        for (ChatResponse response : responses) {
+            if (response.getResult() != null && response.getResult().getOutput().getContent() != null) {
+                content.append(response.getResult().getOutput().getContent());
+            }
+            if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+                usage = response.getMetadata().getUsage();
+            }
+        }
+        
+        long reportedPromptTokens = usage != null && usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+        long completionTokens = usage != null && usage.getGenerationTokens() != null && usage.getGenerationTokens() > 0
+                ? usage.getGenerationTokens()
+                : tokenCounter.count(content.toString());
+        usageTracker.recordCall(call.agentKey, call.model, call.promptTokens, reportedPromptTokens, completionTokens, call.trimmed);
+        tenantUsageTracker.recordCall(tenant, call.promptTokens, completionTokens);
+        event.setCompletionTokens(completionTokens);
+        event.setResponseCharacters(content.length());
+        
+        return content.toString();
+    }
+    
+    private void commit(AgentCallEvent event, PreparedCall call, LlmPriority priority, String tenant, SignalType signal) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setAgent(call.agentKey);
+            event.setModel(call.model);
+            event.setPriority(priority.name().toLowerCase());
+            event.setTenant(tenant);
+            event.setPromptTokens(call.promptTokens);
+            event.setTrimmed(call.trimmed);
+            event.setOutcome(signal == SignalType.ON_COMPLETE ? "completed" : signal == SignalType.ON_ERROR ? "error" : "cancelled");
+            event.commit();
+        }
+    }
+    
+    /**
+     * The model the agent's calls use unless a call names another
+     */
+    public String getModel(Agent agent) {
+        String model = agentProperties.getSettings(agent.getAgentKey()).getModel();
+        return model != null ? model : defaultModel;
+    }
+    
+    /**
+     * True when no interactive call is running and none has finished within the quiet period
+     */
+    public boolean isInteractiveIdle(long quietPeriodMillis) {
+        return interactiveInFlight.get() == 0
+                && System.currentTimeMillis() - lastInteractiveActivity >= quietPeriodMillis;
+    }
+    
+    /**
+     * Substitute {name} placeholders. Unlike PromptTemplate this leaves every other
+     * brace alone, so prompts can embed JSON examples.
+     */
+    private String render(String promptText, Map<String, Object> values) {
+        Matcher matcher = PLACEHOLDER.matcher(promptText);
+        StringBuilder rendered = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            String replacement = values.containsKey(name) ? String.valueOf(values.get(name)) : matcher.group();
+            matcher.appendReplacement(rendered, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(rendered);
+        return rendered.toString();
+    }
+    
+    private static class PreparedCall {
+        private final String agentKey;
+        private final String model;
+        private final Prompt prompt;
+        private final int promptTokens;
+        private final boolean trimmed;
+        
+        PreparedCall(String agentKey, String model, Prompt prompt, int promptTokens, boolean trimmed) {
+            this.agentKey = agentKey;
+            this.model = model;
+            this.prompt = prompt;
+            this.promptTokens = promptTokens;
+            this.trimmed = trimmed;
+        }
+    }
+}
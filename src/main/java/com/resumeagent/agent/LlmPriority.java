@@ -0,0 +1,10 @@
+package com.resumeagent.agent;
+
+/**
+ * Priority classes of model calls, highest first
+ */
+public enum LlmPriority {
+    INTERACTIVE, // a user is waiting on the response
+    BATCH,       // bulk work started by a user, e.g. recomputing stale artifacts
+    BACKGROUND   // speculative work nobody asked for yet
+}
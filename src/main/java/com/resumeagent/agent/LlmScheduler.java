@@ -0,0 +1,284 @@
+package com.resumeagent.agent;
+
+import com.resumeagent.config.LlmSchedulerProperties;
+import com.resumeagent.model.SchedulerMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for model calls. At most max-concurrent calls run at once.
+ * Waiting calls are served strictly by priority class, and within a class by
+ * weighted fair queuing across tenants (start-time fair queuing on estimated
+ * prompt tokens), so one tenant's batch cannot crowd out another's. A number of
+ * slots is reserved for interactive calls, and calls that wait past their class
+ * deadline are rejected instead of being sent late. Waiting calls hold no thread.
+ */
+@Component
+public class LlmScheduler {
+    
+    private static final int WAIT_SAMPLES = 512;
+    
+    private final int maxConcurrent;
+    private final int interactiveReserved;
+    private final Map<LlmPriority, Long> deadlineMillis = new EnumMap<>(LlmPriority.class);
+    private final Map<String, Integer> tenantWeights;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<LlmPriority, ClassQueue> queues = new EnumMap<>(LlmPriority.class);
+    private int running;
+    private long sequence;
+    
+    public LlmScheduler(LlmSchedulerProperties properties) {
+        this.maxConcurrent = Math.max(1, properties.getMaxConcurrent());
+        this.interactiveReserved = Math.min(Math.max(0, properties.getInteractiveReserved()), maxConcurrent - 1);
+        this.tenantWeights = properties.getTenantWeights();
+        for (LlmPriority priority : LlmPriority.values()) {
+            Duration deadline = properties.getDeadlines().get(priority.name().toLowerCase());
+            deadlineMillis.put(priority, deadline != null ? deadline.toMillis() : 0L);
+            queues.put(priority, new ClassQueue());
+        }
+    }
+    
+    /**
+     * Wait for a slot without holding a thread. The emitted permit must be closed
+     * when the call completes; cancelling the subscription while still queued
+     * withdraws the request.
+     *
+     * @param cost estimated size of the call, used to share slots fairly between tenants
+     */
+    public Mono<Permit> acquire(LlmPriority priority, String tenant, long cost) {
+        return Mono.defer(() -> {
+            Ticket ticket = enqueue(priority, tenant, cost);
+            Mono<Permit> grant = Mono.fromFuture(ticket.grant, true);
+            long deadline = deadlineMillis.get(priority);
+            if (deadline > 0) {
+                grant = grant.timeout(Duration.ofMillis(deadline))
+                        .onErrorResume(TimeoutException.class, e -> Mono.fromCallable(() -> expire(ticket, deadline)));
+            }
+            return grant.doOnCancel(() -> abandon(ticket));
+        });
+    }
+    
+    public SchedulerMetrics getMetrics() {
+        lock.lock();
+        try {
+            List<SchedulerMetrics.PriorityMetrics> priorities = new ArrayList<>();
+            queues.forEach((priority, queue) -> priorities.add(queue.metrics(priority)));
+            return SchedulerMetrics.builder()
+                    .maxConcurrent(maxConcurrent)
+                    .running(running)
+                    .priorities(priorities)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Ticket enqueue(LlmPriority priority, String tenant, long cost) {
+        List<Ticket> granted;
+        Ticket ticket;
+        lock.lock();
+        try {
+            ticket = queues.get(priority).enqueue(priority, tenant, Math.max(1, cost), weightOf(tenant), sequence++);
+            granted = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+        return ticket;
+    }
+    
+    /**
+     * Remove a ticket that reached its deadline, or hand out its permit if it was granted meanwhile
+     */
+    private Permit expire(Ticket ticket, long deadline) {
+        lock.lock();
+        try {
+            ClassQueue queue = queues.get(ticket.priority);
+            if (queue.waiting.remove(ticket)) {
+                queue.expired++;
+                throw new LlmSchedulingException("No model capacity for " + ticket.priority.name().toLowerCase()
+                        + " call within " + deadline + " ms");
+            }
+            return ticket.permit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void abandon(Ticket ticket) {
+        Permit unused;
+        lock.lock();
+        try {
+            unused = queues.get(ticket.priority).waiting.remove(ticket) ? null : ticket.permit;
+        } finally {
+            lock.unlock();
+        }
+        if (unused != null) {
+            unused.close();
+        }
+    }
+    
+    // Caller holds the lock; the returned tickets must be completed after unlocking
+    private List<Ticket> dispatch() {
+        List<Ticket> granted = new ArrayList<>();
+        while (running < maxConcurrent) {
+            Ticket next = null;
+            for (LlmPriority priority : LlmPriority.values()) {
+                ClassQueue queue = queues.get(priority);
+                boolean allowed = priority == LlmPriority.INTERACTIVE || running < maxConcurrent - interactiveReserved;
+                if (!queue.waiting.isEmpty() && allowed) {
+                    next = queue.next();
+                    break;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            running++;
+            next.permit = new Permit();
+            granted.add(next);
+        }
+        return granted;
+    }
+    
+    private void complete(List<Ticket> granted) {
+        for (Ticket ticket : granted) {
+            ticket.grant.complete(ticket.permit);
+        }
+    }
+    
+    private int weightOf(String tenant) {
+        Integer weight = tenantWeights.get(tenant);
+        return weight != null && weight > 0 ? weight : 1;
+    }
+    
+    /**
+     * A granted slot; closing it lets the next waiting call run
+     */
+    public class Permit implements AutoCloseable {
+        private boolean released;
+        
+        @Override
+        public void close() {
+            List<Ticket> granted;
+            lock.lock();
+            try {
+                if (released) {
+                    return;
+                }
+                released = true;
+                running--;
+                granted = dispatch();
+            } finally {
+                lock.unlock();
+            }
+            complete(granted);
+        }
+    }
+    
+    private static class Ticket {
+        private final LlmPriority priority;
+        private final String tenant;
+        private final double startTag;
+        private final long sequence;
+        private final long enqueuedAt = System.currentTimeMillis();
+        private final CompletableFuture<Permit> grant = new CompletableFuture<>();
+        private Permit permit; // set under the lock when granted
+        
+        Ticket(LlmPriority priority, String tenant, double startTag, long sequence) {
+            this.priority = priority;
+            this.tenant = tenant;
+            this.startTag = startTag;
+            this.sequence = sequence;
+        }
+    }
+    
+    /**
+     * Waiting calls of one priority class with their fair-queuing tags
+     */
+    private static class ClassQueue {
+        private final List<Ticket> waiting = new ArrayList<>();
+        private final Map<String, Double> lastFinishTag = new HashMap<>();
+        private double virtualTime;
+        private long dispatched;
+        private long expired;
+        private long totalWaitMillis;
+        private long maxWaitMillis;
+        private final long[] recentWaits = new long[WAIT_SAMPLES];
+        
+        Ticket enqueue(LlmPriority priority, String tenant, long cost, int weight, long sequence) {
+            double start = Math.max(virtualTime, lastFinishTag.getOrDefault(tenant, 0.0));
+            lastFinishTag.put(tenant, start + (double) cost / weight);
+            Ticket ticket = new Ticket(priority, tenant, start, sequence);
+            waiting.add(ticket);
+            return ticket;
+        }
+        
+        Ticket next() {
+            Ticket best = null;
+            for (Ticket ticket : waiting) {
+                if (best == null || ticket.startTag < best.startTag
+                        || (ticket.startTag == best.startTag && ticket.sequence < best.sequence)) {
+                    best = ticket;
+                }
+            }
+            waiting.remove(best);
+            virtualTime = Math.max(virtualTime, best.startTag);
+            
+            long wait = System.currentTimeMillis() - best.enqueuedAt;
+            recentWaits[(int) (dispatched % WAIT_SAMPLES)] = wait;
+            dispatched++;
+            totalWaitMillis += wait;
+            maxWaitMillis = Math.max(maxWaitMillis, wait);
+            
+            // Forget tenants that have nothing queued and are behind the virtual clock
+            if (waiting.isEmpty()) {
+                Iterator<Map.Entry<String, Double>> tags = lastFinishTag.entrySet().iterator();
+                while (tags.hasNext()) {
+                    if (tags.next().getValue() <= virtualTime) {
+                        tags.remove();
+                    }
+                }
+            }
+            return best;
+        }
+        
+        SchedulerMetrics.PriorityMetrics metrics(LlmPriority priority) {
+            Map<String, Integer> byTenant = new TreeMap<>();
+            for (Ticket ticket : waiting) {
+                byTenant.merge(ticket.tenant, 1, Integer::sum);
+            }
+            int samples = (int) Math.min(dispatched, WAIT_SAMPLES);
+            long p95 = 0;
+            if (samples > 0) {
+                long[] sorted = Arrays.copyOf(recentWaits, samples);
+                Arrays.sort(sorted);
+                p95 = sorted[Math.min(samples - 1, (int) Math.ceil(samples * 0.95) - 1)];
+            }
+            return SchedulerMetrics.PriorityMetrics.builder()
+                    .priority(priority.name().toLowerCase())
+                    .queued(waiting.size())
+                    .queuedByTenant(byTenant)
+                    .dispatched(dispatched)
+                    .expired(expired)
+                    .averageWaitMillis(dispatched > 0 ? totalWaitMillis / dispatched : 0)
+                    .p95WaitMillis(p95)
+                    .maxWaitMillis(maxWaitMillis)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.resumeagent.agent;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a model call could not be scheduled before its deadline
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LlmSchedulingException extends RuntimeException {
+    
+    public LlmSchedulingException(String message) {
+        super(message);
+    }
+}
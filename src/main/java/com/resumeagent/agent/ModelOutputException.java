@@ -0,0 +1,17 @@
+package com.resumeagent.agent;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+/**
+ * Thrown when a model response still lacks required fields after repair and the follow-up prompt
+ */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class ModelOutputException extends RuntimeException {
+    
+    public ModelOutputException(String agentKey, List<String> missingFields) {
+        super("Response from " + agentKey + " is missing required fields " + String.join(", ", missingFields));
+    }
+}
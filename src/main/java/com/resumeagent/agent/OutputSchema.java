@@ -0,0 +1,144 @@
+package com.resumeagent.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Required fields of an agent's JSON output, by dotted path, each with the example
+ * value shown to the model when the field has to be asked for again
+ */
+public class OutputSchema {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private final Map<String, JsonNode> fields = new LinkedHashMap<>();
+    private final Map<String, List<String>> inputs = new LinkedHashMap<>();
+    
+    /**
+     * @param exampleJson example value as JSON; its type (number, string, array, object) is the type required
+     * @param inputs      {@link FollowUpInput} sections the model needs to produce the field again
+     */
+    public OutputSchema require(String path, String exampleJson, String... inputs) {
+        try {
+            fields.put(path, MAPPER.readTree(exampleJson));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid example for " + path + ": " + exampleJson, e);
+        }
+        this.inputs.put(path, List.of(inputs));
+        return this;
+    }
+    
+    /**
+     * Require another schema's fields beneath the given object field
+     */
+    public OutputSchema require(String parent, OutputSchema nested) {
+        nested.fields.forEach((path, example) -> fields.put(parent + "." + path, example));
+        nested.inputs.forEach((path, needed) -> inputs.put(parent + "." + path, needed));
+        return this;
+    }
+    
+    /**
+     * Input sections needed to produce the given fields again
+     */
+    public Set<String> inputsFor(List<String> paths) {
+        Set<String> needed = new LinkedHashSet<>();
+        for (String path : paths) {
+            needed.addAll(inputs.getOrDefault(path, List.of()));
+        }
+        return needed;
+    }
+    
+    /**
+     * Required fields that are absent from the tree or not of the required type
+     */
+    public List<String> missingFields(JsonNode root) {
+        List<String> missing = new ArrayList<>();
+        fields.forEach((path, example) -> {
+            if (!matches(at(root, path), example)) {
+                missing.add(path);
+            }
+        });
+        return missing;
+    }
+    
+    /**
+     * JSON object holding just the given fields with their example values
+     */
+    public String describe(List<String> paths) {
+        ObjectNode example = MAPPER.createObjectNode();
+        for (String path : paths) {
+            put(example, path, fields.get(path));
+        }
+        return example.toPrettyString();
+    }
+    
+    /**
+     * Copy the given fields from a follow-up answer into the tree. A field is also
+     * taken from the top level of the answer when the model dropped its parent objects.
+     */
+    public void merge(ObjectNode root, JsonNode answer, List<String> paths) {
+        if (answer == null) {
+            return;
+        }
+        for (String path : paths) {
+            JsonNode value = at(answer, path);
+            if (!matches(value, fields.get(path))) {
+                value = answer.get(path.substring(path.lastIndexOf('.') + 1));
+            }
+            if (matches(value, fields.get(path))) {
+                put(root, path, value);
+            }
+        }
+    }
+    
+    private static JsonNode at(JsonNode root, String path) {
+        JsonNode node = root;
+        for (String name : path.split("\\.")) {
+            if (node == null || !node.isObject()) {
+                return null;
+            }
+            node = node.get(name);
+        }
+        return node;
+    }
+    
+    private static void put(ObjectNode root, String path, JsonNode value) {
+        String[] names = path.split("\\.");
+        ObjectNode node = root;
+        for (int i = 0; i < names.length - 1; i++) {
+            JsonNode child = node.get(names[i]);
+            if (child == null || !child.isObject()) {
+                child = node.putObject(names[i]);
+            }
+            node = (ObjectNode) child;
+        }
+        node.set(names[names.length - 1], value);
+    }
+    
+    private static boolean matches(JsonNode value, JsonNode example) {
+        if (value == null || value.isNull()) {
+            return false;
+        }
+        if (example.isNumber()) {
+            return value.isNumber() || (value.isTextual() && value.asText().trim().matches("-?\\d+(\\.\\d+)?"));
+        }
+        if (example.isTextual()) {
+            return value.isTextual() && !value.asText().isBlank();
+        }
+        if (example.isArray()) {
+            return value.isArray();
+        }
+        if (example.isObject()) {
+            return value.isObject();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package com.resumeagent.agent;
+
+import com.resumeagent.model.ParseStats;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory counters of how agents' JSON responses parsed, were repaired or had to be completed
+ */
+@Component
+public class ParseStatsTracker {
+    
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    
+    public void recordParsed(String agentKey, List<String> repairs) {
+        Counters c = counters(agentKey);
+        c.responses.incrementAndGet();
+        if (repairs.isEmpty()) {
+            c.parsedClean.incrementAndGet();
+            return;
+        }
+        c.repaired.incrementAndGet();
+        for (String repair : repairs) {
+            c.repairs.computeIfAbsent(repair, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+    
+    public void recordUnparseable(String agentKey) {
+        Counters c = counters(agentKey);
+        c.responses.incrementAndGet();
+        c.unparseable.incrementAndGet();
+    }
+    
+    public void recordIncomplete(String agentKey) {
+        counters(agentKey).incomplete.incrementAndGet();
+    }
+    
+    public void recordFollowUp(String agentKey, boolean recovered) {
+        Counters c = counters(agentKey);
+        c.followUps.incrementAndGet();
+        if (recovered) {
+            c.followUpsRecovered.incrementAndGet();
+        }
+    }
+    
+    public void recordFailure(String agentKey) {
+        counters(agentKey).failures.incrementAndGet();
+    }
+    
+    public List<ParseStats> getStats() {
+        List<ParseStats> stats = new ArrayList<>();
+        counters.forEach((agent, c) -> {
+            Map<String, Long> repairs = new TreeMap<>();
+            c.repairs.forEach((kind, count) -> repairs.put(kind, count.get()));
+            long responses = c.responses.get();
+            long clean = c.parsedClean.get();
+            stats.add(ParseStats.builder()
+                    .agent(agent)
+                    .responses(responses)
+                    .parsedClean(clean)
+                    .repaired(c.repaired.get())
+                    .repairs(repairs)
+                    .unparseable(c.unparseable.get())
+                    .incomplete(c.incomplete.get())
+                    .followUps(c.followUps.get())
+                    .followUpsRecovered(c.followUpsRecovered.get())
+                    .failures(c.failures.get())
+                    .failureRate(responses > 0 ? (double) (responses - clean) / responses : 0.0)
+                    .build());
+        });
+        return stats;
+    }
+    
+    private Counters counters(String agentKey) {
+        return counters.computeIfAbsent(agentKey, key -> new Counters());
+    }
+    
+    private static class Counters {
+        private final AtomicLong responses = new AtomicLong();
+        private final AtomicLong parsedClean = new AtomicLong();
+        private final AtomicLong repaired = new AtomicLong();
+        private final Map<String, AtomicLong> repairs = new ConcurrentHashMap<>();
+        private final AtomicLong unparseable = new AtomicLong();
+        private final AtomicLong incomplete = new AtomicLong();
+        private final AtomicLong followUps = new AtomicLong();
+        private final AtomicLong followUpsRecovered = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+    }
+}
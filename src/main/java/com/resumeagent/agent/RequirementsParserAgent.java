@@ -1,11 +1,8 @@
 package com.resumeagent.agent;
 
 import com.resumeagent.model.ClientRequirement;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
+import com.resumeagent.util.SkillRegistry;
 import org.springframework.stereotype.Component;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import java.time.LocalDateTime;
@@ -14,12 +11,21 @@ import java.util.*;
 @Component
 public class RequirementsParserAgent implements Agent {
     
-    private final ChatClient chatClient;
-    private final ObjectMapper objectMapper;
+    /**
+     * Fields a requirement cannot be built without
+     */
+    private static final OutputSchema OUTPUT_SCHEMA = new OutputSchema()
+            .require("role", "\"job title\"", FollowUpInput.REQUIREMENT_TEXT)
+            .require("required_skills", "[\"skill1\", \"skill2\"]", FollowUpInput.REQUIREMENT_TEXT);
     
-    public RequirementsParserAgent(ChatClient.Builder chatClientBuilder) {
-        this.chatClient = chatClientBuilder.build();
-        this.objectMapper = new ObjectMapper();
+    private final LlmGateway llmGateway;
+    private final StructuredOutputParser outputParser;
+    private final SkillRegistry skillRegistry;
+    
+    public RequirementsParserAgent(LlmGateway llmGateway, StructuredOutputParser outputParser, SkillRegistry skillRegistry) {
+        this.llmGateway = llmGateway;
+        this.outputParser = outputParser;
+        this.skillRegistry = skillRegistry;
     }
     
     @Override
@@ -43,66 +49,39 @@ public class RequirementsParserAgent implements Agent {
             {requirement}
             """;
         
-        PromptTemplate promptTemplate = new PromptTemplate(promptText);
         Map<String, Object> params = new HashMap<>();
         params.put("requirement", rawRequirement);
-        Prompt prompt = promptTemplate.create(params);
-        
-        String response = chatClient.prompt(prompt).call().content();
-        
-        // Parse the JSON response
-        return parseJsonResponse(response, rawRequirement);
+        FollowUpInput followUp = new FollowUpInput("Extract structured information from the client requirement.")
+                .trimmableSection(FollowUpInput.REQUIREMENT_TEXT, rawRequirement);
+        return llmGateway.callAsync(this, promptText, params, "requirement")
+                .flatMap(response -> outputParser.parseAsync(this, response, OUTPUT_SCHEMA, followUp, null))
+                .map(json -> toRequirement(json, rawRequirement))
+                .block();
     }
     
-    private ClientRequirement parseJsonResponse(String jsonResponse, String rawRequirement) {
-        try {
-            // Clean up the response to extract JSON
-            String cleanedJson = jsonResponse.trim();
-            if (cleanedJson.startsWith("```json")) {
-                cleanedJson = cleanedJson.substring(7);
-            }
-            if (cleanedJson.startsWith("```")) {
-                cleanedJson = cleanedJson.substring(3);
-            }
-            if (cleanedJson.endsWith("```")) {
-                cleanedJson = cleanedJson.substring(0, cleanedJson.length() - 3);
-            }
-            cleanedJson = cleanedJson.trim();
-            
-            JsonNode jsonNode = objectMapper.readTree(cleanedJson);
-            
-            List<String> requiredSkills = new ArrayList<>();
-            if (jsonNode.has("required_skills")) {
-                jsonNode.get("required_skills").forEach(node -> requiredSkills.add(node.asText()));
-            }
-            
-            List<String> preferredSkills = new ArrayList<>();
-            if (jsonNode.has("preferred_skills")) {
-                jsonNode.get("preferred_skills").forEach(node -> preferredSkills.add(node.asText()));
-            }
-            
-            return ClientRequirement.builder()
-                    .id(UUID.randomUUID().toString())
-                    .role(jsonNode.has("role") ? jsonNode.get("role").asText() : "")
-                    .level(jsonNode.has("level") ? jsonNode.get("level").asText() : "intermediate")
-                    .requiredSkills(requiredSkills)
-                    .preferredSkills(preferredSkills)
-                    .yearsOfExperience(jsonNode.has("years_of_experience") ? jsonNode.get("years_of_experience").asInt() : 0)
-                    .rawRequirement(rawRequirement)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-        } catch (Exception e) {
-            // Fallback: create a basic requirement
-            return ClientRequirement.builder()
-                    .id(UUID.randomUUID().toString())
-                    .role("Developer")
-                    .level("intermediate")
-                    .requiredSkills(new ArrayList<>())
-                    .preferredSkills(new ArrayList<>())
-                    .yearsOfExperience(0)
-                    .rawRequirement(rawRequirement)
-                    .createdAt(LocalDateTime.now())
-                    .build();
+    /**
+     * Map the model's JSON fields onto a ClientRequirement; the required fields must be present
+     */
+    private ClientRequirement toRequirement(JsonNode jsonNode, String rawRequirement) {
+        List<String> requiredSkills = new ArrayList<>();
+        if (jsonNode.has("required_skills")) {
+            jsonNode.get("required_skills").forEach(node -> requiredSkills.add(node.asText()));
         }
+        
+        List<String> preferredSkills = new ArrayList<>();
+        if (jsonNode.has("preferred_skills")) {
+            jsonNode.get("preferred_skills").forEach(node -> preferredSkills.add(node.asText()));
+        }
+        
+        return ClientRequirement.builder()
+                .id(UUID.randomUUID().toString())
+                .role(jsonNode.get("role").asText())
+                .level(jsonNode.has("level") ? jsonNode.get("level").asText() : "intermediate")
+                .requiredSkills(skillRegistry.intern(requiredSkills))
+                .preferredSkills(skillRegistry.intern(preferredSkills))
+                .yearsOfExperience(jsonNode.has("years_of_experience") ? jsonNode.get("years_of_experience").asInt() : 0)
+                .rawRequirement(rawRequirement)
+                .createdAt(LocalDateTime.now())
+                .build();
     }
 }
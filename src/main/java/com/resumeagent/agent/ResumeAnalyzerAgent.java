@@ -1,13 +1,12 @@
 package com.resumeagent.agent;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.resumeagent.model.AnalysisResult;
 import com.resumeagent.model.ClientRequirement;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
+import com.resumeagent.util.SkillRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -15,12 +14,36 @@ import java.util.*;
 @Component
 public class ResumeAnalyzerAgent implements Agent {
     
-    private final ChatClient chatClient;
-    private final ObjectMapper objectMapper;
+    /**
+     * Fields an analysis cannot be built without
+     */
+    static final OutputSchema OUTPUT_SCHEMA = new OutputSchema()
+            .require("fit_score", "75", FollowUpInput.REQUIREMENTS, FollowUpInput.RESUME)
+            .require("matched_skills", "[\"skill1\", \"skill2\"]", FollowUpInput.REQUIREMENTS, FollowUpInput.RESUME)
+            .require("missing_skills", "[\"skill3\"]", FollowUpInput.REQUIREMENTS, FollowUpInput.RESUME);
     
-    public ResumeAnalyzerAgent(ChatClient.Builder chatClientBuilder) {
-        this.chatClient = chatClientBuilder.build();
-        this.objectMapper = new ObjectMapper();
+    private final LlmGateway llmGateway;
+    private final StructuredOutputParser outputParser;
+    private final SkillRegistry skillRegistry;
+    private final boolean cascadeEnabled;
+    private final String screeningModel;
+    private final int escalationBand;
+    private final int optimizeThreshold;
+    
+    public ResumeAnalyzerAgent(LlmGateway llmGateway,
+                               StructuredOutputParser outputParser,
+                               SkillRegistry skillRegistry,
+                               @Value("${app.analysis.cascade.enabled:false}") boolean cascadeEnabled,
+                               @Value("${app.analysis.cascade.screening-model:gpt-4o-mini}") String screeningModel,
+                               @Value("${app.analysis.cascade.escalation-band:10}") int escalationBand,
+                               @Value("${app.workflow.optimize-threshold:60}") int optimizeThreshold) {
+        this.llmGateway = llmGateway;
+        this.outputParser = outputParser;
+        this.skillRegistry = skillRegistry;
+        this.cascadeEnabled = cascadeEnabled;
+        this.screeningModel = screeningModel;
+        this.escalationBand = escalationBand;
+        this.optimizeThreshold = optimizeThreshold;
     }
     
     @Override
@@ -29,6 +52,10 @@ public class ResumeAnalyzerAgent implements Agent {
     }
     
     public AnalysisResult analyze(String candidateId, String resumeText, ClientRequirement requirement) {
+        return analyzeAsync(candidateId, resumeText, requirement).block();
+    }
+    
+    public Mono<AnalysisResult> analyzeAsync(String candidateId, String resumeText, ClientRequirement requirement) {
         String promptText = """
             Given the candidate resume text and client requirements, analyze the fit.
             Return ONLY a valid JSON object (no markdown, no code blocks) with:
@@ -50,84 +77,90 @@ public class ResumeAnalyzerAgent implements Agent {
             {resumeText}
             """;
         
-        PromptTemplate promptTemplate = new PromptTemplate(promptText);
         Map<String, Object> params = new HashMap<>();
         params.put("role", requirement.getRole());
         params.put("level", requirement.getLevel());
         params.put("requiredSkills", String.join(", ", requirement.getRequiredSkills()));
         params.put("years", requirement.getYearsOfExperience());
-        params.put("resumeText", resumeText.substring(0, Math.min(resumeText.length(), 3000)));
+        params.put("resumeText", resumeText);
         
-        Prompt prompt = promptTemplate.create(params);
-        String response = chatClient.prompt(prompt).call().content();
+        FollowUpInput followUp = new FollowUpInput("Analyze the fit of the candidate resume to the client requirements.")
+                .section(FollowUpInput.REQUIREMENTS, describe(requirement))
+                .trimmableSection(FollowUpInput.RESUME, resumeText);
+        Mono<AnalysisResult> full = llmGateway.callAsync(this, promptText, params, "resumeText")
+                .flatMap(response -> outputParser.parseAsync(this, response, OUTPUT_SCHEMA, followUp, null))
+                .map(json -> {
+                    AnalysisResult result = parseAnalysis(json, candidateId, requirement.getId());
+                    result.setModel(llmGateway.getModel(this));
+                    return result;
+                });
+        if (!cascadeEnabled) {
+            return full;
+        }
         
-        return parseAnalysisResponse(response, candidateId, requirement.getId());
+        // Screen with the cheap model; only scores near the optimization threshold,
+        // or screens that are incomplete even after repair, go to the agent's configured model
+        return llmGateway.callAsync(this, promptText, params, "resumeText", screeningModel)
+                .flatMap(screening -> {
+                    JsonNode json = outputParser.repair(this, screening);
+                    AnalysisResult screened = json != null && OUTPUT_SCHEMA.missingFields(json).isEmpty()
+                            ? parseAnalysis(json, candidateId, requirement.getId())
+                            : null;
+                    if (screened != null && Math.abs(screened.getFitScore() - optimizeThreshold) > escalationBand) {
+                        screened.setModel(screeningModel);
+                        return Mono.just(screened);
+                    }
+                    return full;
+                });
     }
     
-    private AnalysisResult parseAnalysisResponse(String jsonResponse, String candidateId, String clientId) {
-        try {
-            // Clean up the response
-            String cleanedJson = jsonResponse.trim();
-            if (cleanedJson.startsWith("```json")) {
-                cleanedJson = cleanedJson.substring(7);
-            }
-            if (cleanedJson.startsWith("```")) {
-                cleanedJson = cleanedJson.substring(3);
-            }
-            if (cleanedJson.endsWith("```")) {
-                cleanedJson = cleanedJson.substring(0, cleanedJson.length() - 3);
-            }
-            cleanedJson = cleanedJson.trim();
-            
-            JsonNode jsonNode = objectMapper.readTree(cleanedJson);
-            
-            List<String> matchedSkills = new ArrayList<>();
-            if (jsonNode.has("matched_skills")) {
-                jsonNode.get("matched_skills").forEach(node -> matchedSkills.add(node.asText()));
-            }
-            
-            List<String> missingSkills = new ArrayList<>();
-            if (jsonNode.has("missing_skills")) {
-                jsonNode.get("missing_skills").forEach(node -> missingSkills.add(node.asText()));
-            }
-            
-            Map<String, String> skillEvidence = new HashMap<>();
-            if (jsonNode.has("skill_evidence")) {
-                JsonNode evidenceNode = jsonNode.get("skill_evidence");
-                evidenceNode.fields().forEachRemaining(entry -> 
-                    skillEvidence.put(entry.getKey(), entry.getValue().asText())
-                );
-            }
-            
-            List<String> recommendations = new ArrayList<>();
-            if (jsonNode.has("recommendations")) {
-                jsonNode.get("recommendations").forEach(node -> recommendations.add(node.asText()));
-            }
-            
-            return AnalysisResult.builder()
-                    .id(UUID.randomUUID().toString())
-                    .candidateId(candidateId)
-                    .clientId(clientId)
-                    .fitScore(jsonNode.has("fit_score") ? jsonNode.get("fit_score").asInt() : 50)
-                    .matchedSkills(matchedSkills)
-                    .missingSkills(missingSkills)
-                    .skillEvidence(skillEvidence)
-                    .recommendations(recommendations)
-                    .analyzedAt(LocalDateTime.now())
-                    .build();
-        } catch (Exception e) {
-            // Fallback
-            return AnalysisResult.builder()
-                    .id(UUID.randomUUID().toString())
-                    .candidateId(candidateId)
-                    .clientId(clientId)
-                    .fitScore(50)
-                    .matchedSkills(new ArrayList<>())
-                    .missingSkills(new ArrayList<>())
-                    .skillEvidence(new HashMap<>())
-                    .recommendations(Arrays.asList("Unable to parse analysis results"))
-                    .analyzedAt(LocalDateTime.now())
-                    .build();
+    /**
+     * The requirement as listed in the prompts, for follow-ups
+     */
+    static String describe(ClientRequirement requirement) {
+        return "Role: " + requirement.getRole()
+                + "\nLevel: " + requirement.getLevel()
+                + "\nRequired Skills: " + String.join(", ", requirement.getRequiredSkills())
+                + "\nYears of Experience: " + requirement.getYearsOfExperience();
+    }
+    
+    /**
+     * Map the model's JSON fields onto an AnalysisResult; the required fields must be present
+     */
+    AnalysisResult parseAnalysis(JsonNode jsonNode, String candidateId, String clientId) {
+        List<String> matchedSkills = new ArrayList<>();
+        if (jsonNode.has("matched_skills")) {
+            jsonNode.get("matched_skills").forEach(node -> matchedSkills.add(node.asText()));
         }
+        
+        List<String> missingSkills = new ArrayList<>();
+        if (jsonNode.has("missing_skills")) {
+            jsonNode.get("missing_skills").forEach(node -> missingSkills.add(node.asText()));
+        }
+        
+        Map<String, String> skillEvidence = new HashMap<>();
+        if (jsonNode.has("skill_evidence")) {
+            JsonNode evidenceNode = jsonNode.get("skill_evidence");
+            evidenceNode.fields().forEachRemaining(entry -> 
+                skillEvidence.put(entry.getKey(), entry.getValue().asText())
+            );
+        }
+        
+        List<String> recommendations = new ArrayList<>();
+        if (jsonNode.has("recommendations")) {
+            jsonNode.get("recommendations").forEach(node -> recommendations.add(node.asText()));
+        }
+        
+        return AnalysisResult.builder()
+                .id(UUID.randomUUID().toString())
+                .candidateId(candidateId)
+                .clientId(clientId)
+                .fitScore(jsonNode.get("fit_score").asInt())
+                .matchedSkills(skillRegistry.intern(matchedSkills))
+                .missingSkills(skillRegistry.intern(missingSkills))
+                .skillEvidence(skillEvidence)
+                .recommendations(recommendations)
+                .analyzedAt(LocalDateTime.now())
+                .build();
     }
 }
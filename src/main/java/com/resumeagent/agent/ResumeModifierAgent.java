@@ -1,10 +1,8 @@
 package com.resumeagent.agent;
 
 import com.resumeagent.model.ClientRequirement;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -12,10 +10,10 @@ import java.util.Map;
 @Component
 public class ResumeModifierAgent implements Agent {
     
-    private final ChatClient chatClient;
+    private final LlmGateway llmGateway;
     
-    public ResumeModifierAgent(ChatClient.Builder chatClientBuilder) {
-        this.chatClient = chatClientBuilder.build();
+    public ResumeModifierAgent(LlmGateway llmGateway) {
+        this.llmGateway = llmGateway;
     }
     
     @Override
@@ -24,6 +22,10 @@ public class ResumeModifierAgent implements Agent {
     }
     
     public String optimizeResume(String originalResumeText, ClientRequirement requirement) {
+        return optimizeResumeAsync(originalResumeText, requirement).block();
+    }
+    
+    public Mono<String> optimizeResumeAsync(String originalResumeText, ClientRequirement requirement) {
         String promptText = """
             You are a professional resume writer. Tailor the following resume to highlight skills and experience
             that match the client requirements. Keep the same overall structure and information, but:
@@ -45,7 +47,6 @@ public class ResumeModifierAgent implements Agent {
             Return the optimized resume text (not JSON, just the formatted resume text):
             """;
         
-        PromptTemplate promptTemplate = new PromptTemplate(promptText);
         Map<String, Object> params = new HashMap<>();
         params.put("role", requirement.getRole());
         params.put("level", requirement.getLevel());
@@ -53,7 +54,6 @@ public class ResumeModifierAgent implements Agent {
         params.put("preferredSkills", String.join(", ", requirement.getPreferredSkills()));
         params.put("resumeText", originalResumeText);
         
-        Prompt prompt = promptTemplate.create(params);
-        return chatClient.prompt(prompt).call().content();
+        return llmGateway.callAsync(this, promptText, params, "resumeText");
     }
 }
@@ -0,0 +1,128 @@
+package com.resumeagent.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.resumeagent.util.JsonRepair;
+import com.resumeagent.util.TokenCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns agents' model responses into JSON trees. Malformed output is repaired where
+ * possible. Required fields that are still missing are asked for with one short
+ * follow-up prompt, instead of repeating the whole call. The follow-up shows the
+ * model its own partial answer, so the new fields stay consistent with it, and only
+ * the input sections those fields need, with long sections shortened. If fields are
+ * still missing after that, the call fails rather than returning placeholder values.
+ */
+@Component
+public class StructuredOutputParser {
+    
+    private static final String FOLLOW_UP = """
+            {task}
+            
+            Your previous answer was incomplete. These fields were missing, invalid or
+            cut off: {missingFields}
+            
+            Your previous answer, as far as it could be used:
+            {previousAnswer}
+            
+            Return ONLY a valid JSON object (no markdown, no code blocks) with just the
+            missing fields, consistent with your previous answer:
+            {missingSchema}
+            {inputs}""";
+    
+    private final LlmGateway llmGateway;
+    private final ParseStatsTracker statsTracker;
+    private final TokenCounter tokenCounter;
+    private final boolean followUpEnabled;
+    private final int maxSectionTokens;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    public StructuredOutputParser(LlmGateway llmGateway,
+                                  ParseStatsTracker statsTracker,
+                                  TokenCounter tokenCounter,
+                                  @Value("${app.llm.follow-up.enabled:true}") boolean followUpEnabled,
+                                  @Value("${app.llm.follow-up.max-section-tokens:1500}") int maxSectionTokens) {
+        this.llmGateway = llmGateway;
+        this.statsTracker = statsTracker;
+        this.tokenCounter = tokenCounter;
+        this.followUpEnabled = followUpEnabled;
+        this.maxSectionTokens = maxSectionTokens;
+    }
+    
+    /**
+     * Parse and repair the response without asking the model again
+     *
+     * @return the JSON object, or null if none could be recovered
+     */
+    public JsonNode repair(Agent agent, String response) {
+        JsonRepair.Result result = JsonRepair.parse(response);
+        if (result.getNode() == null) {
+            statsTracker.recordUnparseable(agent.getAgentKey());
+        } else {
+            statsTracker.recordParsed(agent.getAgentKey(), result.getRepairs());
+        }
+        return result.getNode();
+    }
+    
+    /**
+     * Parse and repair the response, then complete any missing required fields with a
+     * follow-up call built from the partial answer and the input. Fails with
+     * {@link ModelOutputException} if required fields are still missing.
+     *
+     * @param model model of the original call, or null for the agent's configured model
+     */
+    public Mono<JsonNode> parseAsync(Agent agent, String response, OutputSchema schema,
+                                     FollowUpInput input, String model) {
+        JsonNode parsed = repair(agent, response);
+        ObjectNode root = parsed != null ? (ObjectNode) parsed : objectMapper.createObjectNode();
+        List<String> missing = schema.missingFields(root);
+        if (missing.isEmpty()) {
+            return Mono.just(root);
+        }
+        
+        String agentKey = agent.getAgentKey();
+        statsTracker.recordIncomplete(agentKey);
+        if (!followUpEnabled) {
+            statsTracker.recordFailure(agentKey);
+            return Mono.error(new ModelOutputException(agentKey, missing));
+        }
+        
+        Map<String, Object> params = new HashMap<>();
+        params.put("task", input.getTask());
+        params.put("missingFields", String.join(", ", missing));
+        params.put("previousAnswer", root.toString());
+        params.put("missingSchema", schema.describe(missing));
+        params.put("inputs", renderSections(input, schema.inputsFor(missing)));
+        return llmGateway.callAsync(agent, FOLLOW_UP, params, "inputs", model)
+                .map(answer -> {
+                    schema.merge(root, repair(agent, answer), missing);
+                    List<String> stillMissing = schema.missingFields(root);
+                    statsTracker.recordFollowUp(agentKey, stillMissing.isEmpty());
+                    if (!stillMissing.isEmpty()) {
+                        statsTracker.recordFailure(agentKey);
+                        throw new ModelOutputException(agentKey, stillMissing);
+                    }
+                    return root;
+                });
+    }
+    
+    private String renderSections(FollowUpInput input, Set<String> needed) {
+        StringBuilder rendered = new StringBuilder();
+        input.sectionsFor(needed).forEach((name, text) -> {
+            String sent = input.isTrimmable(name) && tokenCounter.count(text) > maxSectionTokens
+                    ? tokenCounter.truncate(text, maxSectionTokens)
+                    : text;
+            rendered.append('\n').append(name).append(":\n").append(sent).append('\n');
+        });
+        return rendered.toString();
+    }
+}
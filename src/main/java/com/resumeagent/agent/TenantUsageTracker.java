@@ -0,0 +1,120 @@
+package com.resumeagent.agent;
+
+import com.resumeagent.config.TenantProperties;
+import com.resumeagent.model.TenantUsage;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory request and model usage per tenant for the current UTC day. Counters
+ * start again at midnight UTC, which is when daily quotas reset. Past MAX_TENANTS
+ * tenants in a day, further ones are counted together under OVERFLOW_TENANT.
+ */
+@Component
+public class TenantUsageTracker {
+    
+    public static final String OVERFLOW_TENANT = "other";
+    private static final int MAX_TENANTS = 10_000;
+    
+    private final TenantProperties tenantProperties;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private volatile LocalDate sweptOn;
+    
+    public TenantUsageTracker(TenantProperties tenantProperties) {
+        this.tenantProperties = tenantProperties;
+    }
+    
+    public void recordRequest(String tenant, boolean modelRequest) {
+        Counters c = today(tenant);
+        c.requests.incrementAndGet();
+        if (modelRequest) {
+            c.modelRequests.incrementAndGet();
+        }
+    }
+    
+    public void recordThrottled(String tenant) {
+        today(tenant).throttled.incrementAndGet();
+    }
+    
+    public void recordQuotaRejected(String tenant) {
+        today(tenant).quotaRejected.incrementAndGet();
+    }
+    
+    public void recordCall(String tenant, long promptTokens, long completionTokens) {
+        Counters c = today(tenant);
+        c.modelCalls.incrementAndGet();
+        c.promptTokens.addAndGet(promptTokens);
+        c.completionTokens.addAndGet(completionTokens);
+    }
+    
+    public long getModelCallsToday(String tenant) {
+        return today(tenant).modelCalls.get();
+    }
+    
+    public long getTokensToday(String tenant) {
+        Counters c = today(tenant);
+        return c.promptTokens.get() + c.completionTokens.get();
+    }
+    
+    public List<TenantUsage> getUsage() {
+        LocalDate date = LocalDate.now(ZoneOffset.UTC);
+        List<TenantUsage> usage = new ArrayList<>();
+        counters.forEach((tenant, c) -> {
+            if (!c.date.equals(date)) {
+                return;
+            }
+            TenantProperties.Limits limits = tenantProperties.getLimits(tenant);
+            usage.add(TenantUsage.builder()
+                    .tenant(tenant)
+                    .date(c.date)
+                    .requests(c.requests.get())
+                    .modelRequests(c.modelRequests.get())
+                    .throttled(c.throttled.get())
+                    .quotaRejected(c.quotaRejected.get())
+                    .modelCalls(c.modelCalls.get())
+                    .promptTokens(c.promptTokens.get())
+                    .completionTokens(c.completionTokens.get())
+                    .dailyModelCallLimit(limits.getDailyModelCalls())
+                    .dailyTokenLimit(limits.getDailyTokens())
+                    .build());
+        });
+        return usage;
+    }
+    
+    private Counters today(String tenant) {
+        LocalDate date = LocalDate.now(ZoneOffset.UTC);
+        Counters current = counters.get(tenant);
+        if (current != null && current.date.equals(date)) {
+            return current;
+        }
+        if (!date.equals(sweptOn)) {
+            // First use of the day: drop tenants that have been idle since an earlier day
+            sweptOn = date;
+            counters.values().removeIf(c -> c.date.isBefore(date));
+        }
+        String key = current == null && counters.size() >= MAX_TENANTS ? OVERFLOW_TENANT : tenant;
+        return counters.compute(key, (k, c) -> c != null && c.date.equals(date) ? c : new Counters(date));
+    }
+    
+    private static class Counters {
+        private final LocalDate date;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong modelRequests = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+        private final AtomicLong quotaRejected = new AtomicLong();
+        private final AtomicLong modelCalls = new AtomicLong();
+        private final AtomicLong promptTokens = new AtomicLong();
+        private final AtomicLong completionTokens = new AtomicLong();
+        
+        Counters(LocalDate date) {
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.resumeagent.agent;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a rendered prompt cannot be trimmed to fit the agent's input token budget
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class TokenBudgetExceededException extends RuntimeException {
+    
+    public TokenBudgetExceededException(String agentKey, int promptTokens, int maxInputTokens) {
+        super("Prompt for " + agentKey + " needs " + promptTokens + " tokens, budget is " + maxInputTokens);
+    }
+}
@@ -0,0 +1,61 @@
+package com.resumeagent.agent;
+
+import com.resumeagent.model.TokenUsage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token counters per agent and model
+ */
+@Component
+public class TokenUsageTracker {
+    
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    
+    public void recordCall(String agentKey, String model, int promptTokens, long reportedPromptTokens, long completionTokens, boolean trimmed) {
+        Counters c = counters.computeIfAbsent(agentKey + "|" + model, key -> new Counters());
+        c.calls.incrementAndGet();
+        c.promptTokens.addAndGet(promptTokens);
+        c.reportedPromptTokens.addAndGet(reportedPromptTokens);
+        c.completionTokens.addAndGet(completionTokens);
+        c.largestPromptTokens.accumulateAndGet(promptTokens, Math::max);
+        if (trimmed) {
+            c.trimmedPrompts.incrementAndGet();
+        }
+    }
+    
+    public void recordRejected(String agentKey, String model) {
+        counters.computeIfAbsent(agentKey + "|" + model, key -> new Counters()).rejectedPrompts.incrementAndGet();
+    }
+    
+    public List<TokenUsage> getUsage() {
+        List<TokenUsage> usage = new ArrayList<>();
+        counters.forEach((key, c) -> usage.add(TokenUsage.builder()
+                .agent(key.substring(0, key.indexOf('|')))
+                .model(key.substring(key.indexOf('|') + 1))
+                .calls(c.calls.get())
+                .promptTokens(c.promptTokens.get())
+                .reportedPromptTokens(c.reportedPromptTokens.get())
+                .completionTokens(c.completionTokens.get())
+                .largestPromptTokens(c.largestPromptTokens.get())
+                .trimmedPrompts(c.trimmedPrompts.get())
+                .rejectedPrompts(c.rejectedPrompts.get())
+                .build()));
+        return usage;
+    }
+    
+    private static class Counters {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong promptTokens = new AtomicLong();
+        private final AtomicLong reportedPromptTokens = new AtomicLong();
+        private final AtomicLong completionTokens = new AtomicLong();
+        private final AtomicLong largestPromptTokens = new AtomicLong();
+        private final AtomicLong trimmedPrompts = new AtomicLong();
+        private final AtomicLong rejectedPrompts = new AtomicLong();
+    }
+}
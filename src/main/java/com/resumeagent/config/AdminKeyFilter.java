@@ -0,0 +1,55 @@
+package com.resumeagent.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards /api/admin/ (flight recordings, storage lifecycle). The endpoints answer 404
+ * unless app.admin.api-key is set, and then only to requests sending that key in
+ * X-Admin-Key; other requests get 401. Runs before the tenant filters.
+ */
+@Component
+@Order(LlmCallContextFilter.ORDER - 1)
+public class AdminKeyFilter extends OncePerRequestFilter {
+    
+    private static final String ADMIN_PREFIX = "/api/admin/";
+    
+    private final byte[] adminKey;
+    
+    public AdminKeyFilter(@Value("${app.admin.api-key:}") String adminKey) {
+        this.adminKey = adminKey.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path + "/").startsWith(ADMIN_PREFIX);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (adminKey.length == 0) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        String key = request.getHeader("X-Admin-Key");
+        // Constant time, so the key cannot be guessed byte by byte
+        if (key == null || !MessageDigest.isEqual(adminKey, key.getBytes(StandardCharsets.UTF_8))) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "X-Admin-Key header required");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,32 @@
+package com.resumeagent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-agent settings bound from app.agents.{agent-key}.*, e.g.
+ * app.agents.resume-modifier.max-input-tokens=4000
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app")
+public class AgentProperties {
+    
+    private Map<String, AgentSettings> agents = new HashMap<>();
+    
+    public AgentSettings getSettings(String agentKey) {
+        return agents.getOrDefault(agentKey, new AgentSettings());
+    }
+    
+    @Data
+    public static class AgentSettings {
+        private String model; // null = spring.ai.openai.chat.options.model
+        private Double temperature; // null = spring.ai.openai.chat.options.temperature
+        private Integer maxInputTokens; // null = unlimited
+        private Integer maxOutputTokens; // null = model default
+    }
+}
@@ -18,9 +18,16 @@ public class FileStorageConfig {
         createDirectory(basePath + "/candidates");
         createDirectory(basePath + "/candidates/resumes/original");
         createDirectory(basePath + "/candidates/resumes/modified");
+        createDirectory(basePath + "/candidates/resumes/text");
+        createDirectory(basePath + "/candidates/resumes/signatures");
         createDirectory(basePath + "/clients");
         createDirectory(basePath + "/analyses");
         createDirectory(basePath + "/interview-prep");
+        createDirectory(basePath + "/imports");
+        createDirectory(basePath + "/leases");
+        createDirectory(basePath + "/work");
+        createDirectory(basePath + "/idempotency");
+        createDirectory(basePath + "/index/search");
     }
     
     private void createDirectory(String path) {
@@ -0,0 +1,76 @@
+package com.resumeagent.config;
+
+import com.resumeagent.agent.LlmCallContext;
+import com.resumeagent.agent.LlmPriority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sets the model call priority and tenant for the request thread. The priority comes
+ * from X-Request-Priority ("interactive", "batch", "background"). A request with an
+ * X-Api-Key header belongs to the key's tenant; unknown keys, and API requests without
+ * a key when keys are required, get 401. Requests without a key share the anonymous
+ * tenant, so they cannot claim fresh limits by sending a new X-Tenant-Id, unless the
+ * header is configured as trusted.
+ */
+@Component
+@Order(LlmCallContextFilter.ORDER)
+public class LlmCallContextFilter extends OncePerRequestFilter {
+    
+    public static final int ORDER = 0;
+    
+    private final TenantProperties tenantProperties;
+    
+    public LlmCallContextFilter(TenantProperties tenantProperties) {
+        this.tenantProperties = tenantProperties;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader("X-Api-Key");
+        String tenant = tenantProperties.isTrustTenantHeader()
+                ? request.getHeader("X-Tenant-Id")
+                : LlmCallContext.ANONYMOUS_TENANT;
+        if (apiKey != null) {
+            tenant = tenantProperties.getApiKeys().get(apiKey);
+            if (tenant == null) {
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Unknown API key");
+                return;
+            }
+        } else if (tenantProperties.isRequireApiKey() && isApiRequest(request)) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "X-Api-Key header required");
+            return;
+        }
+        
+        String priority = request.getHeader("X-Request-Priority");
+        try {
+            LlmCallContext.setTenant(tenant);
+            LlmCallContext.setPriority(priority != null ? parsePriority(priority) : LlmPriority.INTERACTIVE);
+            chain.doFilter(request, response);
+        } finally {
+            LlmCallContext.clear();
+        }
+    }
+    
+    private boolean isApiRequest(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/api/") && !path.startsWith("/api/health");
+    }
+    
+    private LlmPriority parsePriority(String value) {
+        try {
+            return LlmPriority.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return LlmPriority.INTERACTIVE;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.resumeagent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the model call scheduler, bound from app.llm.scheduler.*
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.llm.scheduler")
+public class LlmSchedulerProperties {
+    
+    private int maxConcurrent = 4;
+    
+    // Slots only interactive calls may use, so they never wait behind batch work
+    private int interactiveReserved = 1;
+    
+    // Longest a call of each priority class may wait for a slot (interactive, batch, background); 0 = no limit
+    private Map<String, Duration> deadlines = new HashMap<>();
+    
+    // Relative share of each tenant within a priority class; unlisted tenants weigh 1
+    private Map<String, Integer> tenantWeights = new HashMap<>();
+}
@@ -0,0 +1,113 @@
+package com.resumeagent.config;
+
+import com.resumeagent.service.FileStorageService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conditional GET and output caching for the server-rendered pages, keyed on the
+ * store version. The ETag is the version, so an unchanged store answers
+ * If-None-Match with 304 before the controller reads storage, and a page rendered
+ * at the current version is served from memory without rendering again. Pages are
+ * marked no-cache so browsers always revalidate.
+ */
+@Component
+public class PageCacheFilter extends OncePerRequestFilter {
+    
+    private static final List<String> PAGES = List.of("/", "/clients", "/candidates", "/analyze", "/interview-prep");
+    private static final String DETAIL_PREFIX = "/analysis/";
+    
+    private final FileStorageService fileStorage;
+    private final boolean enabled;
+    // Distinguishes restarts (and new templates) that begin again at the same version
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, CachedPage> pages;
+    
+    public PageCacheFilter(FileStorageService fileStorage,
+                           @Value("${app.page-cache.enabled:true}") boolean enabled,
+                           @Value("${app.page-cache.max-entries:256}") int maxEntries) {
+        this.fileStorage = fileStorage;
+        this.enabled = enabled;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPage> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!enabled || !("GET".equals(method) || "HEAD".equals(method))) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !PAGES.contains(path) && !path.startsWith(DETAIL_PREFIX);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Read before rendering, so a save during rendering leaves the page behind the store
+        long version = fileStorage.getVersion();
+        String eTag = "\"" + instanceTag + "-" + version + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            return;
+        }
+        
+        String key = request.getRequestURI() + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        CachedPage cached;
+        synchronized (pages) {
+            cached = pages.get(key);
+        }
+        if (cached != null && cached.version == version) {
+            setCacheHeaders(response, eTag);
+            response.setContentType(cached.contentType);
+            response.setContentLength(cached.body.length);
+            response.getOutputStream().write(cached.body);
+            return;
+        }
+        
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+            setCacheHeaders(wrapper, eTag);
+            synchronized (pages) {
+                pages.put(key, new CachedPage(version, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+    
+    private void setCacheHeaders(HttpServletResponse response, String eTag) {
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+    
+    private static class CachedPage {
+        private final long version;
+        private final String contentType;
+        private final byte[] body;
+        
+        CachedPage(long version, String contentType, byte[] body) {
+            this.version = version;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.resumeagent.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resumeagent.agent.LlmCallContext;
+import com.resumeagent.agent.TenantUsageTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-tenant limits at API ingress, so one team's bulk script cannot use up the
+ * shared model quota. Every API request takes a token from the tenant's request
+ * bucket; requests to endpoints that call the model also take one from the
+ * tenant's model bucket and are refused once the tenant's daily model calls or
+ * tokens are used up. Refused requests get 429 with Retry-After. Runs after
+ * {@link LlmCallContextFilter}, which resolves the tenant.
+ */
+@Component
+@Order(LlmCallContextFilter.ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final String API_PREFIX = "/api/";
+    private static final String HEALTH_PREFIX = "/api/health";
+    private static final List<String> MODEL_POSTS = List.of(
+            "/api/analyze", "/api/optimize-resume", "/api/interview-prep", "/api/workflow/process",
+            "/api/clients", "/api/artifacts/recompute");
+    private static final String CLIENT_PREFIX = "/api/clients/";
+    // Past this many, the least recently used bucket is dropped
+    private static final int MAX_BUCKETS = 10_000;
+    
+    private final TenantProperties tenantProperties;
+    private final TenantUsageTracker usageTracker;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, TokenBucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > MAX_BUCKETS;
+        }
+    };
+    
+    public RateLimitFilter(TenantProperties tenantProperties, TenantUsageTracker usageTracker) {
+        this.tenantProperties = tenantProperties;
+        this.usageTracker = usageTracker;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !path.startsWith(API_PREFIX) || path.startsWith(HEALTH_PREFIX);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenant = LlmCallContext.getTenant();
+        boolean modelRequest = isModelRequest(request);
+        usageTracker.recordRequest(tenant, modelRequest);
+        
+        if (tenantProperties.isRateLimitEnabled()) {
+            TenantProperties.Limits limits = tenantProperties.getLimits(tenant);
+            long waitNanos = bucket(tenant, "requests", limits.getRequestsPerMinute(), limits.getBurst()).tryTake();
+            if (waitNanos == 0 && modelRequest) {
+                // Over-quota requests are refused before they take a model token
+                if (quotaExceeded(tenant, limits)) {
+                    usageTracker.recordQuotaRejected(tenant);
+                    reject(response, tenant, "Daily model quota exhausted", untilUtcMidnight());
+                    return;
+                }
+                waitNanos = bucket(tenant, "model", limits.getModelRequestsPerMinute(), limits.getModelBurst()).tryTake();
+            }
+            if (waitNanos > 0) {
+                usageTracker.recordThrottled(tenant);
+                reject(response, tenant, "Rate limit exceeded", Duration.ofNanos(waitNanos));
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+    
+    private boolean isModelRequest(HttpServletRequest request) {
+        String path = path(request);
+        return switch (request.getMethod()) {
+            case "POST" -> MODEL_POSTS.contains(path);
+            case "PUT" -> path.startsWith(CLIENT_PREFIX);
+            default -> false;
+        };
+    }
+    
+    private boolean quotaExceeded(String tenant, TenantProperties.Limits limits) {
+        long maxCalls = limits.getDailyModelCalls();
+        long maxTokens = limits.getDailyTokens();
+        return (maxCalls > 0 && usageTracker.getModelCallsToday(tenant) >= maxCalls)
+                || (maxTokens > 0 && usageTracker.getTokensToday(tenant) >= maxTokens);
+    }
+    
+    private TokenBucket bucket(String tenant, String kind, int perMinute, int burst) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(tenant + "|" + kind, key -> new TokenBucket(perMinute, burst));
+        }
+    }
+    
+    private void reject(HttpServletResponse response, String tenant, String message, Duration retryAfter) throws IOException {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", message);
+        body.put("tenant", tenant);
+        body.put("retryAfterSeconds", seconds);
+        
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+    
+    private Duration untilUtcMidnight() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        return Duration.between(now, LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay(ZoneOffset.UTC));
+    }
+    
+    private String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+    
+    /**
+     * Holds up to burst tokens, refilled continuously at perMinute per minute
+     */
+    private static class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        
+        TokenBucket(int perMinute, int burst) {
+            this.capacity = Math.max(1, burst);
+            this.tokensPerNano = perMinute / 60e9;
+            this.tokens = capacity;
+        }
+        
+        /**
+         * Take a token, or return how long until one is available. A rate of 0 never limits.
+         */
+        synchronized long tryTake() {
+            if (tokensPerNano <= 0) {
+                return 0;
+            }
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+        
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.resumeagent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Skill aliases bound from app.skills.aliases.{alias}={canonical skill}, e.g.
+ * app.skills.aliases.k8s=kubernetes. Both sides are normalized like any skill name.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.skills")
+public class SkillProperties {
+    
+    private Map<String, String> aliases = new HashMap<>();
+}
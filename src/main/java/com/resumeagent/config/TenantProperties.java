@@ -0,0 +1,74 @@
+package com.resumeagent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * API keys and per-tenant limits at API ingress, bound from app.tenants.*
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.tenants")
+public class TenantProperties {
+    
+    // API key (X-Api-Key header) -> tenant; a request with a key is attributed to its tenant whatever X-Tenant-Id says
+    private Map<String, String> apiKeys = new HashMap<>();
+    
+    // Reject API requests without a known key instead of treating them as anonymous
+    private boolean requireApiKey = false;
+    
+    // Take the tenant of requests without a key from X-Tenant-Id; only behind a gateway that sets it
+    private boolean trustTenantHeader = false;
+    
+    private boolean rateLimitEnabled = true;
+    
+    // Limits of every tenant; 0 = unlimited
+    private Limits limits = new Limits(600, 100, 60, 20, 0L, 0L);
+    
+    // Per-tenant overrides; unset fields fall back to limits
+    private Map<String, Limits> overrides = new HashMap<>();
+    
+    public Limits getLimits(String tenant) {
+        Limits override = overrides.get(tenant);
+        if (override == null) {
+            return limits;
+        }
+        return new Limits(
+                override.requestsPerMinute != null ? override.requestsPerMinute : limits.requestsPerMinute,
+                override.burst != null ? override.burst : limits.burst,
+                override.modelRequestsPerMinute != null ? override.modelRequestsPerMinute : limits.modelRequestsPerMinute,
+                override.modelBurst != null ? override.modelBurst : limits.modelBurst,
+                override.dailyModelCalls != null ? override.dailyModelCalls : limits.dailyModelCalls,
+                override.dailyTokens != null ? override.dailyTokens : limits.dailyTokens);
+    }
+    
+    @Data
+    public static class Limits {
+        // Sustained rate and bucket size for all API requests
+        private Integer requestsPerMinute;
+        private Integer burst;
+        // Sustained rate and bucket size for requests that call the model
+        private Integer modelRequestsPerMinute;
+        private Integer modelBurst;
+        // Per UTC day; checked before each request that calls the model
+        private Long dailyModelCalls;
+        private Long dailyTokens;
+        
+        public Limits() {
+        }
+        
+        public Limits(Integer requestsPerMinute, Integer burst, Integer modelRequestsPerMinute, Integer modelBurst,
+                      Long dailyModelCalls, Long dailyTokens) {
+            this.requestsPerMinute = requestsPerMinute;
+            this.burst = burst;
+            this.modelRequestsPerMinute = modelRequestsPerMinute;
+            this.modelBurst = modelBurst;
+            this.dailyModelCalls = dailyModelCalls;
+            this.dailyTokens = dailyTokens;
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package com.resumeagent.controller;
 
+import com.resumeagent.agent.LlmCallContext;
+import com.resumeagent.model.AnalysisFilter;
 import com.resumeagent.model.AnalysisResult;
 import com.resumeagent.model.InterviewPrep;
 import com.resumeagent.orchestrator.WorkflowOrchestrator;
+import com.resumeagent.service.AnalysisExportService;
 import com.resumeagent.service.AnalysisService;
+import com.resumeagent.service.IdempotencyService;
 import com.resumeagent.service.InterviewPrepService;
 import com.resumeagent.service.ResumeService;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import com.resumeagent.util.FileDownloadUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import reactor.core.publisher.Mono;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api")
@@ -26,27 +36,34 @@ public class AnalysisController {
     private final ResumeService resumeService;
     private final InterviewPrepService interviewPrepService;
     private final WorkflowOrchestrator orchestrator;
+    private final FileDownloadUtil fileDownload;
+    private final IdempotencyService idempotencyService;
+    private final AnalysisExportService exportService;
     
     public AnalysisController(AnalysisService analysisService,
                              ResumeService resumeService,
                              InterviewPrepService interviewPrepService,
-                             WorkflowOrchestrator orchestrator) {
+                             WorkflowOrchestrator orchestrator,
+                             FileDownloadUtil fileDownload,
+                             IdempotencyService idempotencyService,
+                             AnalysisExportService exportService) {
         this.analysisService = analysisService;
         this.resumeService = resumeService;
         this.interviewPrepService = interviewPrepService;
         this.orchestrator = orchestrator;
+        this.fileDownload = fileDownload;
+        this.idempotencyService = idempotencyService;
+        this.exportService = exportService;
     }
     
     @PostMapping("/analyze")
-    public ResponseEntity<AnalysisResult> analyzeCandidate(@RequestBody Map<String, String> request) {
-        try {
-            String candidateId = request.get("candidateId");
-            String clientId = request.get("clientId");
-            AnalysisResult result = analysisService.analyzeCandidate(candidateId, clientId);
-            return ResponseEntity.ok(result);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public Mono<ResponseEntity<AnalysisResult>> analyzeCandidate(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody Map<String, String> request) {
+        String candidateId = request.get("candidateId");
+        String clientId = request.get("clientId");
+        return respond(idempotencyKey, "analyze", request, AnalysisResult.class,
+                () -> analysisService.analyzeCandidateAsync(candidateId, clientId));
     }
     
     @GetMapping("/analysis/{candidateId}/{clientId}")
@@ -67,66 +84,117 @@ public class AnalysisController {
         return ResponseEntity.ok(analyses);
     }
     
-    @PostMapping("/optimize-resume")
-    public ResponseEntity<Map<String, String>> optimizeResume(@RequestBody Map<String, String> request) {
+    /**
+     * Stream analyses as NDJSON (format=ndjson) or CSV (format=csv) without loading them
+     * all; filters by client, analysis date range (ISO dates, inclusive) and minimum fit score
+     */
+    @GetMapping("/analyses/export")
+    public void exportAnalyses(@RequestParam(defaultValue = "ndjson") String format,
+                               @RequestParam(required = false) String clientId,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               @RequestParam(required = false) Integer minFitScore,
+                               HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "format must be ndjson or csv");
+            return;
+        }
+        AnalysisFilter filter = AnalysisFilter.builder()
+                .clientId(clientId)
+                .from(from)
+                .to(to)
+                .minFitScore(minFitScore)
+                .build();
         try {
-            String candidateId = request.get("candidateId");
-            String clientId = request.get("clientId");
-            String path = resumeService.optimizeResume(candidateId, clientId);
-            return ResponseEntity.ok(Map.of("path", path, "message", "Resume optimized successfully"));
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
+            response.setContentType(csv ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"analyses." + (csv ? "csv" : "ndjson") + "\"");
+            if (csv) {
+                exportService.writeCsv(filter, response.getOutputStream());
+            } else {
+                exportService.writeNdjson(filter, response.getOutputStream());
+            }
+        } catch (Exception e) {
+            sendServerError(response);
         }
     }
     
+    @PostMapping("/optimize-resume")
+    @SuppressWarnings("unchecked")
+    public Mono<ResponseEntity<Map<String, String>>> optimizeResume(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody Map<String, String> request) {
+        String candidateId = request.get("candidateId");
+        String clientId = request.get("clientId");
+        Class<Map<String, String>> responseType = (Class<Map<String, String>>) (Class<?>) Map.class;
+        return respond(idempotencyKey, "optimize-resume", request, responseType,
+                () -> resumeService.optimizeResumeAsync(candidateId, clientId)
+                        .map(path -> Map.of("path", path, "message", "Resume optimized successfully")));
+    }
+    
     @GetMapping("/resume/original/{candidateId}")
-    public ResponseEntity<Resource> getOriginalResume(@PathVariable String candidateId) {
+    public void getOriginalResume(@PathVariable String candidateId,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
         try {
             File file = resumeService.getOriginalResume(candidateId);
             if (!file.exists()) {
-                return ResponseEntity.notFound().build();
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
             }
             
-            Resource resource = new FileSystemResource(file);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-                    .body(resource);
+            String eTag = resumeService.getOriginalResumeETag(candidateId);
+            fileDownload.serve(file, eTag, MediaType.APPLICATION_PDF_VALUE, file.getName(), request, response);
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            sendServerError(response);
         }
     }
     
     @GetMapping("/resume/modified/{candidateId}/{clientId}")
-    public ResponseEntity<Resource> getModifiedResume(
-            @PathVariable String candidateId,
-            @PathVariable String clientId) {
+    public void getModifiedResume(@PathVariable String candidateId,
+                                  @PathVariable String clientId,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
         try {
-            File file = resumeService.getModifiedResume(candidateId, clientId);
-            if (!file.exists()) {
-                return ResponseEntity.notFound().build();
+            String eTag = resumeService.getModifiedResumeETag(candidateId, clientId);
+            if (eTag == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
             }
+            String filename = resumeService.getModifiedResumeFilename(candidateId, clientId);
             
-            Resource resource = new FileSystemResource(file);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-                    .body(resource);
+            // Range requests need the complete file, so render it into the cache first
+            File cached = resumeService.getCachedModifiedResume(candidateId, clientId);
+            if (cached == null && request.getHeader(HttpHeaders.RANGE) != null) {
+                cached = resumeService.renderModifiedResumeToCache(candidateId, clientId);
+            }
+            if (cached != null) {
+                fileDownload.serve(cached, eTag, MediaType.APPLICATION_PDF_VALUE, filename, request, response);
+                return;
+            }
+            
+            // First download: render straight into the response while caching the PDF
+            if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+                return;
+            }
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            response.setHeader(HttpHeaders.CACHE_CONTROL, fileDownload.getCacheControl());
+            resumeService.renderModifiedResume(candidateId, clientId, response.getOutputStream());
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            sendServerError(response);
         }
     }
     
     @PostMapping("/interview-prep")
-    public ResponseEntity<InterviewPrep> generateInterviewPrep(@RequestBody Map<String, String> request) {
-        try {
-            String candidateId = request.get("candidateId");
-            String clientId = request.get("clientId");
-            InterviewPrep prep = interviewPrepService.generateInterviewPrep(candidateId, clientId);
-            return ResponseEntity.ok(prep);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public Mono<ResponseEntity<InterviewPrep>> generateInterviewPrep(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody Map<String, String> request) {
+        String candidateId = request.get("candidateId");
+        String clientId = request.get("clientId");
+        return respond(idempotencyKey, "interview-prep", request, InterviewPrep.class,
+                () -> interviewPrepService.generateInterviewPrepAsync(candidateId, clientId));
     }
     
     @GetMapping("/interview-prep/{candidateId}/{clientId}")
@@ -142,14 +210,36 @@ public class AnalysisController {
     }
     
     @PostMapping("/workflow/process")
-    public ResponseEntity<WorkflowOrchestrator.WorkflowResult> processWorkflow(@RequestBody Map<String, String> request) {
-        try {
-            String candidateId = request.get("candidateId");
-            String clientId = request.get("clientId");
-            WorkflowOrchestrator.WorkflowResult result = orchestrator.processCandidate(candidateId, clientId);
-            return ResponseEntity.ok(result);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
+    public Mono<ResponseEntity<WorkflowOrchestrator.WorkflowResult>> processWorkflow(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody Map<String, String> request) {
+        String candidateId = request.get("candidateId");
+        String clientId = request.get("clientId");
+        // "mode": "fused" | "separate"; omitted = configured default
+        String mode = request.get("mode");
+        Boolean fused = mode != null ? "fused".equalsIgnoreCase(mode) : null;
+        return respond(idempotencyKey, "workflow", request, WorkflowOrchestrator.WorkflowResult.class,
+                () -> orchestrator.processCandidateAsync(candidateId, clientId, fused));
+    }
+    
+    /**
+     * Completes the request when the model call finishes; no servlet thread waits on it.
+     * The caller's priority and tenant travel with the chain. With an idempotency key,
+     * retries replay or attach to the first execution instead of calling the model again.
+     */
+    private <T> Mono<ResponseEntity<T>> respond(String idempotencyKey, String operation, Map<String, String> request,
+                                                Class<T> responseType, Supplier<Mono<T>> result) {
+        return idempotencyService.execute(idempotencyKey, operation, request, responseType,
+                        () -> result.get()
+                                .map(ResponseEntity::ok)
+                                .onErrorResume(IOException.class, e -> Mono.just(ResponseEntity.internalServerError().<T>build())))
+                .contextWrite(LlmCallContext.capture());
+    }
+    
+    private void sendServerError(HttpServletResponse response) throws IOException {
+        if (!response.isCommitted()) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.resumeagent.controller;
+
+import com.resumeagent.model.ArtifactStatus;
+import com.resumeagent.service.ArtifactDependencyService;
+import com.resumeagent.util.BlockingUtil;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/artifacts")
+public class ArtifactController {
+    
+    private final ArtifactDependencyService dependencyService;
+    
+    public ArtifactController(ArtifactDependencyService dependencyService) {
+        this.dependencyService = dependencyService;
+    }
+    
+    @GetMapping("/stale")
+    public ResponseEntity<List<ArtifactStatus>> getStaleArtifacts(
+            @RequestParam(required = false) String candidateId,
+            @RequestParam(required = false) String clientId) {
+        try {
+            return ResponseEntity.ok(dependencyService.getStaleArtifacts(candidateId, clientId));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Queue the stale artifacts for the recompute workers of all instances (202), or
+     * with distributed=false recompute them for this request. No servlet thread waits
+     * on the model either way.
+     */
+    @PostMapping("/recompute")
+    public Mono<ResponseEntity<List<ArtifactStatus>>> recompute(
+            @RequestParam(required = false) String candidateId,
+            @RequestParam(required = false) String clientId,
+            @RequestParam(defaultValue = "true") boolean distributed) {
+        Mono<ResponseEntity<List<ArtifactStatus>>> response = distributed
+                ? BlockingUtil.offload(() -> ResponseEntity.accepted().body(dependencyService.queueStale(candidateId, clientId)))
+                : dependencyService.recomputeStaleAsync(candidateId, clientId).map(ResponseEntity::ok);
+        return response.onErrorResume(IOException.class, e -> Mono.just(ResponseEntity.internalServerError().build()));
+    }
+}
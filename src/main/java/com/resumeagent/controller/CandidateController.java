@@ -1,12 +1,23 @@
 package com.resumeagent.controller;
 
 import com.resumeagent.model.Candidate;
+import com.resumeagent.model.DuplicateMatch;
+import com.resumeagent.model.ImportJob;
+import com.resumeagent.model.SearchResult;
+import com.resumeagent.model.SimilarCandidate;
+import com.resumeagent.service.BulkImportService;
 import com.resumeagent.service.CandidateService;
+import com.resumeagent.service.DuplicateDetectionService;
+import com.resumeagent.service.ResumeSearchService;
+import com.resumeagent.service.SimilarCandidateService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -18,9 +29,24 @@ import java.util.List;
 public class CandidateController {
     
     private final CandidateService candidateService;
+    private final BulkImportService bulkImportService;
+    private final ResumeSearchService searchService;
+    private final DuplicateDetectionService duplicateDetection;
+    private final SimilarCandidateService similarCandidates;
+    private final DataSize maxResumeSize;
     
-    public CandidateController(CandidateService candidateService) {
+    public CandidateController(CandidateService candidateService,
+                              BulkImportService bulkImportService,
+                              ResumeSearchService searchService,
+                              DuplicateDetectionService duplicateDetection,
+                              SimilarCandidateService similarCandidates,
+                              @Value("${app.upload.max-resume-size:10MB}") DataSize maxResumeSize) {
         this.candidateService = candidateService;
+        this.bulkImportService = bulkImportService;
+        this.searchService = searchService;
+        this.duplicateDetection = duplicateDetection;
+        this.similarCandidates = similarCandidates;
+        this.maxResumeSize = maxResumeSize;
     }
     
     @PostMapping("/upload")
@@ -28,6 +54,9 @@ public class CandidateController {
             @RequestParam("file") MultipartFile file,
             @RequestParam("name") String name,
             @RequestParam("email") String email) {
+        if (file.getSize() > maxResumeSize.toBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
         try {
             Candidate candidate = candidateService.uploadResume(file, name, email);
             return ResponseEntity.ok(candidate);
@@ -36,12 +65,72 @@ public class CandidateController {
         }
     }
     
+    @PutMapping("/{candidateId}/resume")
+    public ResponseEntity<Candidate> replaceResume(
+            @PathVariable String candidateId,
+            @RequestParam("file") MultipartFile file) {
+        if (file.getSize() > maxResumeSize.toBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        try {
+            candidateService.getCandidate(candidateId);
+        } catch (IOException e) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            Candidate candidate = candidateService.replaceResume(candidateId, file);
+            return ResponseEntity.ok(candidate);
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @PostMapping("/bulk-upload")
+    public ResponseEntity<ImportJob> bulkUpload(
+            @RequestParam(value = "archive", required = false) MultipartFile archive,
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "manifest", required = false) MultipartFile manifest) {
+        if ((archive == null || archive.isEmpty()) && (files == null || files.isEmpty())) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            ImportJob job = bulkImportService.startImport(archive, files, manifest);
+            return ResponseEntity.accepted().body(job);
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/imports/{jobId}")
+    public ResponseEntity<ImportJob> getImportJob(@PathVariable String jobId) {
+        try {
+            ImportJob job = bulkImportService.getJob(jobId);
+            return ResponseEntity.ok(job);
+        } catch (IOException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @GetMapping
     public ResponseEntity<List<Candidate>> getAllCandidates() {
         List<Candidate> candidates = candidateService.getAllCandidates();
         return ResponseEntity.ok(candidates);
     }
     
+    /**
+     * Full-text search of resume text; "quoted phrases" must match exactly
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchResult> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(searchService.search(query, Math.max(1, Math.min(limit, 100))));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     @GetMapping("/{candidateId}")
     public ResponseEntity<Candidate> getCandidate(@PathVariable String candidateId) {
         try {
@@ -51,4 +140,40 @@ public class CandidateController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    /**
+     * Other candidates with a near-identical resume, most similar first
+     */
+    @GetMapping("/{candidateId}/duplicates")
+    public ResponseEntity<List<DuplicateMatch>> getDuplicates(@PathVariable String candidateId) {
+        try {
+            candidateService.getCandidate(candidateId);
+        } catch (IOException e) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(duplicateDetection.findNearDuplicates(candidateId));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Candidates with the most similar resumes, from the local nearest-neighbour index
+     */
+    @GetMapping("/{candidateId}/similar")
+    public ResponseEntity<List<SimilarCandidate>> getSimilar(
+            @PathVariable String candidateId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            candidateService.getCandidate(candidateId);
+        } catch (IOException e) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(similarCandidates.findSimilar(candidateId, Math.max(1, Math.min(limit, 100))));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
 }
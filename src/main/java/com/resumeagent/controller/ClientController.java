@@ -1,9 +1,13 @@
 package com.resumeagent.controller;
 
+import com.resumeagent.agent.LlmCallContext;
 import com.resumeagent.model.ClientRequirement;
 import com.resumeagent.service.ClientService;
+import com.resumeagent.service.IdempotencyService;
+import com.resumeagent.util.BlockingUtil;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.util.List;
@@ -14,16 +18,39 @@ import java.util.Map;
 public class ClientController {
     
     private final ClientService clientService;
+    private final IdempotencyService idempotencyService;
     
-    public ClientController(ClientService clientService) {
+    public ClientController(ClientService clientService, IdempotencyService idempotencyService) {
         this.clientService = clientService;
+        this.idempotencyService = idempotencyService;
     }
     
+    /**
+     * With an Idempotency-Key, a retried request returns the client created by the
+     * first one instead of parsing the requirement again and creating a duplicate
+     */
     @PostMapping
-    public ResponseEntity<ClientRequirement> createClient(@RequestBody Map<String, String> request) {
+    public Mono<ResponseEntity<ClientRequirement>> createClient(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody Map<String, String> request) {
+        String rawRequirement = request.get("requirement");
+        return idempotencyService.execute(idempotencyKey, "create-client", request, ClientRequirement.class,
+                        () -> BlockingUtil.offload(() -> clientService.createClient(rawRequirement))
+                                .map(ResponseEntity::ok)
+                                .onErrorResume(IOException.class, e -> Mono.just(ResponseEntity.internalServerError().build())))
+                .contextWrite(LlmCallContext.capture());
+    }
+    
+    @PutMapping("/{clientId}")
+    public ResponseEntity<ClientRequirement> updateClient(@PathVariable String clientId,
+                                                          @RequestBody Map<String, String> request) {
+        try {
+            clientService.getClient(clientId);
+        } catch (IOException e) {
+            return ResponseEntity.notFound().build();
+        }
         try {
-            String rawRequirement = request.get("requirement");
-            ClientRequirement client = clientService.createClient(rawRequirement);
+            ClientRequirement client = clientService.updateClient(clientId, request.get("requirement"));
             return ResponseEntity.ok(client);
         } catch (IOException e) {
             return ResponseEntity.internalServerError().build();
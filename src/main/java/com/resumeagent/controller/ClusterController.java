@@ -0,0 +1,40 @@
+package com.resumeagent.controller;
+
+import com.resumeagent.model.ClusterStatus;
+import com.resumeagent.service.LeaseService;
+import com.resumeagent.service.SharedWorkQueue;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+    
+    private final LeaseService leaseService;
+    private final SharedWorkQueue workQueue;
+    
+    public ClusterController(LeaseService leaseService, SharedWorkQueue workQueue) {
+        this.leaseService = leaseService;
+        this.workQueue = workQueue;
+    }
+    
+    @GetMapping
+    public ResponseEntity<ClusterStatus> getStatus() {
+        try {
+            return ResponseEntity.ok(ClusterStatus.builder()
+                    .nodeId(leaseService.getNodeId())
+                    .queued(Map.of(
+                            "precompute", workQueue.size("precompute"),
+                            "recompute", workQueue.size("recompute")))
+                    .leases(leaseService.getLeases())
+                    .build());
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
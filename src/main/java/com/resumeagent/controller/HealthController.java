@@ -0,0 +1,48 @@
+package com.resumeagent.controller;
+
+import com.resumeagent.model.HealthStatus;
+import com.resumeagent.service.StartupWarmupService;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Probe endpoints. Liveness only reports whether the process is healthy; readiness
+ * reports whether it accepts traffic, together with the background warm-up progress.
+ */
+@RestController
+@RequestMapping("/api/health")
+public class HealthController {
+    
+    private final ApplicationAvailability availability;
+    private final StartupWarmupService warmupService;
+    
+    public HealthController(ApplicationAvailability availability, StartupWarmupService warmupService) {
+        this.availability = availability;
+        this.warmupService = warmupService;
+    }
+    
+    @GetMapping("/liveness")
+    public ResponseEntity<HealthStatus> getLiveness() {
+        LivenessState state = availability.getLivenessState();
+        HealthStatus status = HealthStatus.builder().state(state.name()).build();
+        return ResponseEntity.status(state == LivenessState.CORRECT ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(status);
+    }
+    
+    @GetMapping("/readiness")
+    public ResponseEntity<HealthStatus> getReadiness() {
+        ReadinessState state = availability.getReadinessState();
+        HealthStatus status = HealthStatus.builder()
+                .state(state.name())
+                .warmup(warmupService.getStatus())
+                .build();
+        return ResponseEntity.status(state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(status);
+    }
+}
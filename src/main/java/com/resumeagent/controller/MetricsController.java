@@ -0,0 +1,66 @@
+package com.resumeagent.controller;
+
+import com.resumeagent.agent.LlmScheduler;
+import com.resumeagent.agent.ParseStatsTracker;
+import com.resumeagent.agent.TenantUsageTracker;
+import com.resumeagent.agent.TokenUsageTracker;
+import com.resumeagent.model.ParseStats;
+import com.resumeagent.model.PrecomputeStatus;
+import com.resumeagent.model.SchedulerMetrics;
+import com.resumeagent.model.TenantUsage;
+import com.resumeagent.model.TokenUsage;
+import com.resumeagent.service.AnalysisPrecomputeService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+    
+    private final TokenUsageTracker tokenUsageTracker;
+    private final AnalysisPrecomputeService precomputeService;
+    private final LlmScheduler scheduler;
+    private final ParseStatsTracker parseStatsTracker;
+    private final TenantUsageTracker tenantUsageTracker;
+    
+    public MetricsController(TokenUsageTracker tokenUsageTracker,
+                             AnalysisPrecomputeService precomputeService,
+                             LlmScheduler scheduler,
+                             ParseStatsTracker parseStatsTracker,
+                             TenantUsageTracker tenantUsageTracker) {
+        this.tokenUsageTracker = tokenUsageTracker;
+        this.precomputeService = precomputeService;
+        this.scheduler = scheduler;
+        this.parseStatsTracker = parseStatsTracker;
+        this.tenantUsageTracker = tenantUsageTracker;
+    }
+    
+    @GetMapping("/tokens")
+    public ResponseEntity<List<TokenUsage>> getTokenUsage() {
+        return ResponseEntity.ok(tokenUsageTracker.getUsage());
+    }
+    
+    @GetMapping("/precompute")
+    public ResponseEntity<PrecomputeStatus> getPrecomputeStatus() {
+        return ResponseEntity.ok(precomputeService.getStatus());
+    }
+    
+    @GetMapping("/scheduler")
+    public ResponseEntity<SchedulerMetrics> getSchedulerMetrics() {
+        return ResponseEntity.ok(scheduler.getMetrics());
+    }
+    
+    @GetMapping("/parsing")
+    public ResponseEntity<List<ParseStats>> getParseStats() {
+        return ResponseEntity.ok(parseStatsTracker.getStats());
+    }
+    
+    @GetMapping("/tenants")
+    public ResponseEntity<List<TenantUsage>> getTenantUsage() {
+        return ResponseEntity.ok(tenantUsageTracker.getUsage());
+    }
+}
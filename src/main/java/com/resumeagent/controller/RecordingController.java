@@ -0,0 +1,92 @@
+package com.resumeagent.controller;
+
+import com.resumeagent.model.RecordingInfo;
+import com.resumeagent.service.FlightRecordingService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Starts, stops and dumps Java Flight Recorder recordings. Dumps are .jfr files for
+ * JDK Mission Control or the jfr tool.
+ */
+@RestController
+@RequestMapping("/api/admin/recordings")
+public class RecordingController {
+    
+    private static final String JFR_CONTENT_TYPE = "application/octet-stream";
+    
+    private final FlightRecordingService recordingService;
+    
+    public RecordingController(FlightRecordingService recordingService) {
+        this.recordingService = recordingService;
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<RecordingInfo>> getRecordings() {
+        return ResponseEntity.ok(recordingService.list());
+    }
+    
+    /**
+     * Start a recording; without a duration (e.g. 90s, 5m or PT5M) it runs until stopped
+     */
+    @PostMapping
+    public ResponseEntity<RecordingInfo> startRecording(
+            @RequestParam(required = false) String duration,
+            @RequestParam(required = false) String settings) {
+        try {
+            return ResponseEntity.ok(recordingService.start(
+                    duration != null ? DurationStyle.detectAndParse(duration) : null, settings));
+        } catch (IllegalArgumentException | IOException | ParseException e) {
+            // Unparseable duration, or unknown or unreadable settings
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<RecordingInfo> stopRecording(@PathVariable long id) {
+        RecordingInfo info = recordingService.stop(id);
+        return info != null ? ResponseEntity.ok(info) : ResponseEntity.notFound().build();
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> closeRecording(@PathVariable long id) {
+        return recordingService.close(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping("/{id}/dump")
+    public void dumpRecording(@PathVariable long id, HttpServletResponse response) throws IOException {
+        send(recordingService.dump(id), "recording-" + id + ".jfr", response);
+    }
+    
+    /**
+     * Dump what all running recordings, including the continuous one, hold right now
+     */
+    @GetMapping("/snapshot")
+    public void dumpSnapshot(HttpServletResponse response) throws IOException {
+        send(recordingService.snapshot(), "snapshot.jfr", response);
+    }
+    
+    private void send(Path file, String filename, HttpServletResponse response) throws IOException {
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        try {
+            response.setContentType(JFR_CONTENT_TYPE);
+            response.setContentLengthLong(Files.size(file));
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            Files.copy(file, response.getOutputStream());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.resumeagent.controller;
+
+import com.resumeagent.model.StorageStatus;
+import com.resumeagent.service.StorageLifecycleService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Hot and archived file counts, and running the storage lifecycle policy on demand
+ */
+@RestController
+@RequestMapping("/api/admin/storage")
+public class StorageController {
+    
+    private final StorageLifecycleService lifecycleService;
+    
+    public StorageController(StorageLifecycleService lifecycleService) {
+        this.lifecycleService = lifecycleService;
+    }
+    
+    @GetMapping
+    public ResponseEntity<StorageStatus> getStatus() {
+        try {
+            return ResponseEntity.ok(lifecycleService.getStatus());
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Archive cold files and delete expired PDFs now; 409 if another instance is already doing so
+     */
+    @PostMapping("/lifecycle")
+    public ResponseEntity<StorageStatus> runLifecycle() {
+        try {
+            if (!lifecycleService.run()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.ok(lifecycleService.getStatus());
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
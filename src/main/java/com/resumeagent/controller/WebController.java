@@ -4,10 +4,12 @@ import com.resumeagent.model.AnalysisResult;
 import com.resumeagent.model.Candidate;
 import com.resumeagent.model.ClientRequirement;
 import com.resumeagent.model.InterviewPrep;
+import com.resumeagent.model.SimilarCandidate;
 import com.resumeagent.service.AnalysisService;
 import com.resumeagent.service.CandidateService;
 import com.resumeagent.service.ClientService;
 import com.resumeagent.service.InterviewPrepService;
+import com.resumeagent.service.SimilarCandidateService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +17,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Controller
 public class WebController {
@@ -24,15 +28,18 @@ public class WebController {
     private final CandidateService candidateService;
     private final AnalysisService analysisService;
     private final InterviewPrepService interviewPrepService;
+    private final SimilarCandidateService similarCandidates;
     
     public WebController(ClientService clientService,
                         CandidateService candidateService,
                         AnalysisService analysisService,
-                        InterviewPrepService interviewPrepService) {
+                        InterviewPrepService interviewPrepService,
+                        SimilarCandidateService similarCandidates) {
         this.clientService = clientService;
         this.candidateService = candidateService;
         this.analysisService = analysisService;
         this.interviewPrepService = interviewPrepService;
+        this.similarCandidates = similarCandidates;
     }
     
     @GetMapping("/")
@@ -85,10 +92,27 @@ public class WebController {
             model.addAttribute("analysis", analysis);
             model.addAttribute("candidate", candidate);
             model.addAttribute("client", client);
-            return "analysis-detail";
         } catch (IOException e) {
             return "redirect:/analyze";
         }
+        
+        // "More like this": nearest resumes, linked when already analyzed for this client
+        List<SimilarCandidate> similar;
+        try {
+            similar = similarCandidates.findSimilarIndexed(candidateId, 5);
+        } catch (IOException | RuntimeException e) {
+            // The analysis is still worth showing without suggestions
+            similar = List.of();
+        }
+        Set<String> analyzed = new HashSet<>();
+        for (SimilarCandidate other : similar) {
+            if (analysisService.hasAnalysis(other.getCandidateId(), clientId)) {
+                analyzed.add(other.getCandidateId());
+            }
+        }
+        model.addAttribute("similar", similar);
+        model.addAttribute("analyzedSimilar", analyzed);
+        return "analysis-detail";
     }
     
     @GetMapping("/interview-prep")
@@ -0,0 +1,14 @@
+package com.resumeagent.event;
+
+import com.resumeagent.model.Candidate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a candidate profile has been created from an uploaded or imported resume
+ */
+@Data
+@AllArgsConstructor
+public class CandidateRegisteredEvent {
+    private Candidate candidate;
+}
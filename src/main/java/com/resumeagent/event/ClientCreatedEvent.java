@@ -0,0 +1,14 @@
+package com.resumeagent.event;
+
+import com.resumeagent.model.ClientRequirement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a new client requirement has been saved
+ */
+@Data
+@AllArgsConstructor
+public class ClientCreatedEvent {
+    private ClientRequirement requirement;
+}
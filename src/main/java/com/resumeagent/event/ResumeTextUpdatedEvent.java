@@ -0,0 +1,15 @@
+package com.resumeagent.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a candidate's resume text has been extracted and stored, on
+ * registration and on resume replacement
+ */
+@Data
+@AllArgsConstructor
+public class ResumeTextUpdatedEvent {
+    private String candidateId;
+    private String text;
+}
@@ -0,0 +1,52 @@
+package com.resumeagent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * One model call through the gateway, from subscription until the response is complete
+ */
+@Name("com.resumeagent.AgentCall")
+@Label("Agent Call")
+@Category({"Resume Agent", "Model"})
+@Description("Model call made by an agent, including the wait for a scheduler slot")
+@Setter
+public class AgentCallEvent extends Event {
+    
+    @Label("Agent")
+    private String agent;
+    
+    @Label("Model")
+    private String model;
+    
+    @Label("Priority")
+    private String priority;
+    
+    @Label("Tenant")
+    private String tenant;
+    
+    @Label("Prompt Tokens")
+    private int promptTokens;
+    
+    @Label("Completion Tokens")
+    private long completionTokens;
+    
+    @Label("Response Characters")
+    private long responseCharacters;
+    
+    @Label("Trimmed")
+    private boolean trimmed;
+    
+    @Label("Queue Time")
+    @Description("Time spent waiting for a scheduler slot")
+    @Timespan(Timespan.MILLISECONDS)
+    private long queueMillis;
+    
+    @Label("Outcome")
+    private String outcome;
+}
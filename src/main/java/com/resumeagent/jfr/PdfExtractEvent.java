@@ -0,0 +1,34 @@
+package com.resumeagent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("com.resumeagent.PdfExtract")
+@Label("PDF Text Extraction")
+@Category({"Resume Agent", "PDF"})
+@Description("Loading a PDF and extracting its text")
+@Setter
+public class PdfExtractEvent extends Event {
+    
+    @Label("Source")
+    private String source;
+    
+    @Label("Input Size")
+    @DataAmount(DataAmount.BYTES)
+    private long inputBytes;
+    
+    @Label("Pages")
+    private int pages;
+    
+    @Label("Page Ranges")
+    @Description("Ranges extracted concurrently; 1 when extracted on the calling thread alone")
+    private int ranges;
+    
+    @Label("Extracted Characters")
+    private long characters;
+}
@@ -0,0 +1,33 @@
+package com.resumeagent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("com.resumeagent.PdfGenerate")
+@Label("PDF Generation")
+@Category({"Resume Agent", "PDF"})
+@Description("Rendering text into a PDF document")
+@Setter
+public class PdfGenerateEvent extends Event {
+    
+    @Label("Destination")
+    private String destination;
+    
+    @Label("Content Characters")
+    private long characters;
+    
+    @Label("Lines")
+    private int lines;
+    
+    @Label("Pages")
+    private int pages;
+    
+    @Label("Output Size")
+    @DataAmount(DataAmount.BYTES)
+    private long outputBytes;
+}
@@ -0,0 +1,35 @@
+package com.resumeagent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("com.resumeagent.Storage")
+@Label("Storage Operation")
+@Category({"Resume Agent", "Storage"})
+@Description("Read, write, delete or list in the file store")
+@Setter
+public class StorageEvent extends Event {
+    
+    @Label("Operation")
+    private String operation;
+    
+    @Label("Path")
+    @Description("Path relative to the storage base path")
+    private String path;
+    
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    private long bytes;
+    
+    @Label("Entries")
+    @Description("Files returned by a list")
+    private int entries;
+    
+    @Label("Failed")
+    private boolean failed;
+}
@@ -0,0 +1,31 @@
+package com.resumeagent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+@Name("com.resumeagent.WorkflowStage")
+@Label("Workflow Stage")
+@Category({"Resume Agent", "Workflow"})
+@Description("One stage of the candidate workflow, from subscription until it completes")
+@Setter
+public class WorkflowStageEvent extends Event {
+    
+    @Label("Stage")
+    private String stage;
+    
+    @Label("Mode")
+    private String mode;
+    
+    @Label("Candidate ID")
+    private String candidateId;
+    
+    @Label("Client ID")
+    private String clientId;
+    
+    @Label("Outcome")
+    private String outcome;
+}
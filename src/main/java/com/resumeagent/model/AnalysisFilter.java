@@ -0,0 +1,19 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisFilter {
+    private String clientId;
+    private LocalDate from; // analyzed on or after this day
+    private LocalDate to; // analyzed on or before this day
+    private Integer minFitScore;
+}
@@ -1,5 +1,7 @@
 package com.resumeagent.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.resumeagent.util.SkillListDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,9 +20,17 @@ public class AnalysisResult {
     private String candidateId;
     private String clientId;
     private Integer fitScore; // 0-100
+    @JsonDeserialize(using = SkillListDeserializer.class)
     private List<String> matchedSkills;
+    @JsonDeserialize(using = SkillListDeserializer.class)
     private List<String> missingSkills;
     private Map<String, String> skillEvidence; // skill -> evidence from resume
     private List<String> recommendations;
     private LocalDateTime analyzedAt;
+    private String model; // model that produced the fit score
+    private String requirementHash; // content hash of the requirement this was computed from
+    private String resumeHash; // content hash of the original resume PDF
+    private String duplicateOf; // candidate with a near-identical resume already analyzed for this client
+    private Double duplicateSimilarity;
+    private Boolean reused; // copied from duplicateOf's analysis instead of calling the model
 }
@@ -0,0 +1,23 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtifactStatus {
+    private String type; // analysis, optimized-resume, interview-prep
+    private String candidateId;
+    private String clientId;
+    private Boolean stale;
+    private List<String> reasons; // which inputs changed
+    private Boolean recomputed;
+    private Boolean queued; // submitted to the shared recompute queue instead of recomputed in the request
+    private String error;
+}
@@ -1,5 +1,7 @@
 package com.resumeagent.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.resumeagent.util.SkillListDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +18,7 @@ public class Candidate {
     private String id;
     private String name;
     private String email;
+    @JsonDeserialize(using = SkillListDeserializer.class)
     private List<String> skills;
     private Integer yearsOfExperience;
     private String originalResumeFilename;
@@ -1,5 +1,7 @@
 package com.resumeagent.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.resumeagent.util.SkillListDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,7 +18,9 @@ public class ClientRequirement {
     private String id;
     private String role;
     private String level; // junior, intermediate, senior
+    @JsonDeserialize(using = SkillListDeserializer.class)
     private List<String> requiredSkills;
+    @JsonDeserialize(using = SkillListDeserializer.class)
     private List<String> preferredSkills;
     private Integer yearsOfExperience;
     private String rawRequirement;
@@ -0,0 +1,19 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterStatus {
+    private String nodeId; // the instance answering the request
+    private Map<String, Integer> queued; // shared work queue -> items waiting or in progress
+    private List<LeaseInfo> leases;
+}
@@ -0,0 +1,15 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateMatch {
+    private String candidateId;
+    private Double similarity; // estimated Jaccard similarity of the resume texts' word shingles
+}
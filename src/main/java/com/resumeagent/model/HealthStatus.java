@@ -0,0 +1,15 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthStatus {
+    private String state; // liveness: CORRECT, BROKEN; readiness: ACCEPTING_TRAFFIC, REFUSING_TRAFFIC
+    private WarmupStatus warmup;
+}
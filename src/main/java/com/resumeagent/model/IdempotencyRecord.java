@@ -0,0 +1,24 @@
+package com.resumeagent.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    private String key; // Idempotency-Key header value
+    private String operation;
+    private String tenant;
+    private String requestHash; // a key reused with a different request body is rejected
+    private Integer status;
+    private JsonNode body;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,17 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportFileResult {
+    private String filename;
+    private String status; // PENDING, SUCCEEDED, FAILED
+    private String candidateId;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJob {
+    private String id;
+    private String status; // RUNNING, COMPLETED
+    private Integer totalFiles;
+    private Integer succeeded;
+    private Integer failed;
+    private List<ImportFileResult> results;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
@@ -21,4 +21,6 @@ public class InterviewPrep {
     private List<String> talkingPoints;
     private List<String> tips;
     private LocalDateTime generatedAt;
+    private String requirementHash; // content hash of the requirement this was generated from
+    private String resumeHash; // set only when the resume was part of the prompt (fused mode)
 }
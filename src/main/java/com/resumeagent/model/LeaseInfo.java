@@ -0,0 +1,22 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaseInfo {
+    private String key;
+    private String owner; // node id of the holder
+    private String token; // identifies one claim; a holder whose token is no longer on disk has lost the lease
+    private Long generation;
+    private LocalDateTime acquiredAt;
+    private Long heartbeatAgeMillis;
+    private Boolean expired;
+}
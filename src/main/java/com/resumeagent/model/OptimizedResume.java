@@ -0,0 +1,23 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata of an optimized resume; the text itself is stored next to it
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptimizedResume {
+    private String candidateId;
+    private String clientId;
+    private String requirementHash;
+    private String resumeHash;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,26 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParseStats {
+    private String agent;
+    private Long responses; // including follow-up answers
+    private Long parsedClean;
+    private Long repaired;
+    private Map<String, Long> repairs; // by kind: surrounding-text, lenient-syntax, truncated
+    private Long unparseable; // no JSON object could be recovered
+    private Long incomplete; // required fields missing after repair
+    private Long followUps;
+    private Long followUpsRecovered;
+    private Long failures; // still incomplete after the follow-up
+    private Double failureRate; // share of responses that did not parse as-is
+}
@@ -0,0 +1,19 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrecomputeStatus {
+    private Boolean enabled;
+    private Integer queued;
+    private Long completed;
+    private Long skipped; // analysis already existed, or another node was computing it, when the pair was claimed
+    private Long failed;
+    private Boolean interactiveIdle;
+}
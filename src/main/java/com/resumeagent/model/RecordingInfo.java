@@ -0,0 +1,23 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingInfo {
+    private Long id;
+    private String name;
+    private String state; // NEW, DELAYED, RUNNING, STOPPED or CLOSED
+    private String settings; // JFR configuration the recording was started with, e.g. default or profile
+    private LocalDateTime startedAt;
+    private String duration; // ISO-8601; null = runs until stopped
+    private String maxAge; // ISO-8601; set on the continuous recording
+    private Long sizeBytes; // data recorded so far
+}
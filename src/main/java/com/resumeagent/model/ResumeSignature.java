@@ -0,0 +1,18 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MinHash signature of a candidate's resume text, for near-duplicate lookup
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeSignature {
+    private String candidateId;
+    private int[] values;
+}
@@ -0,0 +1,34 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerMetrics {
+    private Integer maxConcurrent;
+    private Integer running;
+    private List<PriorityMetrics> priorities;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriorityMetrics {
+        private String priority;
+        private Integer queued;
+        private Map<String, Integer> queuedByTenant;
+        private Long dispatched;
+        private Long expired; // gave up waiting at the deadline
+        private Long averageWaitMillis;
+        private Long p95WaitMillis; // over the most recent dispatches
+        private Long maxWaitMillis;
+    }
+}
@@ -0,0 +1,17 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private String candidateId;
+    private String name;
+    private Double score;
+    private String snippet; // HTML-escaped resume excerpt with matches wrapped in <mark>
+}
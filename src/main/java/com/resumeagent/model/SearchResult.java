@@ -0,0 +1,20 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult {
+    private String query;
+    private Integer total; // matching resumes, of which the best are returned as hits
+    private Integer indexed;
+    private Long tookMillis;
+    private List<SearchHit> hits;
+}
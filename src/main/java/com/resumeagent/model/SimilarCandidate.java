@@ -0,0 +1,19 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarCandidate {
+    private String candidateId;
+    private String name;
+    private Double similarity; // idf-weighted cosine of resume terms and skills, 0-1
+    private List<String> skills;
+}
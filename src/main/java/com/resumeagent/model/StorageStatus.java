@@ -0,0 +1,26 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageStatus {
+    private Boolean lifecycleEnabled;
+    private Map<String, Integer> hotFiles; // directory -> files not yet archived
+    private Map<String, Integer> archivedFiles; // directory -> files in archive segments
+    private Map<String, Integer> segments;
+    private LocalDateTime lastRunAt;
+    private Long lastRunArchived; // files packed by the last run
+    private Long lastRunArchivedBytes; // size of the segments it wrote
+    private Long lastRunPdfsDeleted; // expired modified resume PDFs
+    private Long lastRunSegmentsCompacted; // sparse segments rewritten and removed
+    private Long lastRunMillis;
+}
@@ -0,0 +1,26 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantUsage {
+    private String tenant;
+    private LocalDate date; // UTC day the counters cover
+    private Long requests;
+    private Long modelRequests; // requests to endpoints that call the model
+    private Long throttled; // rejected with 429 by a rate limit
+    private Long quotaRejected; // rejected with 429 by a daily quota
+    private Long modelCalls;
+    private Long promptTokens;
+    private Long completionTokens;
+    private Long dailyModelCallLimit; // 0 = unlimited
+    private Long dailyTokenLimit; // 0 = unlimited
+}
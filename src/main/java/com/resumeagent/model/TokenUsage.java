@@ -0,0 +1,22 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenUsage {
+    private String agent;
+    private String model;
+    private Long calls;
+    private Long promptTokens; // counted locally before sending
+    private Long reportedPromptTokens; // as reported by the model provider
+    private Long completionTokens;
+    private Long largestPromptTokens;
+    private Long trimmedPrompts;
+    private Long rejectedPrompts;
+}
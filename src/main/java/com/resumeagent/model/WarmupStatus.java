@@ -0,0 +1,19 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarmupStatus {
+    private String state; // PENDING, RUNNING, DONE, DISABLED
+    private Long durationMillis;
+    private Map<String, Long> taskMillis;
+    private Map<String, String> failures; // task name -> error message
+}
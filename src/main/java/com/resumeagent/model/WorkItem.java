@@ -0,0 +1,22 @@
+package com.resumeagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkItem {
+    private String id; // unique within the queue; submitting an existing id is a no-op
+    private String queue;
+    private Double priority; // higher is claimed first
+    private Map<String, String> payload;
+    private String submittedBy; // node id
+    private LocalDateTime submittedAt;
+}
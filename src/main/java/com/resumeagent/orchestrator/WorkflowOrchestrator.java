@@ -1,29 +1,45 @@
 package com.resumeagent.orchestrator;
 
+import com.resumeagent.agent.FusedAssessmentAgent;
+import com.resumeagent.jfr.WorkflowStageEvent;
 import com.resumeagent.model.AnalysisResult;
 import com.resumeagent.model.InterviewPrep;
 import com.resumeagent.service.AnalysisService;
 import com.resumeagent.service.InterviewPrepService;
 import com.resumeagent.service.ResumeService;
+import com.resumeagent.util.BlockingUtil;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import java.io.IOException;
 
 @Component
 public class WorkflowOrchestrator {
     
+    private static final String SEPARATE = "separate";
+    private static final String FUSED = "fused";
+    
     private final AnalysisService analysisService;
     private final ResumeService resumeService;
     private final InterviewPrepService interviewPrepService;
+    private final boolean fusedByDefault;
+    private final int optimizeThreshold;
     
     public WorkflowOrchestrator(AnalysisService analysisService,
                                ResumeService resumeService,
-                               InterviewPrepService interviewPrepService) {
+                               InterviewPrepService interviewPrepService,
+                               @Value("${app.workflow.fused-analysis:false}") boolean fusedByDefault,
+                               @Value("${app.workflow.optimize-threshold:60}") int optimizeThreshold) {
         this.analysisService = analysisService;
         this.resumeService = resumeService;
         this.interviewPrepService = interviewPrepService;
+        this.fusedByDefault = fusedByDefault;
+        this.optimizeThreshold = optimizeThreshold;
     }
     
     /**
@@ -31,23 +47,86 @@ public class WorkflowOrchestrator {
      * This coordinates the full workflow
      */
     public WorkflowResult processCandidate(String candidateId, String clientId) throws IOException {
-        // 1. Analyze candidate fit
-        AnalysisResult analysis = analysisService.analyzeCandidate(candidateId, clientId);
-        
-        String modifiedResumePath = null;
-        
-        // 2. If fit score > threshold, modify resume
-        if (analysis.getFitScore() > 60) {
-            modifiedResumePath = resumeService.optimizeResume(candidateId, clientId);
+        return processCandidate(candidateId, clientId, null);
+    }
+    
+    /**
+     * Process a candidate, optionally producing the analysis and interview prep in a
+     * single model call. A null fused flag uses app.workflow.fused-analysis.
+     */
+    public WorkflowResult processCandidate(String candidateId, String clientId, Boolean fused) throws IOException {
+        return BlockingUtil.await(processCandidateAsync(candidateId, clientId, fused));
+    }
+    
+    /**
+     * Non-blocking workflow. Interview prep does not depend on the analysis, so in
+     * separate mode it is generated while the analysis and optimization run.
+     */
+    public Mono<WorkflowResult> processCandidateAsync(String candidateId, String clientId, Boolean fused) {
+        if (fused != null ? fused : fusedByDefault) {
+            return processCandidateFusedAsync(candidateId, clientId);
         }
         
+        // 1. Analyze candidate fit, then 2. if fit score > threshold, modify resume
+        Mono<Object[]> analysisAndResume = stage("analysis", SEPARATE, candidateId, clientId,
+                        analysisService.analyzeCandidateAsync(candidateId, clientId))
+                .flatMap(analysis -> optimizeIfFit(analysis, SEPARATE, candidateId, clientId)
+                        .map(path -> new Object[]{analysis, path})
+                        .defaultIfEmpty(new Object[]{analysis, null}));
+        
         // 3. Generate interview prep
-        InterviewPrep prep = interviewPrepService.generateInterviewPrep(candidateId, clientId);
+        Mono<InterviewPrep> prep = stage("interview-prep", SEPARATE, candidateId, clientId,
+                interviewPrepService.generateInterviewPrepAsync(candidateId, clientId));
         
-        return new WorkflowResult(analysis, modifiedResumePath, prep);
+        return Mono.zip(analysisAndResume, prep)
+                .map(results -> new WorkflowResult((AnalysisResult) results.getT1()[0], (String) results.getT1()[1], results.getT2()));
+    }
+    
+    private Mono<WorkflowResult> processCandidateFusedAsync(String candidateId, String clientId) {
+        // 1. Analyze candidate fit and generate interview prep together
+        return stage("assessment", FUSED, candidateId, clientId,
+                        analysisService.analyzeCandidateWithInterviewPrepAsync(candidateId, clientId))
+                .flatMap(assessment -> stage("save-interview-prep", FUSED, candidateId, clientId, Mono.fromCallable(() -> {
+                    interviewPrepService.saveInterviewPrep(assessment.getInterviewPrep());
+                    return assessment;
+                })))
+                // 2. If fit score > threshold, modify resume
+                .flatMap(assessment -> optimizeIfFit(assessment.getAnalysis(), FUSED, candidateId, clientId)
+                        .map(path -> new WorkflowResult(assessment.getAnalysis(), path, assessment.getInterviewPrep()))
+                        .defaultIfEmpty(new WorkflowResult(assessment.getAnalysis(), null, assessment.getInterviewPrep())));
+    }
+    
+    private Mono<String> optimizeIfFit(AnalysisResult analysis, String mode, String candidateId, String clientId) {
+        if (analysis.getFitScore() > optimizeThreshold) {
+            return stage("optimize-resume", mode, candidateId, clientId,
+                    resumeService.optimizeResumeAsync(candidateId, clientId));
+        }
+        return Mono.empty();
+    }
+    
+    /**
+     * Record the stage as a flight recorder event spanning each subscription
+     */
+    private <T> Mono<T> stage(String name, String mode, String candidateId, String clientId, Mono<T> work) {
+        return Mono.defer(() -> {
+            WorkflowStageEvent event = new WorkflowStageEvent();
+            event.begin();
+            return work.doFinally(signal -> {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.setStage(name);
+                    event.setMode(mode);
+                    event.setCandidateId(candidateId);
+                    event.setClientId(clientId);
+                    event.setOutcome(signal == SignalType.ON_COMPLETE ? "completed" : signal == SignalType.ON_ERROR ? "error" : "cancelled");
+                    event.commit();
+                }
+            });
+        });
     }
     
     @Data
+    @NoArgsConstructor
     @AllArgsConstructor
     public static class WorkflowResult {
         private AnalysisResult analysis;
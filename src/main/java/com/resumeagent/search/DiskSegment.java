@@ -0,0 +1,309 @@
+package com.resumeagent.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Segment persisted under the index directory. The document table is loaded into
+ * memory; the term dictionary and postings are memory-mapped, so opening a segment
+ * reads no postings and a search touches only the pages of the queried terms.
+ *
+ * <p>Files: docs.bin (candidate id, length and stamp per document), terms.idx
+ * (fixed 16-byte entries sorted by the term's UTF-8 bytes: term offset, doc freq,
+ * postings offset), terms.dat (term bytes) and postings.bin (per document the
+ * doc delta, freq and position deltas as varints).
+ */
+public class DiskSegment implements Segment {
+    
+    private static final int ENTRY_BYTES = 16;
+    
+    private final String name;
+    private final String[] candidateIds;
+    private final int[] lengths;
+    private final long[] stamps;
+    private final MappedByteBuffer termIndex;
+    private final MappedByteBuffer termData;
+    private final MappedByteBuffer postingsData;
+    private final int termCount;
+    
+    private DiskSegment(Path dir) throws IOException {
+        this.name = dir.getFileName().toString();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(dir.resolve("docs.bin"))))) {
+            int count = in.readInt();
+            candidateIds = new String[count];
+            lengths = new int[count];
+            stamps = new long[count];
+            for (int i = 0; i < count; i++) {
+                candidateIds[i] = in.readUTF();
+                lengths[i] = in.readInt();
+                stamps[i] = in.readLong();
+            }
+        }
+        termIndex = map(dir.resolve("terms.idx"));
+        termData = map(dir.resolve("terms.dat"));
+        postingsData = map(dir.resolve("postings.bin"));
+        termCount = termIndex.capacity() / ENTRY_BYTES;
+    }
+    
+    public static DiskSegment open(Path dir) throws IOException {
+        return new DiskSegment(dir);
+    }
+    
+    /**
+     * Write the documents of a memory segment as a new segment directory. The files
+     * are written to a temporary directory that is renamed into place, so a crash
+     * never leaves a half-written segment behind under the final name.
+     */
+    public static DiskSegment write(MemorySegment source, Path dir) throws IOException {
+        Path tmp = dir.resolveSibling(dir.getFileName() + ".tmp");
+        Files.createDirectories(tmp);
+        
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.resolve("docs.bin"))))) {
+            out.writeInt(source.getDocCount());
+            for (int doc = 0; doc < source.getDocCount(); doc++) {
+                out.writeUTF(source.getCandidateId(doc));
+                out.writeInt(source.getDocLength(doc));
+                out.writeLong(source.getStamp(doc));
+            }
+        }
+        
+        Map<String, List<MemorySegment.Posting>> postings = source.sortedPostings();
+        List<byte[]> terms = new ArrayList<>();
+        for (String term : postings.keySet()) {
+            terms.add(term.getBytes(StandardCharsets.UTF_8));
+        }
+        terms.sort(Arrays::compareUnsigned);
+        
+        try (DataOutputStream index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.resolve("terms.idx"))));
+             OutputStream data = new BufferedOutputStream(Files.newOutputStream(tmp.resolve("terms.dat")));
+             CountingOutput postingsOut = new CountingOutput(Files.newOutputStream(tmp.resolve("postings.bin")))) {
+            int termOffset = 0;
+            for (byte[] termBytes : terms) {
+                List<MemorySegment.Posting> list = postings.get(new String(termBytes, StandardCharsets.UTF_8));
+                index.writeInt(termOffset);
+                index.writeInt(list.size());
+                index.writeLong(postingsOut.written);
+                data.write(termBytes);
+                termOffset += termBytes.length;
+                
+                int previousDoc = 0;
+                for (MemorySegment.Posting posting : list) {
+                    postingsOut.writeVarInt(posting.getDoc() - previousDoc);
+                    previousDoc = posting.getDoc();
+                    int[] positions = posting.getPositions();
+                    postingsOut.writeVarInt(positions.length);
+                    int previousPosition = 0;
+                    for (int position : positions) {
+                        postingsOut.writeVarInt(position - previousPosition);
+                        previousPosition = position;
+                    }
+                }
+            }
+        }
+        
+        Files.move(tmp, dir, StandardCopyOption.ATOMIC_MOVE);
+        return new DiskSegment(dir);
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public int getDocCount() {
+        return candidateIds.length;
+    }
+    
+    @Override
+    public String getCandidateId(int doc) {
+        return candidateIds[doc];
+    }
+    
+    @Override
+    public int getDocLength(int doc) {
+        return lengths[doc];
+    }
+    
+    @Override
+    public long getStamp(int doc) {
+        return stamps[doc];
+    }
+    
+    @Override
+    public int getDocFreq(String term) {
+        int entry = find(term);
+        return entry >= 0 ? termIndex.getInt(entry * ENTRY_BYTES + 4) : 0;
+    }
+    
+    @Override
+    public Iterable<String> terms() {
+        List<String> terms = new ArrayList<>(termCount);
+        for (int entry = 0; entry < termCount; entry++) {
+            int start = termIndex.getInt(entry * ENTRY_BYTES);
+            int end = entry + 1 < termCount ? termIndex.getInt((entry + 1) * ENTRY_BYTES) : termData.capacity();
+            byte[] bytes = new byte[end - start];
+            termData.get(start, bytes);
+            terms.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return terms;
+    }
+    
+    @Override
+    public PostingsCursor postings(String term) {
+        int entry = find(term);
+        if (entry < 0) {
+            return null;
+        }
+        int docFreq = termIndex.getInt(entry * ENTRY_BYTES + 4);
+        long offset = termIndex.getLong(entry * ENTRY_BYTES + 8);
+        return new DiskCursor((int) offset, docFreq);
+    }
+    
+    /**
+     * Binary search of the term dictionary, comparing UTF-8 bytes in place
+     */
+    private int find(String term) {
+        byte[] key = term.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareTerm(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+    
+    private int compareTerm(int entry, byte[] key) {
+        int start = termIndex.getInt(entry * ENTRY_BYTES);
+        int end = entry + 1 < termCount ? termIndex.getInt((entry + 1) * ENTRY_BYTES) : termData.capacity();
+        int length = end - start;
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Integer.compare(termData.get(start + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+    
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+    
+    /**
+     * Decodes one term's postings; positions are decoded only when asked for
+     */
+    private class DiskCursor implements PostingsCursor {
+        private final ByteBuffer buffer = postingsData;
+        private int offset;
+        private int remaining;
+        private int doc;
+        private int freq;
+        private int positionsOffset;
+        
+        DiskCursor(int offset, int docFreq) {
+            this.offset = offset;
+            this.remaining = docFreq;
+        }
+        
+        @Override
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            doc += readVarInt();
+            freq = readVarInt();
+            positionsOffset = offset;
+            for (int i = 0; i < freq; i++) {
+                readVarInt();
+            }
+            return true;
+        }
+        
+        @Override
+        public int doc() {
+            return doc;
+        }
+        
+        @Override
+        public int freq() {
+            return freq;
+        }
+        
+        @Override
+        public int[] positions() {
+            int saved = offset;
+            offset = positionsOffset;
+            int[] positions = new int[freq];
+            int position = 0;
+            for (int i = 0; i < freq; i++) {
+                position += readVarInt();
+                positions[i] = position;
+            }
+            offset = saved;
+            return positions;
+        }
+        
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(offset++);
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+    
+    private static class CountingOutput extends BufferedOutputStream {
+        private long written;
+        
+        CountingOutput(OutputStream out) {
+            super(out);
+        }
+        
+        void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7f) != 0) {
+                write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+        
+        @Override
+        public synchronized void write(int b) throws IOException {
+            super.write(b);
+            written++;
+        }
+    }
+}
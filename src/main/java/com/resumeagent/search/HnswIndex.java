@@ -0,0 +1,385 @@
+package com.resumeagent.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Hierarchical navigable small world graph for approximate nearest-neighbour
+ * search over sparse vectors. Each node is linked to its closest neighbours on
+ * every layer up to a randomly drawn level; a search descends greedily from the
+ * sparse top layers and explores ef candidates on the bottom layer.
+ *
+ * <p>Re-adding an id marks the previous node deleted: it keeps routing searches
+ * but is never returned, until {@link #compact()} rebuilds the graph from the live
+ * nodes. Not thread-safe; callers serialize writes against reads.
+ */
+public class HnswIndex {
+    
+    private final int maxLinks;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final Distance distance;
+    
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, Integer> live = new HashMap<>();
+    private int entryPoint = -1;
+    private int topLevel = -1;
+    private int deletedCount;
+    
+    public HnswIndex(int maxLinks, int efConstruction, Distance distance) {
+        this.maxLinks = maxLinks;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxLinks);
+        this.distance = distance;
+    }
+    
+    public int size() {
+        return live.size();
+    }
+    
+    /**
+     * Share of the graph's nodes that are deleted and only kept for routing
+     */
+    public double getDeletedShare() {
+        return nodes.isEmpty() ? 0 : (double) deletedCount / nodes.size();
+    }
+    
+    public boolean contains(String id) {
+        return live.containsKey(id);
+    }
+    
+    public SparseVector getVector(String id) {
+        Integer node = live.get(id);
+        return node != null ? nodes.get(node).vector : null;
+    }
+    
+    public long getStamp(String id) {
+        Integer node = live.get(id);
+        return node != null ? nodes.get(node).stamp : -1;
+    }
+    
+    public Iterable<String> ids() {
+        return live.keySet();
+    }
+    
+    public void remove(String id) {
+        Integer previous = live.remove(id);
+        if (previous != null) {
+            nodes.get(previous).deleted = true;
+            deletedCount++;
+        }
+    }
+    
+    /**
+     * Rebuild the graph from the live nodes, in their original order, dropping the
+     * deleted ones and the links through them
+     */
+    public void compact() {
+        List<Node> previous = new ArrayList<>(nodes);
+        clear();
+        for (Node node : previous) {
+            if (!node.deleted) {
+                add(node.id, node.vector, node.stamp);
+            }
+        }
+    }
+    
+    public void add(String id, SparseVector vector, long stamp) {
+        remove(id);
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        Node node = new Node(id, vector, stamp, level);
+        int ordinal = nodes.size();
+        nodes.add(node);
+        live.put(id, ordinal);
+        if (entryPoint < 0) {
+            entryPoint = ordinal;
+            topLevel = level;
+            return;
+        }
+        
+        int current = entryPoint;
+        for (int layer = topLevel; layer > level; layer--) {
+            current = greedy(vector, current, layer);
+        }
+        for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+            List<Scored> candidates = searchLayer(vector, current, efConstruction, layer);
+            for (Scored neighbour : selectNeighbours(candidates, maxLinks)) {
+                node.link(layer, neighbour.node, neighbour.distance);
+                link(neighbour.node, layer, ordinal, neighbour.distance);
+            }
+            current = candidates.get(0).node;
+        }
+        if (level > topLevel) {
+            entryPoint = ordinal;
+            topLevel = level;
+        }
+    }
+    
+    /**
+     * The k nearest live nodes to the query, nearest first, without the excluded id.
+     * The bottom-layer search is widened by the deleted share so deleted nodes do
+     * not crowd live ones out of the candidates.
+     */
+    public List<Scored> search(SparseVector query, int k, int ef, String exclude) {
+        List<Scored> results = new ArrayList<>();
+        if (entryPoint < 0) {
+            return results;
+        }
+        int current = entryPoint;
+        for (int layer = topLevel; layer > 0; layer--) {
+            current = greedy(query, current, layer);
+        }
+        int width = (int) Math.ceil(Math.max(ef, k + 1) / (1 - getDeletedShare()));
+        for (Scored scored : searchLayer(query, current, width, 0)) {
+            Node node = nodes.get(scored.node);
+            if (!node.deleted && !node.id.equals(exclude)) {
+                results.add(scored);
+                if (results.size() == k) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+    
+    public String getId(int node) {
+        return nodes.get(node).id;
+    }
+    
+    private int greedy(SparseVector query, int start, int layer) {
+        int current = start;
+        double best = distance.between(query, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.linkCount(layer); i++) {
+                int neighbour = node.links[layer][i];
+                double d = distance.between(query, nodes.get(neighbour).vector);
+                if (d < best) {
+                    best = d;
+                    current = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Best-first search of one layer; returns up to ef nodes, nearest first
+     */
+    private List<Scored> searchLayer(SparseVector query, int start, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::distance));
+        PriorityQueue<Scored> nearest = new PriorityQueue<>(Comparator.comparingDouble(Scored::distance).reversed());
+        Scored first = new Scored(start, distance.between(query, nodes.get(start).vector));
+        visited.set(start);
+        candidates.add(first);
+        nearest.add(first);
+        
+        while (!candidates.isEmpty()) {
+            Scored closest = candidates.poll();
+            if (closest.distance > nearest.peek().distance && nearest.size() >= ef) {
+                break;
+            }
+            Node node = nodes.get(closest.node);
+            for (int i = 0; i < node.linkCount(layer); i++) {
+                int neighbour = node.links[layer][i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                double d = distance.between(query, nodes.get(neighbour).vector);
+                if (nearest.size() < ef || d < nearest.peek().distance) {
+                    Scored scored = new Scored(neighbour, d);
+                    candidates.add(scored);
+                    nearest.add(scored);
+                    if (nearest.size() > ef) {
+                        nearest.poll();
+                    }
+                }
+            }
+        }
+        List<Scored> sorted = new ArrayList<>(nearest);
+        sorted.sort(Comparator.comparingDouble(Scored::distance));
+        return sorted;
+    }
+    
+    /**
+     * Add a back link. A full neighbour re-selects its links from the old ones plus
+     * the new node, so its links keep pointing in different directions.
+     */
+    private void link(int from, int layer, int to, double d) {
+        Node node = nodes.get(from);
+        if (node.linkCount(layer) < linkLimit(layer)) {
+            node.link(layer, to, d);
+            return;
+        }
+        List<Scored> candidates = new ArrayList<>();
+        candidates.add(new Scored(to, d));
+        for (int i = 0; i < node.linkCounts[layer]; i++) {
+            candidates.add(new Scored(node.links[layer][i], node.linkDistances[layer][i]));
+        }
+        candidates.sort(Comparator.comparingDouble(Scored::distance));
+        node.linkCounts[layer] = 0;
+        for (Scored kept : selectNeighbours(candidates, linkLimit(layer))) {
+            node.link(layer, kept.node, kept.distance);
+        }
+    }
+    
+    /**
+     * The HNSW neighbour heuristic: walking the candidates nearest first, keep one
+     * only if it is closer to the base node than to every neighbour kept so far.
+     * This favours links in different directions over a tight cluster of near
+     * duplicates, which keeps the graph navigable.
+     */
+    private List<Scored> selectNeighbours(List<Scored> candidates, int limit) {
+        List<Scored> selected = new ArrayList<>();
+        for (Scored candidate : candidates) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            SparseVector vector = nodes.get(candidate.node).vector;
+            boolean diverse = true;
+            for (Scored kept : selected) {
+                if (distance.between(vector, nodes.get(kept.node).vector) < candidate.distance) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            }
+        }
+        return selected;
+    }
+    
+    private int linkLimit(int layer) {
+        return layer == 0 ? maxLinks * 2 : maxLinks;
+    }
+    
+    public void clear() {
+        nodes.clear();
+        live.clear();
+        entryPoint = -1;
+        topLevel = -1;
+        deletedCount = 0;
+    }
+    
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(nodes.size());
+        out.writeInt(entryPoint);
+        out.writeInt(topLevel);
+        for (Node node : nodes) {
+            out.writeUTF(node.id);
+            out.writeLong(node.stamp);
+            out.writeBoolean(node.deleted);
+            node.vector.write(out);
+            out.writeByte(node.links.length - 1);
+            for (int layer = 0; layer < node.links.length; layer++) {
+                out.writeShort(node.linkCounts[layer]);
+                for (int i = 0; i < node.linkCounts[layer]; i++) {
+                    out.writeInt(node.links[layer][i]);
+                    out.writeFloat(node.linkDistances[layer][i]);
+                }
+            }
+        }
+    }
+    
+    public void read(DataInput in) throws IOException {
+        int count = in.readInt();
+        entryPoint = in.readInt();
+        topLevel = in.readInt();
+        nodes.clear();
+        live.clear();
+        deletedCount = 0;
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            String id = in.readUTF();
+            long stamp = in.readLong();
+            boolean deleted = in.readBoolean();
+            SparseVector vector = SparseVector.read(in);
+            Node node = new Node(id, vector, stamp, in.readUnsignedByte());
+            node.deleted = deleted;
+            for (int layer = 0; layer < node.links.length; layer++) {
+                int links = in.readUnsignedShort();
+                for (int i = 0; i < links; i++) {
+                    node.link(layer, in.readInt(), in.readFloat());
+                }
+            }
+            nodes.add(node);
+            if (deleted) {
+                deletedCount++;
+            } else {
+                live.put(id, ordinal);
+            }
+        }
+    }
+    
+    /**
+     * Distance between two vectors; smaller is more similar
+     */
+    public interface Distance {
+        double between(SparseVector a, SparseVector b);
+    }
+    
+    public static class Scored {
+        private final int node;
+        private final double distance;
+        
+        Scored(int node, double distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+        
+        public int node() {
+            return node;
+        }
+        
+        public double distance() {
+            return distance;
+        }
+    }
+    
+    private class Node {
+        private final String id;
+        private final SparseVector vector;
+        private final long stamp;
+        private final int[][] links;
+        private final float[][] linkDistances;
+        private final int[] linkCounts;
+        private boolean deleted;
+        
+        Node(String id, SparseVector vector, long stamp, int level) {
+            this.id = id;
+            this.vector = vector;
+            this.stamp = stamp;
+            this.links = new int[level + 1][];
+            this.linkDistances = new float[level + 1][];
+            this.linkCounts = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                links[layer] = new int[linkLimit(layer)];
+                linkDistances[layer] = new float[linkLimit(layer)];
+            }
+        }
+        
+        int linkCount(int layer) {
+            return layer < linkCounts.length ? linkCounts[layer] : 0;
+        }
+        
+        void link(int layer, int neighbour, double d) {
+            linkDistances[layer][linkCounts[layer]] = (float) d;
+            links[layer][linkCounts[layer]++] = neighbour;
+        }
+    }
+}
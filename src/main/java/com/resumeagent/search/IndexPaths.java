@@ -0,0 +1,95 @@
+package com.resumeagent.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Location of an instance's local index files. Instances sharing the data
+ * directory each keep their own copy, named after the configured node id or,
+ * by default, the host name, so the directory survives restarts. The directory
+ * is locked while in use: a second process on the same host without a node id
+ * falls back to its cluster node id, and two processes configured with the same
+ * node id fail at startup.
+ */
+public final class IndexPaths {
+    
+    private static final String LOCK_FILE = ".lock";
+    
+    private IndexPaths() {
+    }
+    
+    /**
+     * Lock and return this instance's directory for the index
+     *
+     * @param fallbackNodeId unique per process; used when no node id is configured
+     *                       and another process already holds the host name's directory
+     */
+    public static NodeDirectory lockNodeDirectory(String basePath, String index, String nodeId,
+                                                  String fallbackNodeId) throws IOException {
+        boolean configured = nodeId != null && !nodeId.isBlank();
+        Path directory = Paths.get(basePath, "index", index, configured ? nodeId : hostName());
+        NodeDirectory locked = tryLock(directory);
+        if (locked == null && !configured) {
+            directory = Paths.get(basePath, "index", index, fallbackNodeId);
+            locked = tryLock(directory);
+        }
+        if (locked == null) {
+            throw new IllegalStateException("Index directory " + directory + " is in use by another process;"
+                    + " give each instance its own app.cluster.node-id");
+        }
+        return locked;
+    }
+    
+    private static NodeDirectory tryLock(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return new NodeDirectory(directory, channel);
+            }
+        } catch (OverlappingFileLockException e) {
+            // Held by this process
+        }
+        channel.close();
+        return null;
+    }
+    
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "local";
+        }
+    }
+    
+    /**
+     * A locked index directory; closing it releases the lock
+     */
+    public static class NodeDirectory implements Closeable {
+        private final Path path;
+        private final FileChannel channel;
+        
+        private NodeDirectory(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+        
+        public Path getPath() {
+            return path;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
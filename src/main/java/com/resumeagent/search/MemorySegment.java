@@ -0,0 +1,151 @@
+package com.resumeagent.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Segment being filled by new uploads. Writes happen under the index write lock;
+ * once sealed for flushing it is only read.
+ */
+public class MemorySegment implements Segment {
+    
+    private final String name;
+    private final List<String> candidateIds = new ArrayList<>();
+    private final List<Integer> lengths = new ArrayList<>();
+    private final List<Long> stamps = new ArrayList<>();
+    private final Map<String, List<Posting>> postings = new HashMap<>();
+    
+    public MemorySegment(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Index one document and return its number in this segment
+     */
+    public int add(String candidateId, String text, long stamp) {
+        int doc = candidateIds.size();
+        List<String> terms = Tokenizer.terms(text);
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            positions.computeIfAbsent(terms.get(i), t -> new ArrayList<>()).add(i);
+        }
+        positions.forEach((term, list) -> postings.computeIfAbsent(term, t -> new ArrayList<>())
+                .add(new Posting(doc, list.stream().mapToInt(Integer::intValue).toArray())));
+        candidateIds.add(candidateId);
+        lengths.add(terms.size());
+        stamps.add(stamp);
+        return doc;
+    }
+    
+    /**
+     * Append a document whose postings are added separately, as when merging segments
+     */
+    public int addDocument(String candidateId, int length, long stamp) {
+        candidateIds.add(candidateId);
+        lengths.add(length);
+        stamps.add(stamp);
+        return candidateIds.size() - 1;
+    }
+    
+    /**
+     * Append a posting; documents must be added to each term in ascending order
+     */
+    public void addPosting(String term, int doc, int[] positions) {
+        postings.computeIfAbsent(term, t -> new ArrayList<>()).add(new Posting(doc, positions));
+    }
+    
+    /**
+     * Terms in sorted order with their postings, for writing a disk segment
+     */
+    public Map<String, List<Posting>> sortedPostings() {
+        return new TreeMap<>(postings);
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public int getDocCount() {
+        return candidateIds.size();
+    }
+    
+    @Override
+    public String getCandidateId(int doc) {
+        return candidateIds.get(doc);
+    }
+    
+    @Override
+    public int getDocLength(int doc) {
+        return lengths.get(doc);
+    }
+    
+    @Override
+    public long getStamp(int doc) {
+        return stamps.get(doc);
+    }
+    
+    @Override
+    public int getDocFreq(String term) {
+        List<Posting> list = postings.get(term);
+        return list != null ? list.size() : 0;
+    }
+    
+    @Override
+    public Iterable<String> terms() {
+        return postings.keySet();
+    }
+    
+    @Override
+    public PostingsCursor postings(String term) {
+        List<Posting> list = postings.get(term);
+        if (list == null) {
+            return null;
+        }
+        return new PostingsCursor() {
+            private int index = -1;
+            
+            @Override
+            public boolean next() {
+                return ++index < list.size();
+            }
+            
+            @Override
+            public int doc() {
+                return list.get(index).doc;
+            }
+            
+            @Override
+            public int freq() {
+                return list.get(index).positions.length;
+            }
+            
+            @Override
+            public int[] positions() {
+                return list.get(index).positions;
+            }
+        };
+    }
+    
+    public static class Posting {
+        private final int doc;
+        private final int[] positions;
+        
+        Posting(int doc, int[] positions) {
+            this.doc = doc;
+            this.positions = positions;
+        }
+        
+        public int getDoc() {
+            return doc;
+        }
+        
+        public int[] getPositions() {
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.resumeagent.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over 3-word shingles of resume text. The share of equal
+ * positions in two signatures estimates the Jaccard similarity of their shingle
+ * sets. Seeds are fixed, so signatures stay comparable across restarts.
+ */
+public final class MinHash {
+    
+    public static final int SIZE = 128;
+    // Texts with fewer shingles (empty, scanned or image-only resumes) say too little to match on
+    public static final int MIN_SHINGLES = 20;
+    private static final int SHINGLE_WORDS = 3;
+    private static final long[] SEEDS = new long[SIZE];
+    
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_5EEDL);
+        for (int i = 0; i < SIZE; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+    
+    private MinHash() {
+    }
+    
+    /**
+     * Signature of the text, or null if it has fewer than {@link #MIN_SHINGLES} shingles
+     */
+    public static int[] signature(String text) {
+        List<String> terms = Tokenizer.terms(text);
+        int shingles = terms.size() - SHINGLE_WORDS + 1;
+        if (shingles < MIN_SHINGLES) {
+            return null;
+        }
+        int[] signature = new int[SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0;
+            for (int i = start; i < start + SHINGLE_WORDS; i++) {
+                shingle = shingle * 0x9E3779B97F4A7C15L + terms.get(i).hashCode();
+            }
+            for (int i = 0; i < SIZE; i++) {
+                int value = (int) (mix(shingle ^ SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+    
+    /**
+     * Whether a stored signature can be matched. Signatures written for texts without
+     * shingles before those were refused hold nothing but Integer.MAX_VALUE.
+     */
+    public static boolean isUsable(int[] signature) {
+        if (signature == null || signature.length != SIZE) {
+            return false;
+        }
+        for (int value : signature) {
+            if (value != Integer.MAX_VALUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIZE;
+    }
+    
+    /**
+     * Hash of one LSH band of the signature
+     */
+    public static long band(int[] signature, int band, int rows) {
+        long hash = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = mix(hash * 31 + signature[i]);
+        }
+        return hash;
+    }
+    
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,33 @@
+package com.resumeagent.search;
+
+/**
+ * Forward-only iterator over the documents containing one term
+ */
+public interface PostingsCursor {
+    
+    /**
+     * Move to the next document; false when exhausted
+     */
+    boolean next();
+    
+    /**
+     * Move to the first document at or after the target; false when exhausted
+     */
+    default boolean advance(int target) {
+        while (next()) {
+            if (doc() >= target) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    int doc();
+    
+    int freq();
+    
+    /**
+     * Token positions of the term in the current document, ascending
+     */
+    int[] positions();
+}
@@ -0,0 +1,65 @@
+package com.resumeagent.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed search: free words are scored independently, "quoted text" must occur
+ * as an exact phrase. A word that splits into several tokens (node.js) is treated
+ * as a phrase too.
+ */
+public class SearchQuery {
+    
+    private final List<List<String>> clauses;
+    
+    private SearchQuery(List<List<String>> clauses) {
+        this.clauses = clauses;
+    }
+    
+    public static SearchQuery parse(String query) {
+        List<List<String>> clauses = new ArrayList<>();
+        if (query == null) {
+            return new SearchQuery(clauses);
+        }
+        boolean quoted = false;
+        for (String part : query.split("\"", -1)) {
+            if (quoted) {
+                addClause(clauses, Tokenizer.terms(part));
+            } else {
+                for (String word : part.trim().split("\\s+")) {
+                    addClause(clauses, Tokenizer.terms(word));
+                }
+            }
+            quoted = !quoted;
+        }
+        return new SearchQuery(clauses);
+    }
+    
+    private static void addClause(List<List<String>> clauses, List<String> terms) {
+        if (!terms.isEmpty() && !clauses.contains(terms)) {
+            clauses.add(terms);
+        }
+    }
+    
+    /**
+     * Each clause is a single term or, with several terms, a phrase
+     */
+    public List<List<String>> getClauses() {
+        return clauses;
+    }
+    
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+    
+    /**
+     * Every distinct term of the query, for highlighting
+     */
+    public Set<String> getTerms() {
+        Set<String> terms = new LinkedHashSet<>();
+        clauses.forEach(terms::addAll);
+        return terms;
+    }
+}
@@ -0,0 +1,39 @@
+package com.resumeagent.search;
+
+import java.io.Closeable;
+
+/**
+ * An immutable batch of indexed resumes. Documents are numbered from 0 within the
+ * segment; which segment holds the live copy of a candidate is tracked by the index.
+ */
+public interface Segment extends Closeable {
+    
+    String getName();
+    
+    int getDocCount();
+    
+    String getCandidateId(int doc);
+    
+    int getDocLength(int doc);
+    
+    /**
+     * Modification time of the resume text the document was built from
+     */
+    long getStamp(int doc);
+    
+    int getDocFreq(String term);
+    
+    /**
+     * Every term in the segment, for merging
+     */
+    Iterable<String> terms();
+    
+    /**
+     * Postings of the term in document order, or null if the term does not occur
+     */
+    PostingsCursor postings(String term);
+    
+    @Override
+    default void close() {
+    }
+}
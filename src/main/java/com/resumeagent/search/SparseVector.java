@@ -0,0 +1,84 @@
+package com.resumeagent.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Feature weights of a document by hashed feature index, indices ascending
+ */
+public class SparseVector {
+    
+    private final int[] indices;
+    private final float[] values;
+    
+    public SparseVector(int[] indices, float[] values) {
+        this.indices = indices;
+        this.values = values;
+    }
+    
+    public int[] getIndices() {
+        return indices;
+    }
+    
+    public float[] getValues() {
+        return values;
+    }
+    
+    public int size() {
+        return indices.length;
+    }
+    
+    /**
+     * Cosine similarity with each feature scaled by the given weight (its idf)
+     */
+    public double cosine(SparseVector other, float[] weights) {
+        double dot = 0;
+        int i = 0;
+        int j = 0;
+        while (i < indices.length && j < other.indices.length) {
+            if (indices[i] == other.indices[j]) {
+                float w = weights[indices[i]];
+                dot += values[i] * other.values[j] * w * w;
+                i++;
+                j++;
+            } else if (indices[i] < other.indices[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        if (dot == 0) {
+            return 0;
+        }
+        return dot / (norm(weights) * other.norm(weights));
+    }
+    
+    private double norm(float[] weights) {
+        double sum = 0;
+        for (int i = 0; i < indices.length; i++) {
+            float weighted = values[i] * weights[indices[i]];
+            sum += weighted * weighted;
+        }
+        return Math.sqrt(sum);
+    }
+    
+    public void write(DataOutput out) throws IOException {
+        out.writeShort(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            out.writeInt(indices[i]);
+            out.writeFloat(values[i]);
+        }
+    }
+    
+    public static SparseVector read(DataInput in) throws IOException {
+        int size = in.readUnsignedShort();
+        int[] indices = new int[size];
+        float[] values = new float[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = in.readInt();
+            values[i] = in.readFloat();
+        }
+        return new SparseVector(indices, values);
+    }
+}
@@ -0,0 +1,63 @@
+package com.resumeagent.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into lowercase word tokens, keeping trailing + and # so that terms
+ * like c++ and c# stay searchable. Offsets point into the original text for snippets.
+ */
+public final class Tokenizer {
+    
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+[+#]*");
+    
+    private Tokenizer() {
+    }
+    
+    public static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            tokens.add(new Token(matcher.group().toLowerCase(Locale.ROOT), matcher.start(), matcher.end()));
+        }
+        return tokens;
+    }
+    
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (Token token : tokenize(text)) {
+            terms.add(token.term);
+        }
+        return terms;
+    }
+    
+    public static class Token {
+        private final String term;
+        private final int start;
+        private final int end;
+        
+        Token(String term, int start, int end) {
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+        
+        public String getTerm() {
+            return term;
+        }
+        
+        public int getStart() {
+            return start;
+        }
+        
+        public int getEnd() {
+            return end;
+        }
+    }
+}
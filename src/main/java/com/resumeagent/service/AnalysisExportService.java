@@ -0,0 +1,154 @@
+package com.resumeagent.service;
+
+import com.resumeagent.model.AnalysisFilter;
+import com.resumeagent.model.AnalysisResult;
+import com.resumeagent.util.JsonUtil;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exports analyses as NDJSON or CSV for bulk consumers. The analyses directory is
+ * read lazily and each record is written to the output as soon as it is loaded,
+ * so memory use does not grow with the number of analyses. Records come in
+ * directory order.
+ */
+@Service
+public class AnalysisExportService {
+    
+    private static final List<String> CSV_COLUMNS = List.of(
+            "id", "candidateId", "clientId", "fitScore", "matchedSkills", "missingSkills",
+            "analyzedAt", "model", "duplicateOf", "duplicateSimilarity", "reused");
+    
+    private final FileStorageService fileStorage;
+    private final JsonUtil jsonUtil;
+    
+    public AnalysisExportService(FileStorageService fileStorage, JsonUtil jsonUtil) {
+        this.fileStorage = fileStorage;
+        this.jsonUtil = jsonUtil;
+    }
+    
+    /**
+     * Write one JSON analysis per line
+     *
+     * @return number of analyses written
+     */
+    public long writeNdjson(AnalysisFilter filter, OutputStream out) throws IOException {
+        long count = forEachAnalysis(filter, analysis -> jsonUtil.writeLine(analysis, out));
+        out.flush();
+        return count;
+    }
+    
+    /**
+     * Write a header row and one row per analysis; skill lists are joined with "; "
+     *
+     * @return number of analyses written
+     */
+    public long writeCsv(AnalysisFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeRow(writer, CSV_COLUMNS);
+        long count = forEachAnalysis(filter, analysis -> writeRow(writer, List.of(
+                text(analysis.getId()),
+                text(analysis.getCandidateId()),
+                text(analysis.getClientId()),
+                text(analysis.getFitScore()),
+                analysis.getMatchedSkills() != null ? String.join("; ", analysis.getMatchedSkills()) : "",
+                analysis.getMissingSkills() != null ? String.join("; ", analysis.getMissingSkills()) : "",
+                text(analysis.getAnalyzedAt()),
+                text(analysis.getModel()),
+                text(analysis.getDuplicateOf()),
+                text(analysis.getDuplicateSimilarity()),
+                text(analysis.getReused()))));
+        writer.flush();
+        return count;
+    }
+    
+    private long forEachAnalysis(AnalysisFilter filter, AnalysisWriter action) throws IOException {
+        // Analyses are stored as {candidateId}_{clientId}.json, so other clients' files are skipped unread
+        String suffix = filter.getClientId() != null ? "_" + filter.getClientId() + ".json" : ".json";
+        long count = 0;
+        try (Stream<String> files = fileStorage.streamFiles("analyses")) {
+            Iterator<String> names = files.iterator();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!name.endsWith(suffix)) {
+                    continue;
+                }
+                AnalysisResult analysis;
+                try {
+                    analysis = fileStorage.loadJson("analyses/" + name, AnalysisResult.class);
+                } catch (NoSuchFileException e) {
+                    // Deleted since the directory was listed
+                    continue;
+                }
+                if (matches(analysis, filter)) {
+                    action.write(analysis);
+                    count++;
+                }
+            }
+        } catch (DirectoryIteratorException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+    
+    private boolean matches(AnalysisResult analysis, AnalysisFilter filter) {
+        if (filter.getClientId() != null && !filter.getClientId().equals(analysis.getClientId())) {
+            return false;
+        }
+        if (filter.getMinFitScore() != null
+                && (analysis.getFitScore() == null || analysis.getFitScore() < filter.getMinFitScore())) {
+            return false;
+        }
+        LocalDateTime analyzedAt = analysis.getAnalyzedAt();
+        if (filter.getFrom() != null
+                && (analyzedAt == null || analyzedAt.isBefore(filter.getFrom().atStartOfDay()))) {
+            return false;
+        }
+        if (filter.getTo() != null
+                && (analyzedAt == null || !analyzedAt.isBefore(filter.getTo().plusDays(1).atStartOfDay()))) {
+            return false;
+        }
+        return true;
+    }
+    
+    private void writeRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+    
+    /**
+     * Quote values containing separators, quotes or line breaks (RFC 4180)
+     */
+    private String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    
+    private String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+    
+    @FunctionalInterface
+    private interface AnalysisWriter {
+        void write(AnalysisResult analysis) throws IOException;
+    }
+}
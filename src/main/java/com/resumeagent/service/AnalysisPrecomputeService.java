@@ -0,0 +1,274 @@
+package com.resumeagent.service;
+
+import com.resumeagent.agent.LlmCallContext;
+import com.resumeagent.agent.LlmGateway;
+import com.resumeagent.agent.LlmPriority;
+import com.resumeagent.event.CandidateRegisteredEvent;
+import com.resumeagent.event.ClientCreatedEvent;
+import com.resumeagent.model.Candidate;
+import com.resumeagent.model.ClientRequirement;
+import com.resumeagent.model.PrecomputeStatus;
+import com.resumeagent.util.SkillRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in background analysis of promising candidate/client pairs. When a client or
+ * candidate arrives, a background scan queues the pairs with the highest skill
+ * overlap on the shared work queue, so every instance with precompute enabled
+ * helps drain it. Each node's worker analyzes one pair at a time, only while that
+ * node has had no interactive model call for a quiet period, and never faster than
+ * the configured interval.
+ */
+@Service
+public class AnalysisPrecomputeService {
+    
+    private static final String QUEUE = "precompute";
+    private static final int MAX_PENDING_SCANS = 100;
+    
+    private final CandidateService candidateService;
+    private final ClientService clientService;
+    private final AnalysisService analysisService;
+    private final FileStorageService fileStorage;
+    private final SharedWorkQueue workQueue;
+    private final LeaseService leaseService;
+    private final LlmGateway llmGateway;
+    private final SkillRegistry skillRegistry;
+    private final boolean enabled;
+    private final int maxPairsPerEvent;
+    private final double minSkillOverlap;
+    private final int queueCapacity;
+    private final long idlePeriodMillis;
+    private final long minIntervalMillis;
+    
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final ExecutorService scanner;
+    private final Thread worker;
+    
+    public AnalysisPrecomputeService(CandidateService candidateService,
+                                     ClientService clientService,
+                                     AnalysisService analysisService,
+                                     FileStorageService fileStorage,
+                                     SharedWorkQueue workQueue,
+                                     LeaseService leaseService,
+                                     LlmGateway llmGateway,
+                                     SkillRegistry skillRegistry,
+                                     @Value("${app.precompute.enabled:false}") boolean enabled,
+                                     @Value("${app.precompute.max-pairs-per-event:5}") int maxPairsPerEvent,
+                                     @Value("${app.precompute.min-skill-overlap:0.3}") double minSkillOverlap,
+                                     @Value("${app.precompute.queue-capacity:200}") int queueCapacity,
+                                     @Value("${app.precompute.idle-period:10s}") Duration idlePeriod,
+                                     @Value("${app.precompute.min-interval:5s}") Duration minInterval) {
+        this.candidateService = candidateService;
+        this.clientService = clientService;
+        this.analysisService = analysisService;
+        this.fileStorage = fileStorage;
+        this.workQueue = workQueue;
+        this.leaseService = leaseService;
+        this.llmGateway = llmGateway;
+        this.skillRegistry = skillRegistry;
+        this.enabled = enabled;
+        this.maxPairsPerEvent = maxPairsPerEvent;
+        this.minSkillOverlap = minSkillOverlap;
+        this.queueCapacity = queueCapacity;
+        this.idlePeriodMillis = idlePeriod.toMillis();
+        this.minIntervalMillis = minInterval.toMillis();
+        
+        // Scans run off the request thread; bursts beyond the backlog are dropped
+        this.scanner = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_SCANS), runnable -> {
+                    Thread thread = new Thread(runnable, "analysis-precompute-scan");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        this.worker = new Thread(this::runWorker, "analysis-precompute");
+        this.worker.setDaemon(true);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            worker.start();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scanner.shutdownNow();
+        worker.interrupt();
+    }
+    
+    @EventListener
+    public void onClientCreated(ClientCreatedEvent event) {
+        if (enabled) {
+            scanner.execute(() -> scanCandidates(event.getRequirement()));
+        }
+    }
+    
+    @EventListener
+    public void onCandidateRegistered(CandidateRegisteredEvent event) {
+        if (enabled) {
+            scanner.execute(() -> scanClients(event.getCandidate()));
+        }
+    }
+    
+    private void scanCandidates(ClientRequirement requirement) {
+        SkillRegistry.SkillSet required = skillRegistry.skillSetOf(requirement.getRequiredSkills());
+        List<PendingPair> pairs = new ArrayList<>();
+        for (Candidate candidate : candidateService.getAllCandidates()) {
+            double overlap = skillOverlap(skillRegistry.skillSetOf(candidate.getSkills()), required);
+            pairs.add(new PendingPair(candidate.getId(), requirement.getId(), overlap));
+        }
+        enqueueBest(pairs);
+    }
+    
+    private void scanClients(Candidate candidate) {
+        SkillRegistry.SkillSet skills = skillRegistry.skillSetOf(candidate.getSkills());
+        List<PendingPair> pairs = new ArrayList<>();
+        for (ClientRequirement requirement : clientService.getAllClients()) {
+            double overlap = skillOverlap(skills, skillRegistry.skillSetOf(requirement.getRequiredSkills()));
+            pairs.add(new PendingPair(candidate.getId(), requirement.getId(), overlap));
+        }
+        enqueueBest(pairs);
+    }
+    
+    public PrecomputeStatus getStatus() {
+        return PrecomputeStatus.builder()
+                .enabled(enabled)
+                .queued(workQueue.size(QUEUE))
+                .completed(completed.get())
+                .skipped(skipped.get())
+                .failed(failed.get())
+                .interactiveIdle(llmGateway.isInteractiveIdle(idlePeriodMillis))
+                .build();
+    }
+    
+    private void enqueueBest(List<PendingPair> pairs) {
+        pairs.sort(Comparator.comparingDouble(PendingPair::score).reversed());
+        int queued = workQueue.size(QUEUE);
+        int added = 0;
+        for (PendingPair pair : pairs) {
+            if (added >= maxPairsPerEvent || pair.score < minSkillOverlap || queued + added >= queueCapacity) {
+                break;
+            }
+            if (analysisExists(pair)) {
+                continue;
+            }
+            try {
+                Map<String, String> payload = Map.of("candidateId", pair.candidateId, "clientId", pair.clientId);
+                if (workQueue.submit(QUEUE, pair.key(), pair.score, payload)) {
+                    added++;
+                }
+            } catch (IOException e) {
+                failed.incrementAndGet();
+            }
+        }
+    }
+    
+    private void runWorker() {
+        LlmCallContext.setPriority(LlmPriority.BACKGROUND);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                while (!llmGateway.isInteractiveIdle(idlePeriodMillis)) {
+                    Thread.sleep(Math.max(idlePeriodMillis / 4, 250));
+                }
+                SharedWorkQueue.Claim claim = claimNext();
+                if (claim == null) {
+                    Thread.sleep(minIntervalMillis);
+                    continue;
+                }
+                try {
+                    process(claim);
+                } finally {
+                    completeQuietly(claim);
+                }
+                Thread.sleep(minIntervalMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private SharedWorkQueue.Claim claimNext() {
+        try {
+            return workQueue.claimNext(QUEUE);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private void process(SharedWorkQueue.Claim claim) {
+        PendingPair pair = new PendingPair(claim.getItem().getPayload().get("candidateId"),
+                claim.getItem().getPayload().get("clientId"), claim.getItem().getPriority());
+        // The same lease guards batch recomputation of this analysis on any node
+        try (LeaseService.Lease lease = leaseService.tryAcquire("artifact-analysis-" + pair.key())) {
+            if (lease == null || analysisExists(pair)) {
+                skipped.incrementAndGet();
+                return;
+            }
+            analysisService.analyzeCandidate(pair.candidateId, pair.clientId);
+            completed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+        }
+    }
+    
+    private void completeQuietly(SharedWorkQueue.Claim claim) {
+        try {
+            claim.complete();
+        } catch (IOException e) {
+            // The item stays queued and is claimed again once the lease expires
+        }
+    }
+    
+    private boolean analysisExists(PendingPair pair) {
+        return fileStorage.fileExists("analyses/" + pair.key() + ".json");
+    }
+    
+    /**
+     * Share of the requirement's required skills found among the candidate's extracted skills
+     */
+    private double skillOverlap(SkillRegistry.SkillSet skills, SkillRegistry.SkillSet required) {
+        if (required.size() == 0 || skills.size() == 0) {
+            return 0;
+        }
+        return (double) SkillRegistry.countMatched(skills, required) / required.size();
+    }
+    
+    private static class PendingPair {
+        private final String candidateId;
+        private final String clientId;
+        private final double score;
+        
+        PendingPair(String candidateId, String clientId, double score) {
+            this.candidateId = candidateId;
+            this.clientId = clientId;
+            this.score = score;
+        }
+        
+        double score() {
+            return score;
+        }
+        
+        String key() {
+            return candidateId + "_" + clientId;
+        }
+    }
+}
@@ -1,50 +1,193 @@
 package com.resumeagent.service;
 
+import com.resumeagent.agent.FusedAssessmentAgent;
 import com.resumeagent.agent.ResumeAnalyzerAgent;
 import com.resumeagent.model.AnalysisResult;
 import com.resumeagent.model.ClientRequirement;
+import com.resumeagent.model.DuplicateMatch;
+import com.resumeagent.model.InterviewPrep;
+import com.resumeagent.util.BlockingUtil;
+import com.resumeagent.util.HashUtil;
 import com.resumeagent.util.PDFUtil;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class AnalysisService {
     
     private final FileStorageService fileStorage;
     private final ResumeAnalyzerAgent analyzerAgent;
+    private final FusedAssessmentAgent fusedAgent;
     private final PDFUtil pdfUtil;
+    private final HashUtil hashUtil;
+    private final DuplicateDetectionService duplicateDetection;
     
     public AnalysisService(FileStorageService fileStorage, 
                           ResumeAnalyzerAgent analyzerAgent,
-                          PDFUtil pdfUtil) {
+                          FusedAssessmentAgent fusedAgent,
+                          PDFUtil pdfUtil,
+                          HashUtil hashUtil,
+                          DuplicateDetectionService duplicateDetection) {
         this.fileStorage = fileStorage;
         this.analyzerAgent = analyzerAgent;
+        this.fusedAgent = fusedAgent;
         this.pdfUtil = pdfUtil;
+        this.hashUtil = hashUtil;
+        this.duplicateDetection = duplicateDetection;
     }
     
     public AnalysisResult analyzeCandidate(String candidateId, String clientId) throws IOException {
+        return BlockingUtil.await(analyzeCandidateAsync(candidateId, clientId));
+    }
+    
+    /**
+     * Analyze fit without holding a thread while the model responds; file and PDF
+     * work runs on the bounded elastic scheduler
+     */
+    public Mono<AnalysisResult> analyzeCandidateAsync(String candidateId, String clientId) {
+        return Mono.fromCallable(() -> loadInputs(candidateId, clientId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(inputs -> {
+                    if (inputs.duplicate != null && duplicateDetection.isReuseEnabled()) {
+                        return Mono.just(reuseAnalysis(inputs, candidateId));
+                    }
+                    return analyzerAgent.analyzeAsync(candidateId, inputs.resumeText, inputs.requirement)
+                            .publishOn(Schedulers.boundedElastic())
+                            .map(result -> {
+                                result.setRequirementHash(inputs.requirementHash);
+                                result.setResumeHash(inputs.resumeHash);
+                                flagDuplicate(result, inputs.duplicate);
+                                return result;
+                            });
+                })
+                .flatMap(result -> Mono.fromCallable(() -> {
+                    // Save analysis result
+                    fileStorage.saveJson(result, "analyses/" + candidateId + "_" + clientId + ".json");
+                    return result;
+                }));
+    }
+    
+    /**
+     * Analyze fit and generate interview prep in one model call. Only the analysis
+     * is saved here; the interview prep is saved by the caller.
+     */
+    public FusedAssessmentAgent.Assessment analyzeCandidateWithInterviewPrep(String candidateId, String clientId) throws IOException {
+        return BlockingUtil.await(analyzeCandidateWithInterviewPrepAsync(candidateId, clientId));
+    }
+    
+    public Mono<FusedAssessmentAgent.Assessment> analyzeCandidateWithInterviewPrepAsync(String candidateId, String clientId) {
+        return Mono.fromCallable(() -> loadInputs(candidateId, clientId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(inputs -> {
+                    InterviewPrep reusablePrep = duplicateDetection.isReuseEnabled() ? reusablePrep(inputs) : null;
+                    if (reusablePrep != null) {
+                        reusablePrep.setId(UUID.randomUUID().toString());
+                        reusablePrep.setCandidateId(candidateId);
+                        reusablePrep.setResumeHash(inputs.resumeHash);
+                        reusablePrep.setGeneratedAt(LocalDateTime.now());
+                        return Mono.just(new FusedAssessmentAgent.Assessment(reuseAnalysis(inputs, candidateId), reusablePrep));
+                    }
+                    return fusedAgent.assessAsync(candidateId, inputs.resumeText, inputs.requirement)
+                            .publishOn(Schedulers.boundedElastic())
+                            .map(assessment -> {
+                                assessment.getAnalysis().setRequirementHash(inputs.requirementHash);
+                                assessment.getAnalysis().setResumeHash(inputs.resumeHash);
+                                assessment.getInterviewPrep().setRequirementHash(inputs.requirementHash);
+                                assessment.getInterviewPrep().setResumeHash(inputs.resumeHash);
+                                flagDuplicate(assessment.getAnalysis(), inputs.duplicate);
+                                return assessment;
+                            });
+                })
+                .flatMap(assessment -> Mono.fromCallable(() -> {
+                    fileStorage.saveJson(assessment.getAnalysis(), "analyses/" + candidateId + "_" + clientId + ".json");
+                    return assessment;
+                }));
+    }
+    
+    public AnalysisResult getAnalysis(String candidateId, String clientId) throws IOException {
+        return fileStorage.loadJson("analyses/" + candidateId + "_" + clientId + ".json", AnalysisResult.class);
+    }
+    
+    public boolean hasAnalysis(String candidateId, String clientId) {
+        return fileStorage.fileExists("analyses/" + candidateId + "_" + clientId + ".json");
+    }
+    
+    private AnalysisInputs loadInputs(String candidateId, String clientId) throws IOException {
         // Load client requirement
         ClientRequirement requirement = fileStorage.loadJson("clients/" + clientId + ".json", ClientRequirement.class);
         
         // Load and extract resume text
-        String resumePath = fileStorage.getFullPath("candidates/resumes/original/" + candidateId + ".pdf");
-        String resumeText = pdfUtil.extractText(new File(resumePath));
-        
-        // Analyze fit
-        AnalysisResult result = analyzerAgent.analyze(candidateId, resumeText, requirement);
-        
-        // Save analysis result
-        fileStorage.saveJson(result, "analyses/" + candidateId + "_" + clientId + ".json");
+        File resume = new File(fileStorage.getFullPath("candidates/resumes/original/" + candidateId + ".pdf"));
+        String resumeText = pdfUtil.extractText(resume);
         
+        String requirementHash = hashUtil.requirementHash(requirement);
+        return new AnalysisInputs(requirement, resumeText, requirementHash, hashUtil.sha256(resume),
+                findAnalyzedDuplicate(candidateId, clientId, requirementHash));
+    }
+    
+    /**
+     * The most similar near-duplicate resume that already has an analysis for this
+     * client computed from the current requirement and that candidate's current resume
+     */
+    private DuplicateSource findAnalyzedDuplicate(String candidateId, String clientId, String requirementHash) throws IOException {
+        for (DuplicateMatch match : duplicateDetection.findNearDuplicates(candidateId)) {
+            String path = "analyses/" + match.getCandidateId() + "_" + clientId + ".json";
+            if (!fileStorage.fileExists(path)) {
+                continue;
+            }
+            AnalysisResult analysis = fileStorage.loadJson(path, AnalysisResult.class);
+            File resume = new File(fileStorage.getFullPath("candidates/resumes/original/" + match.getCandidateId() + ".pdf"));
+            if (requirementHash.equals(analysis.getRequirementHash()) && resume.exists()
+                    && hashUtil.sha256(resume).equals(analysis.getResumeHash())) {
+                String prepPath = "interview-prep/" + match.getCandidateId() + "_" + clientId + ".json";
+                InterviewPrep prep = fileStorage.fileExists(prepPath) ? fileStorage.loadJson(prepPath, InterviewPrep.class) : null;
+                return new DuplicateSource(match, analysis, prep);
+            }
+        }
+        return null;
+    }
+    
+    private AnalysisResult reuseAnalysis(AnalysisInputs inputs, String candidateId) {
+        AnalysisResult result = inputs.duplicate.analysis;
+        String source = result.getCandidateId();
+        result.setId(UUID.randomUUID().toString());
+        result.setCandidateId(candidateId);
+        result.setAnalyzedAt(LocalDateTime.now());
+        result.setResumeHash(inputs.resumeHash);
+        flagDuplicate(result, inputs.duplicate);
+        result.setDuplicateOf(source);
+        result.setReused(true);
         return result;
     }
     
-    public AnalysisResult getAnalysis(String candidateId, String clientId) throws IOException {
-        return fileStorage.loadJson("analyses/" + candidateId + "_" + clientId + ".json", AnalysisResult.class);
+    private void flagDuplicate(AnalysisResult result, DuplicateSource duplicate) {
+        if (duplicate != null) {
+            result.setDuplicateOf(duplicate.match.getCandidateId());
+            result.setDuplicateSimilarity(duplicate.match.getSimilarity());
+            result.setReused(false);
+        }
+    }
+    
+    /**
+     * Interview prep generated together with the duplicate's analysis, if it is
+     * still current; separately generated prep never saw the resume
+     */
+    private InterviewPrep reusablePrep(AnalysisInputs inputs) {
+        if (inputs.duplicate == null || inputs.duplicate.prep == null) {
+            return null;
+        }
+        InterviewPrep prep = inputs.duplicate.prep;
+        boolean current = inputs.requirementHash.equals(prep.getRequirementHash())
+                && inputs.duplicate.analysis.getResumeHash().equals(prep.getResumeHash());
+        return current ? prep : null;
     }
     
     public List<AnalysisResult> getAllAnalyses() {
@@ -62,4 +205,33 @@ public class AnalysisService {
         }
         return analyses;
     }
+    
+    private static class AnalysisInputs {
+        private final ClientRequirement requirement;
+        private final String resumeText;
+        private final String requirementHash;
+        private final String resumeHash;
+        private final DuplicateSource duplicate;
+        
+        AnalysisInputs(ClientRequirement requirement, String resumeText, String requirementHash, String resumeHash,
+                       DuplicateSource duplicate) {
+            this.requirement = requirement;
+            this.resumeText = resumeText;
+            this.requirementHash = requirementHash;
+            this.resumeHash = resumeHash;
+            this.duplicate = duplicate;
+        }
+    }
+    
+    private static class DuplicateSource {
+        private final DuplicateMatch match;
+        private final AnalysisResult analysis;
+        private final InterviewPrep prep;
+        
+        DuplicateSource(DuplicateMatch match, AnalysisResult analysis, InterviewPrep prep) {
+            this.match = match;
+            this.analysis = analysis;
+            this.prep = prep;
+        }
+    }
 }
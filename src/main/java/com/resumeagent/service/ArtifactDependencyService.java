@@ -0,0 +1,380 @@
+package com.resumeagent.service;
+
+import com.resumeagent.agent.LlmCallContext;
+import com.resumeagent.agent.LlmPriority;
+import com.resumeagent.model.AnalysisResult;
+import com.resumeagent.model.ArtifactStatus;
+import com.resumeagent.model.ClientRequirement;
+import com.resumeagent.model.InterviewPrep;
+import com.resumeagent.model.OptimizedResume;
+import com.resumeagent.model.WorkItem;
+import com.resumeagent.util.BlockingUtil;
+import com.resumeagent.util.HashUtil;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares the input hashes recorded on derived artifacts (analyses, optimized
+ * resumes, interview prep) with the current requirement and resume, and recomputes
+ * only the artifacts whose inputs changed. Each recomputation holds a lease on the
+ * artifact, so instances sharing the data directory never regenerate the same one
+ * at once. Stale artifacts can also be queued on the shared work queue, which the
+ * recompute worker of every instance drains; a failed recomputation is queued again
+ * a few times before it is dropped.
+ */
+@Service
+public class ArtifactDependencyService {
+    
+    private static final String RECOMPUTE_QUEUE = "recompute";
+    private static final String ATTEMPTS = "attempts";
+    private static final int MAX_ATTEMPTS = 3;
+    
+    private final FileStorageService fileStorage;
+    private final AnalysisService analysisService;
+    private final ResumeService resumeService;
+    private final InterviewPrepService interviewPrepService;
+    private final HashUtil hashUtil;
+    private final LeaseService leaseService;
+    private final SharedWorkQueue workQueue;
+    private final boolean workerEnabled;
+    private final long pollIntervalMillis;
+    private final Thread worker;
+    
+    public ArtifactDependencyService(FileStorageService fileStorage,
+                                     AnalysisService analysisService,
+                                     ResumeService resumeService,
+                                     InterviewPrepService interviewPrepService,
+                                     HashUtil hashUtil,
+                                     LeaseService leaseService,
+                                     SharedWorkQueue workQueue,
+                                     @Value("${app.cluster.recompute-worker.enabled:true}") boolean workerEnabled,
+                                     @Value("${app.cluster.poll-interval:5s}") Duration pollInterval) {
+        this.fileStorage = fileStorage;
+        this.analysisService = analysisService;
+        this.resumeService = resumeService;
+        this.interviewPrepService = interviewPrepService;
+        this.hashUtil = hashUtil;
+        this.leaseService = leaseService;
+        this.workQueue = workQueue;
+        this.workerEnabled = workerEnabled;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        
+        this.worker = new Thread(this::runWorker, "artifact-recompute");
+        this.worker.setDaemon(true);
+    }
+    
+    /**
+     * Start draining the queue once the context is up, so the worker never sees half-built beans
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (workerEnabled) {
+            worker.start();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+    
+    /**
+     * Status of every derived artifact, optionally filtered by candidate and/or client
+     */
+    public List<ArtifactStatus> getStatuses(String candidateId, String clientId) throws IOException {
+        InputHashes inputs = new InputHashes();
+        List<ArtifactStatus> statuses = new ArrayList<>();
+        
+        for (AnalysisResult analysis : analysisService.getAllAnalyses()) {
+            if (matches(analysis.getCandidateId(), analysis.getClientId(), candidateId, clientId)) {
+                statuses.add(check("analysis", analysis.getCandidateId(), analysis.getClientId(),
+                        analysis.getRequirementHash(), analysis.getResumeHash(), true, inputs));
+            }
+        }
+        
+        for (String[] pair : resumeService.listOptimizedResumes()) {
+            if (matches(pair[0], pair[1], candidateId, clientId)) {
+                OptimizedResume resume = resumeService.getOptimizedResume(pair[0], pair[1]);
+                statuses.add(check("optimized-resume", pair[0], pair[1],
+                        resume.getRequirementHash(), resume.getResumeHash(), true, inputs));
+            }
+        }
+        
+        for (InterviewPrep prep : interviewPrepService.getAllInterviewPreps()) {
+            if (matches(prep.getCandidateId(), prep.getClientId(), candidateId, clientId)) {
+                // Separately generated prep never saw the resume, so only a recorded resume hash is checked
+                statuses.add(check("interview-prep", prep.getCandidateId(), prep.getClientId(),
+                        prep.getRequirementHash(), prep.getResumeHash(), prep.getResumeHash() != null, inputs));
+            }
+        }
+        
+        return statuses;
+    }
+    
+    public List<ArtifactStatus> getStaleArtifacts(String candidateId, String clientId) throws IOException {
+        List<ArtifactStatus> stale = new ArrayList<>();
+        for (ArtifactStatus status : getStatuses(candidateId, clientId)) {
+            if (status.getStale()) {
+                stale.add(status);
+            }
+        }
+        return stale;
+    }
+    
+    /**
+     * Regenerate the stale artifacts one after another and report what was recomputed,
+     * without holding a thread while the model responds. A failure on one artifact is
+     * recorded on its status and does not stop the others. The model calls run at
+     * batch priority.
+     */
+    public Mono<List<ArtifactStatus>> recomputeStaleAsync(String candidateId, String clientId) {
+        return BlockingUtil.offload(() -> getStaleArtifacts(candidateId, clientId))
+                .flatMap(stale -> Flux.fromIterable(stale)
+                        .concatMap(this::recomputeOneAsync)
+                        .then(Mono.just(stale)))
+                .contextWrite(LlmCallContext.capture(LlmPriority.BATCH));
+    }
+    
+    /**
+     * Queue the stale artifacts for the recompute workers of all instances and return
+     * without waiting. Artifacts that are already queued are not queued twice, and
+     * none are added once the queue is full.
+     */
+    public List<ArtifactStatus> queueStale(String candidateId, String clientId) throws IOException {
+        List<ArtifactStatus> stale = getStaleArtifacts(candidateId, clientId);
+        for (ArtifactStatus status : stale) {
+            Map<String, String> payload = Map.of(
+                    "type", status.getType(),
+                    "candidateId", status.getCandidateId(),
+                    "clientId", status.getClientId());
+            String id = artifactId(status);
+            status.setQueued(workQueue.submit(RECOMPUTE_QUEUE, id, 0, payload) || workQueue.contains(RECOMPUTE_QUEUE, id));
+        }
+        return stale;
+    }
+    
+    /**
+     * Recompute the artifact if it is still stale, recording the outcome on the status
+     *
+     * @return false if recomputing failed, true otherwise (including when there was nothing to do)
+     */
+    private Mono<Boolean> recomputeOneAsync(ArtifactStatus status) {
+        return BlockingUtil.offload(() -> acquireIfStale(status))
+                .flatMap(lease -> regenerate(status)
+                        .then(Mono.fromRunnable(() -> status.setRecomputed(true)))
+                        .doFinally(signal -> lease.close()))
+                .thenReturn(true)
+                .onErrorResume(e -> {
+                    status.setRecomputed(false);
+                    status.setError(e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+    
+    /**
+     * A lease on the artifact if it still needs recomputing, otherwise null with the
+     * status saying why not
+     */
+    private LeaseService.Lease acquireIfStale(ArtifactStatus status) throws IOException {
+        LeaseService.Lease lease = leaseService.tryAcquire(leaseKey(status));
+        if (lease == null) {
+            status.setRecomputed(false);
+            status.setError("Being recomputed by another instance");
+            return null;
+        }
+        try {
+            // Another instance may have regenerated it since the scan
+            if (!checkArtifact(status.getType(), status.getCandidateId(), status.getClientId()).getStale()) {
+                status.setStale(false);
+                status.setRecomputed(false);
+                lease.close();
+                return null;
+            }
+            return lease;
+        } catch (IOException | RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+    }
+    
+    private Mono<?> regenerate(ArtifactStatus status) {
+        return switch (status.getType()) {
+            case "analysis" -> analysisService.analyzeCandidateAsync(status.getCandidateId(), status.getClientId());
+            case "optimized-resume" -> resumeService.optimizeResumeAsync(status.getCandidateId(), status.getClientId());
+            case "interview-prep" -> interviewPrepService.generateInterviewPrepAsync(status.getCandidateId(), status.getClientId());
+            default -> Mono.error(new IllegalStateException("Unknown artifact type " + status.getType()));
+        };
+    }
+    
+    private void runWorker() {
+        LlmCallContext.setPriority(LlmPriority.BATCH);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                SharedWorkQueue.Claim claim;
+                try {
+                    claim = workQueue.claimNext(RECOMPUTE_QUEUE);
+                } catch (IOException e) {
+                    claim = null;
+                }
+                if (claim == null) {
+                    Thread.sleep(pollIntervalMillis);
+                    continue;
+                }
+                Map<String, String> payload = claim.getItem().getPayload();
+                boolean recomputed = recomputeOne(ArtifactStatus.builder()
+                        .type(payload.get("type"))
+                        .candidateId(payload.get("candidateId"))
+                        .clientId(payload.get("clientId"))
+                        .build());
+                try {
+                    if (recomputed) {
+                        claim.complete();
+                    } else {
+                        retryLater(claim);
+                        // Model errors and scheduler rejections tend to persist for a moment
+                        Thread.sleep(pollIntervalMillis);
+                    }
+                } catch (IOException e) {
+                    // The item stays queued and is claimed again once the lease expires
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private boolean recomputeOne(ArtifactStatus status) {
+        try {
+            return Boolean.TRUE.equals(BlockingUtil.await(recomputeOneAsync(status)));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Queue a failed item again behind the rest, until it has failed MAX_ATTEMPTS times
+     */
+    private void retryLater(SharedWorkQueue.Claim claim) throws IOException {
+        WorkItem item = claim.getItem();
+        int attempts = Integer.parseInt(item.getPayload().getOrDefault(ATTEMPTS, "0")) + 1;
+        claim.complete();
+        if (attempts < MAX_ATTEMPTS) {
+            Map<String, String> payload = new HashMap<>(item.getPayload());
+            payload.put(ATTEMPTS, String.valueOf(attempts));
+            workQueue.submit(RECOMPUTE_QUEUE, item.getId(), item.getPriority() - 1, payload);
+        }
+    }
+    
+    /**
+     * Current status of a single artifact, reading only that artifact
+     */
+    private ArtifactStatus checkArtifact(String type, String candidateId, String clientId) throws IOException {
+        InputHashes inputs = new InputHashes();
+        switch (type) {
+            case "analysis" -> {
+                AnalysisResult analysis = analysisService.getAnalysis(candidateId, clientId);
+                return check(type, candidateId, clientId, analysis.getRequirementHash(), analysis.getResumeHash(), true, inputs);
+            }
+            case "optimized-resume" -> {
+                OptimizedResume resume = resumeService.getOptimizedResume(candidateId, clientId);
+                return check(type, candidateId, clientId, resume.getRequirementHash(), resume.getResumeHash(), true, inputs);
+            }
+            case "interview-prep" -> {
+                InterviewPrep prep = interviewPrepService.getInterviewPrep(candidateId, clientId);
+                return check(type, candidateId, clientId, prep.getRequirementHash(), prep.getResumeHash(),
+                        prep.getResumeHash() != null, inputs);
+            }
+            default -> throw new IllegalStateException("Unknown artifact type " + type);
+        }
+    }
+    
+    private String artifactId(ArtifactStatus status) {
+        return status.getType() + "-" + status.getCandidateId() + "_" + status.getClientId();
+    }
+    
+    private String leaseKey(ArtifactStatus status) {
+        return "artifact-" + artifactId(status);
+    }
+    
+    private ArtifactStatus check(String type, String candidateId, String clientId,
+                                 String requirementHash, String resumeHash, boolean dependsOnResume,
+                                 InputHashes inputs) {
+        List<String> reasons = new ArrayList<>();
+        
+        String currentRequirement = inputs.requirement(clientId);
+        if (currentRequirement == null) {
+            reasons.add("requirement missing");
+        } else if (requirementHash == null) {
+            reasons.add("requirement version not recorded");
+        } else if (!requirementHash.equals(currentRequirement)) {
+            reasons.add("requirement changed");
+        }
+        
+        if (dependsOnResume) {
+            String currentResume = inputs.resume(candidateId);
+            if (currentResume == null) {
+                reasons.add("resume missing");
+            } else if (resumeHash == null) {
+                reasons.add("resume version not recorded");
+            } else if (!resumeHash.equals(currentResume)) {
+                reasons.add("resume changed");
+            }
+        }
+        
+        return ArtifactStatus.builder()
+                .type(type)
+                .candidateId(candidateId)
+                .clientId(clientId)
+                .stale(!reasons.isEmpty())
+                .reasons(reasons)
+                .build();
+    }
+    
+    private boolean matches(String candidateId, String clientId, String candidateFilter, String clientFilter) {
+        return (candidateFilter == null || Objects.equals(candidateFilter, candidateId))
+                && (clientFilter == null || Objects.equals(clientFilter, clientId));
+    }
+    
+    /**
+     * Current input hashes, computed at most once per scan
+     */
+    private class InputHashes {
+        private final Map<String, String> requirements = new HashMap<>();
+        private final Map<String, String> resumes = new HashMap<>();
+        
+        String requirement(String clientId) {
+            return requirements.computeIfAbsent(clientId, id -> {
+                try {
+                    return hashUtil.requirementHash(fileStorage.loadJson("clients/" + id + ".json", ClientRequirement.class));
+                } catch (IOException e) {
+                    return null;
+                }
+            });
+        }
+        
+        String resume(String candidateId) {
+            return resumes.computeIfAbsent(candidateId, id -> {
+                File pdf = new File(fileStorage.getFullPath("candidates/resumes/original/" + id + ".pdf"));
+                try {
+                    return pdf.exists() ? hashUtil.sha256(pdf) : null;
+                } catch (IOException e) {
+                    return null;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.resumeagent.service;
+
+import com.resumeagent.model.Candidate;
+import com.resumeagent.model.ImportFileResult;
+import com.resumeagent.model.ImportJob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk resume ingest from a ZIP archive and/or many uploaded PDFs.
+ * Archive entries are streamed one at a time straight into resume storage,
+ * and text extraction runs on a bounded pool so the request returns as soon
+ * as every PDF has been stored.
+ */
+@Service
+public class BulkImportService {
+    
+    private final FileStorageService fileStorage;
+    private final CandidateService candidateService;
+    private final ThreadPoolExecutor executor;
+    private final long maxResumeBytes;
+    private final Map<String, JobState> activeJobs = new ConcurrentHashMap<>();
+    
+    public BulkImportService(FileStorageService fileStorage,
+                            CandidateService candidateService,
+                            @Value("${app.import.parallelism:4}") int parallelism,
+                            @Value("${app.import.queue-capacity:100}") int queueCapacity,
+                            @Value("${app.upload.max-resume-size:10MB}") DataSize maxResumeSize) {
+        this.fileStorage = fileStorage;
+        this.candidateService = candidateService;
+        this.maxResumeBytes = maxResumeSize.toBytes();
+        // A full queue makes the uploading thread parse the next file itself,
+        // which throttles archive streaming to the speed of the pool
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    public ImportJob startImport(MultipartFile archive, List<MultipartFile> files, MultipartFile manifest) throws IOException {
+        Map<String, String[]> manifestEntries = manifest != null && !manifest.isEmpty()
+                ? parseManifest(manifest.getInputStream())
+                : new HashMap<>();
+        
+        ImportJob job = ImportJob.builder()
+                .id(UUID.randomUUID().toString())
+                .status("RUNNING")
+                .totalFiles(0)
+                .succeeded(0)
+                .failed(0)
+                .results(new ArrayList<>())
+                .createdAt(LocalDateTime.now())
+                .build();
+        JobState state = new JobState(job);
+        activeJobs.put(job.getId(), state);
+        
+        try {
+            if (archive != null && !archive.isEmpty()) {
+                importArchive(state, archive.getInputStream(), manifestEntries);
+            }
+            if (files != null) {
+                for (MultipartFile file : files) {
+                    if (file.isEmpty()) {
+                        continue;
+                    }
+                    try (InputStream in = file.getInputStream()) {
+                        importPdf(state, file.getOriginalFilename(), in, manifestEntries);
+                    }
+                }
+            }
+        } finally {
+            state.streamingDone = true;
+            completeIfFinished(state);
+        }
+        
+        return snapshot(state);
+    }
+    
+    public ImportJob getJob(String jobId) throws IOException {
+        JobState state = activeJobs.get(jobId);
+        if (state != null) {
+            return snapshot(state);
+        }
+        return fileStorage.loadJson("imports/" + jobId + ".json", ImportJob.class);
+    }
+    
+    private void importArchive(JobState state, InputStream archiveStream, Map<String, String[]> manifestEntries) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(archiveStream)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String filename = baseName(entry.getName());
+                if (entry.isDirectory() || entry.getName().startsWith("__MACOSX/") || filename.startsWith(".")
+                        || !filename.toLowerCase().endsWith(".pdf")) {
+                    continue;
+                }
+                importPdf(state, filename, zip, manifestEntries);
+            }
+        }
+    }
+    
+    /**
+     * Store one PDF under a fresh candidate id and queue its parsing
+     */
+    private void importPdf(JobState state, String originalFilename, InputStream in, Map<String, String[]> manifestEntries) {
+        String filename = baseName(originalFilename);
+        String candidateId = UUID.randomUUID().toString();
+        ImportFileResult result = ImportFileResult.builder()
+                .filename(filename)
+                .status("PENDING")
+                .candidateId(candidateId)
+                .build();
+        synchronized (state) {
+            state.job.getResults().add(result);
+            state.job.setTotalFiles(state.job.getTotalFiles() + 1);
+        }
+        
+        Path pdfPath = Paths.get(fileStorage.getFullPath("candidates/resumes/original/" + candidateId + ".pdf"));
+        try {
+            copyBounded(in, pdfPath);
+        } catch (IOException e) {
+            deleteQuietly(pdfPath);
+            finish(state, result, null, e.getMessage());
+            return;
+        }
+        
+        String[] details = manifestEntries.getOrDefault(filename.toLowerCase(), new String[0]);
+        String name = details.length > 0 && !details[0].isBlank() ? details[0] : nameFromFilename(filename);
+        String email = details.length > 1 ? details[1] : "";
+        
+        state.pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                Candidate candidate = candidateService.registerCandidate(candidateId, name, email, filename);
+                finish(state, result, candidate.getId(), null);
+            } catch (Exception e) {
+                deleteQuietly(pdfPath);
+                finish(state, result, null, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            } finally {
+                state.pending.decrementAndGet();
+                completeIfFinished(state);
+            }
+        });
+    }
+    
+    private void copyBounded(InputStream in, Path target) throws IOException {
+        byte[] buffer = new byte[8192];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                written += read;
+                if (written > maxResumeBytes) {
+                    throw new IOException("File exceeds maximum resume size of " + maxResumeBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+    
+    private void finish(JobState state, ImportFileResult result, String candidateId, String error) {
+        synchronized (state) {
+            if (error == null) {
+                result.setStatus("SUCCEEDED");
+                result.setCandidateId(candidateId);
+                state.job.setSucceeded(state.job.getSucceeded() + 1);
+            } else {
+                result.setStatus("FAILED");
+                result.setCandidateId(null);
+                result.setError(error);
+                state.job.setFailed(state.job.getFailed() + 1);
+            }
+        }
+    }
+    
+    private void completeIfFinished(JobState state) {
+        ImportJob completed;
+        synchronized (state) {
+            if (!state.streamingDone || state.pending.get() > 0 || "COMPLETED".equals(state.job.getStatus())) {
+                return;
+            }
+            state.job.setStatus("COMPLETED");
+            state.job.setCompletedAt(LocalDateTime.now());
+            completed = copyOf(state.job);
+        }
+        try {
+            fileStorage.saveJson(completed, "imports/" + completed.getId() + ".json");
+            activeJobs.remove(completed.getId());
+        } catch (IOException e) {
+            // Keep serving the job from memory if it could not be persisted
+        }
+    }
+    
+    private ImportJob snapshot(JobState state) {
+        synchronized (state) {
+            return copyOf(state.job);
+        }
+    }
+    
+    private ImportJob copyOf(ImportJob job) {
+        List<ImportFileResult> results = new ArrayList<>();
+        for (ImportFileResult result : job.getResults()) {
+            results.add(ImportFileResult.builder()
+                    .filename(result.getFilename())
+                    .status(result.getStatus())
+                    .candidateId(result.getCandidateId())
+                    .error(result.getError())
+                    .build());
+        }
+        return ImportJob.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .totalFiles(job.getTotalFiles())
+                .succeeded(job.getSucceeded())
+                .failed(job.getFailed())
+                .results(results)
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+    
+    /**
+     * Parse a CSV manifest of filename,name,email rows keyed by lower-cased filename
+     */
+    private Map<String, String[]> parseManifest(InputStream in) throws IOException {
+        Map<String, String[]> entries = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> columns = parseCsvLine(line);
+                if (columns.isEmpty() || columns.get(0).isBlank() || columns.get(0).equalsIgnoreCase("filename")) {
+                    continue;
+                }
+                String name = columns.size() > 1 ? columns.get(1) : "";
+                String email = columns.size() > 2 ? columns.get(2) : "";
+                entries.put(baseName(columns.get(0)).toLowerCase(), new String[]{name, email});
+            }
+        }
+        return entries;
+    }
+    
+    private List<String> parseCsvLine(String line) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString().trim());
+                current = new StringBuilder();
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString().trim());
+        return columns;
+    }
+    
+    private String baseName(String path) {
+        if (path == null) {
+            return "resume.pdf";
+        }
+        String normalized = path.replace('\\', '/');
+        return normalized.substring(normalized.lastIndexOf('/') + 1);
+    }
+    
+    private String nameFromFilename(String filename) {
+        String name = filename.replaceAll("(?i)\\.pdf$", "").replaceAll("[_\\-.]+", " ").trim();
+        return name.isEmpty() ? filename : name;
+    }
+    
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Nothing else to clean up
+        }
+    }
+    
+    private static class JobState {
+        private final ImportJob job;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean streamingDone;
+        
+        JobState(ImportJob job) {
+            this.job = job;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.resumeagent.service;
 
+import com.resumeagent.event.CandidateRegisteredEvent;
+import com.resumeagent.event.ResumeTextUpdatedEvent;
 import com.resumeagent.model.Candidate;
 import com.resumeagent.util.PDFUtil;
+import com.resumeagent.util.SkillRegistry;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -17,10 +21,15 @@ public class CandidateService {
     
     private final FileStorageService fileStorage;
     private final PDFUtil pdfUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SkillRegistry skillRegistry;
     
-    public CandidateService(FileStorageService fileStorage, PDFUtil pdfUtil) {
+    public CandidateService(FileStorageService fileStorage, PDFUtil pdfUtil, ApplicationEventPublisher eventPublisher,
+                            SkillRegistry skillRegistry) {
         this.fileStorage = fileStorage;
         this.pdfUtil = pdfUtil;
+        this.eventPublisher = eventPublisher;
+        this.skillRegistry = skillRegistry;
     }
     
     public Candidate uploadResume(MultipartFile file, String name, String email) throws IOException {
@@ -30,8 +39,19 @@ public class CandidateService {
         String pdfPath = fileStorage.getFullPath("candidates/resumes/original/" + candidateId + ".pdf");
         file.transferTo(new File(pdfPath));
         
+        return registerCandidate(candidateId, name, email, file.getOriginalFilename());
+    }
+    
+    /**
+     * Create the candidate profile for a resume PDF that is already stored
+     * under candidates/resumes/original/{candidateId}.pdf
+     */
+    public Candidate registerCandidate(String candidateId, String name, String email, String originalFilename) throws IOException {
+        String pdfPath = fileStorage.getFullPath("candidates/resumes/original/" + candidateId + ".pdf");
+        
         // Extract text to identify skills (basic extraction)
         String resumeText = pdfUtil.extractText(new File(pdfPath));
+        saveResumeText(candidateId, resumeText);
         List<String> skills = extractSkillsFromText(resumeText);
         
         // Create candidate profile
@@ -41,15 +61,36 @@ public class CandidateService {
                 .email(email)
                 .skills(skills)
                 .yearsOfExperience(0) // Could be extracted from resume
-                .originalResumeFilename(file.getOriginalFilename())
+                .originalResumeFilename(originalFilename)
                 .uploadedAt(LocalDateTime.now())
                 .build();
         
         fileStorage.saveJson(candidate, "candidates/" + candidateId + ".json");
+        eventPublisher.publishEvent(new CandidateRegisteredEvent(candidate));
+        eventPublisher.publishEvent(new ResumeTextUpdatedEvent(candidateId, resumeText));
         
         return candidate;
     }
     
+    /**
+     * Replace a candidate's resume PDF and refresh the profile extracted from it
+     */
+    public Candidate replaceResume(String candidateId, MultipartFile file) throws IOException {
+        Candidate existing = getCandidate(candidateId);
+        
+        String pdfPath = fileStorage.getFullPath("candidates/resumes/original/" + candidateId + ".pdf");
+        file.transferTo(new File(pdfPath));
+        
+        String resumeText = pdfUtil.extractText(new File(pdfPath));
+        saveResumeText(candidateId, resumeText);
+        existing.setSkills(extractSkillsFromText(resumeText));
+        existing.setOriginalResumeFilename(file.getOriginalFilename());
+        fileStorage.saveJson(existing, "candidates/" + candidateId + ".json");
+        eventPublisher.publishEvent(new ResumeTextUpdatedEvent(candidateId, resumeText));
+        
+        return existing;
+    }
+    
     public Candidate getCandidate(String candidateId) throws IOException {
         return fileStorage.loadJson("candidates/" + candidateId + ".json", Candidate.class);
     }
@@ -70,6 +111,48 @@ public class CandidateService {
         return candidates;
     }
     
+    /**
+     * Ids of all candidates, from the profile file names without reading the profiles
+     */
+    public List<String> getCandidateIds() throws IOException {
+        List<String> ids = new ArrayList<>();
+        for (String file : fileStorage.listFiles("candidates")) {
+            if (file.endsWith(".json")) {
+                ids.add(file.substring(0, file.length() - 5));
+            }
+        }
+        return ids;
+    }
+    
+    /**
+     * The stored text of the candidate's resume. Candidates registered before text
+     * was stored have it extracted from the PDF once.
+     */
+    public String getResumeText(String candidateId) throws IOException {
+        String path = resumeTextPath(candidateId);
+        if (fileStorage.fileExists(path)) {
+            return fileStorage.loadText(path);
+        }
+        String resumeText = pdfUtil.extractText(new File(fileStorage.getFullPath("candidates/resumes/original/" + candidateId + ".pdf")));
+        saveResumeText(candidateId, resumeText);
+        return resumeText;
+    }
+    
+    /**
+     * Last modification of the stored resume text, 0 if none is stored
+     */
+    public long getResumeTextModified(String candidateId) {
+        return new File(fileStorage.getFullPath(resumeTextPath(candidateId))).lastModified();
+    }
+    
+    private void saveResumeText(String candidateId, String resumeText) throws IOException {
+        fileStorage.saveText(resumeText, resumeTextPath(candidateId));
+    }
+    
+    private String resumeTextPath(String candidateId) {
+        return "candidates/resumes/text/" + candidateId + ".txt";
+    }
+    
     private List<String> extractSkillsFromText(String text) {
         // Simple keyword extraction - in production, this would be more sophisticated
         List<String> skills = new ArrayList<>();
@@ -84,6 +167,6 @@ public class CandidateService {
             }
         }
         
-        return skills;
+        return skillRegistry.intern(skills);
     }
 }
@@ -1,7 +1,9 @@
 package com.resumeagent.service;
 
 import com.resumeagent.agent.RequirementsParserAgent;
+import com.resumeagent.event.ClientCreatedEvent;
 import com.resumeagent.model.ClientRequirement;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -13,15 +15,33 @@ public class ClientService {
     
     private final FileStorageService fileStorage;
     private final RequirementsParserAgent parserAgent;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public ClientService(FileStorageService fileStorage, RequirementsParserAgent parserAgent) {
+    public ClientService(FileStorageService fileStorage,
+                         RequirementsParserAgent parserAgent,
+                         ApplicationEventPublisher eventPublisher) {
         this.fileStorage = fileStorage;
         this.parserAgent = parserAgent;
+        this.eventPublisher = eventPublisher;
     }
     
     public ClientRequirement createClient(String rawRequirement) throws IOException {
         ClientRequirement requirement = parserAgent.parse(rawRequirement);
         fileStorage.saveJson(requirement, "clients/" + requirement.getId() + ".json");
+        eventPublisher.publishEvent(new ClientCreatedEvent(requirement));
+        return requirement;
+    }
+    
+    /**
+     * Re-parse an edited requirement under the same client id. Derived artifacts
+     * keep the hash of the previous version until they are recomputed.
+     */
+    public ClientRequirement updateClient(String clientId, String rawRequirement) throws IOException {
+        ClientRequirement existing = getClient(clientId);
+        ClientRequirement requirement = parserAgent.parse(rawRequirement);
+        requirement.setId(clientId);
+        requirement.setCreatedAt(existing.getCreatedAt());
+        fileStorage.saveJson(requirement, "clients/" + clientId + ".json");
         return requirement;
     }
     
@@ -0,0 +1,193 @@
+package com.resumeagent.service;
+
+import com.resumeagent.event.ResumeTextUpdatedEvent;
+import com.resumeagent.model.DuplicateMatch;
+import com.resumeagent.model.ResumeSignature;
+import com.resumeagent.search.MinHash;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds resumes that are near-identical to another candidate's (lightly edited
+ * re-submissions, or the same person sent by several agencies). A MinHash
+ * signature of the resume text is stored when the text is, and kept in an LSH
+ * index of 16 bands of 8 rows, so a lookup compares only against candidates
+ * sharing a band instead of every resume.
+ *
+ * <p>Resumes with too little text for a signature (scanned or image-only PDFs,
+ * failed extraction) are never reported as duplicates, nor matched by others.
+ *
+ * <p>Mode "flag" marks analyses of near-duplicates, "reuse" copies a current
+ * analysis of the near-duplicate for the same client instead of calling the
+ * model, and "off" disables signatures and lookups.
+ */
+@Service
+public class DuplicateDetectionService {
+    
+    private static final String SIGNATURE_DIR = "candidates/resumes/signatures";
+    private static final int BANDS = 16;
+    private static final int ROWS = MinHash.SIZE / BANDS;
+    // Recorded for resumes without a signature, so backfill does not extract them again
+    private static final int[] NO_SIGNATURE = new int[0];
+    
+    private final CandidateService candidateService;
+    private final FileStorageService fileStorage;
+    private final String mode;
+    private final double threshold;
+    
+    private final Map<String, int[]> signatures = new HashMap<>();
+    private final List<Map<Long, Set<String>>> buckets = new ArrayList<>();
+    private volatile boolean loaded;
+    
+    public DuplicateDetectionService(CandidateService candidateService,
+                                     FileStorageService fileStorage,
+                                     @Value("${app.dedup.mode:flag}") String mode,
+                                     @Value("${app.dedup.threshold:0.9}") double threshold) {
+        this.candidateService = candidateService;
+        this.fileStorage = fileStorage;
+        this.mode = mode;
+        this.threshold = threshold;
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+    
+    public boolean isEnabled() {
+        return !"off".equals(mode);
+    }
+    
+    public boolean isReuseEnabled() {
+        return "reuse".equals(mode);
+    }
+    
+    @EventListener
+    public void onResumeTextUpdated(ResumeTextUpdatedEvent event) throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        ensureLoaded();
+        store(event.getCandidateId(), MinHash.signature(event.getText()));
+    }
+    
+    /**
+     * Other candidates whose resume text is at least threshold similar, most similar first
+     */
+    public List<DuplicateMatch> findNearDuplicates(String candidateId) throws IOException {
+        List<DuplicateMatch> matches = new ArrayList<>();
+        if (!isEnabled()) {
+            return matches;
+        }
+        ensureLoaded();
+        int[] signature = signatureOf(candidateId);
+        if (signature == NO_SIGNATURE) {
+            return matches;
+        }
+        
+        Set<String> seen = new HashSet<>();
+        synchronized (this) {
+            for (int band = 0; band < BANDS; band++) {
+                Set<String> bucket = buckets.get(band).get(MinHash.band(signature, band, ROWS));
+                if (bucket == null) {
+                    continue;
+                }
+                for (String other : bucket) {
+                    if (!other.equals(candidateId) && seen.add(other)) {
+                        double similarity = MinHash.similarity(signature, signatures.get(other));
+                        if (similarity >= threshold) {
+                            matches.add(new DuplicateMatch(other, similarity));
+                        }
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(DuplicateMatch::getSimilarity).reversed());
+        return matches;
+    }
+    
+    /**
+     * Compute signatures for resumes stored before signatures were, such as
+     * candidates registered through another instance
+     */
+    public void backfill() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        ensureLoaded();
+        for (String candidateId : candidateService.getCandidateIds()) {
+            boolean known;
+            synchronized (this) {
+                known = signatures.containsKey(candidateId);
+            }
+            if (!known) {
+                try {
+                    signatureOf(candidateId);
+                } catch (IOException e) {
+                    // Resume missing or unreadable; retried on the next backfill
+                }
+            }
+        }
+    }
+    
+    private int[] signatureOf(String candidateId) throws IOException {
+        synchronized (this) {
+            int[] known = signatures.get(candidateId);
+            if (known != null) {
+                return known;
+            }
+        }
+        int[] signature = MinHash.signature(candidateService.getResumeText(candidateId));
+        store(candidateId, signature);
+        return signature != null ? signature : NO_SIGNATURE;
+    }
+    
+    /**
+     * @param signature null if the text has none
+     */
+    private void store(String candidateId, int[] signature) throws IOException {
+        fileStorage.saveJson(new ResumeSignature(candidateId, signature), SIGNATURE_DIR + "/" + candidateId + ".json");
+        index(candidateId, signature);
+    }
+    
+    private synchronized void index(String candidateId, int[] signature) {
+        int[] previous = signatures.put(candidateId, signature != null ? signature : NO_SIGNATURE);
+        for (int band = 0; band < BANDS; band++) {
+            if (previous != null && previous != NO_SIGNATURE) {
+                Set<String> bucket = buckets.get(band).get(MinHash.band(previous, band, ROWS));
+                if (bucket != null) {
+                    bucket.remove(candidateId);
+                }
+            }
+            if (signature != null) {
+                buckets.get(band).computeIfAbsent(MinHash.band(signature, band, ROWS), k -> new HashSet<>()).add(candidateId);
+            }
+        }
+    }
+    
+    private void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            for (String file : fileStorage.listFiles(SIGNATURE_DIR)) {
+                if (file.endsWith(".json")) {
+                    ResumeSignature stored = fileStorage.loadJson(SIGNATURE_DIR + "/" + file, ResumeSignature.class);
+                    index(stored.getCandidateId(), MinHash.isUsable(stored.getValues()) ? stored.getValues() : null);
+                }
+            }
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.resumeagent.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Loads the resume signatures and computes any that are missing, so the first
+ * analysis does not pay for building the near-duplicate index.
+ */
+@Component
+@Order(4)
+public class DuplicateIndexWarmupTask implements WarmupTask {
+    
+    private final DuplicateDetectionService duplicateDetection;
+    
+    public DuplicateIndexWarmupTask(DuplicateDetectionService duplicateDetection) {
+        this.duplicateDetection = duplicateDetection;
+    }
+    
+    @Override
+    public String getName() {
+        return "duplicate-index";
+    }
+    
+    @Override
+    public void warmUp() throws IOException {
+        duplicateDetection.backfill();
+    }
+}
@@ -1,62 +1,283 @@
 package com.resumeagent.service;
 
 import com.resumeagent.config.FileStorageConfig;
+import com.resumeagent.jfr.StorageEvent;
 import com.resumeagent.util.JsonUtil;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class FileStorageService {
     
+    private static final String VERSION_MARKER = ".store-version";
+    // Directories whose top-level files rendered pages and search indexes are built from; writes in
+    // their subdirectories (resume PDFs, texts, signatures) and elsewhere leave the version alone
+    private static final Set<String> VERSIONED_DIRS = Set.of("candidates", "clients", "analyses", "interview-prep");
+    
     private final FileStorageConfig config;
     private final JsonUtil jsonUtil;
+    private final StorageArchive archive;
+    private final Object markerLock = new Object();
+    // Highest counter read from the marker file, and bumps that could not be recorded in it
+    private final AtomicLong sharedVersion = new AtomicLong();
+    private final AtomicLong unsharedBumps = new AtomicLong();
     
-    public FileStorageService(FileStorageConfig config, JsonUtil jsonUtil) {
+    public FileStorageService(FileStorageConfig config, JsonUtil jsonUtil, StorageArchive archive) {
         this.config = config;
         this.jsonUtil = jsonUtil;
+        this.archive = archive;
     }
     
     public <T> void saveJson(T object, String relativePath) throws IOException {
-        String fullPath = config.getBasePath() + "/" + relativePath;
-        jsonUtil.writeToFile(object, fullPath);
+        StorageEvent event = begin();
+        boolean done = false;
+        try {
+            String fullPath = config.getBasePath() + "/" + relativePath;
+            jsonUtil.writeToFile(object, fullPath);
+            bumpVersion(relativePath);
+            done = true;
+        } finally {
+            commit(event, "write", relativePath, done, 0);
+        }
     }
     
     public <T> T loadJson(String relativePath, Class<T> clazz) throws IOException {
-        String fullPath = config.getBasePath() + "/" + relativePath;
-        return jsonUtil.readFromFile(fullPath, clazz);
+        StorageEvent event = begin();
+        boolean done = false;
+        try {
+            String fullPath = config.getBasePath() + "/" + relativePath;
+            T object;
+            try {
+                object = jsonUtil.readFromFile(fullPath, clazz);
+            } catch (FileNotFoundException | NoSuchFileException e) {
+                object = jsonUtil.fromBytes(readArchived(relativePath, e), clazz);
+            }
+            done = true;
+            return object;
+        } finally {
+            commit(event, "read", relativePath, done, 0);
+        }
     }
     
-    public List<String> listFiles(String relativePath) throws IOException {
-        String fullPath = config.getBasePath() + "/" + relativePath;
-        File directory = new File(fullPath);
-        
-        if (!directory.exists() || !directory.isDirectory()) {
-            return new ArrayList<>();
+    public void saveText(String text, String relativePath) throws IOException {
+        StorageEvent event = begin();
+        boolean done = false;
+        try {
+            Files.writeString(Paths.get(config.getBasePath() + "/" + relativePath), text, StandardCharsets.UTF_8);
+            bumpVersion(relativePath);
+            done = true;
+        } finally {
+            commit(event, "write", relativePath, done, 0);
         }
-        
+    }
+    
+    public String loadText(String relativePath) throws IOException {
+        StorageEvent event = begin();
+        boolean done = false;
+        try {
+            String text;
+            try {
+                text = Files.readString(Paths.get(config.getBasePath() + "/" + relativePath), StandardCharsets.UTF_8);
+            } catch (NoSuchFileException e) {
+                text = new String(readArchived(relativePath, e), StandardCharsets.UTF_8);
+            }
+            done = true;
+            return text;
+        } finally {
+            commit(event, "read", relativePath, done, 0);
+        }
+    }
+    
+    public void deleteFile(String relativePath) throws IOException {
+        StorageEvent event = begin();
+        boolean done = false;
+        try {
+            Files.deleteIfExists(Paths.get(config.getBasePath() + "/" + relativePath));
+            archive.delete(relativePath);
+            bumpVersion(relativePath);
+            done = true;
+        } finally {
+            commit(event, "delete", relativePath, done, 0);
+        }
+    }
+    
+    public List<String> listFiles(String relativePath) throws IOException {
+        StorageEvent event = begin();
         List<String> files = new ArrayList<>();
-        try (Stream<Path> paths = Files.list(Paths.get(fullPath))) {
-            paths.filter(Files::isRegularFile)
-                 .forEach(path -> files.add(path.getFileName().toString()));
+        boolean done = false;
+        try {
+            String fullPath = config.getBasePath() + "/" + relativePath;
+            File directory = new File(fullPath);
+            
+            if (directory.exists() && directory.isDirectory()) {
+                try (Stream<Path> paths = Files.list(Paths.get(fullPath))) {
+                    paths.filter(Files::isRegularFile)
+                         .forEach(path -> files.add(path.getFileName().toString()));
+                }
+            }
+            if (archive.getDirectories().contains(relativePath)) {
+                Set<String> hot = new HashSet<>(files);
+                archive.names(relativePath).filter(name -> !hot.contains(name)).forEach(files::add);
+            }
+            done = true;
+            return files;
+        } finally {
+            commit(event, "list", relativePath, done, files.size());
         }
-        
-        return files;
+    }
+    
+    /**
+     * Names of the regular files in the directory, read lazily from the directory
+     * listing so huge directories are never held in memory, followed by archived
+     * files without a hot copy. Close the stream when done.
+     */
+    public Stream<String> streamFiles(String relativePath) throws IOException {
+        StorageEvent event = begin();
+        Path directory = Paths.get(getFullPath(relativePath));
+        // Archived names are walked lazily after the hot ones; those with a hot copy are skipped
+        Stream<String> archived = archive.names(relativePath)
+                .filter(name -> !Files.exists(directory.resolve(name)));
+        if (!Files.isDirectory(directory)) {
+            commit(event, "list", relativePath, true, 0);
+            return archived;
+        }
+        DirectoryStream<Path> entries = Files.newDirectoryStream(directory, Files::isRegularFile);
+        AtomicInteger count = new AtomicInteger();
+        return Stream.concat(StreamSupport.stream(entries.spliterator(), false)
+                        .map(path -> path.getFileName().toString()), archived)
+                .peek(name -> count.incrementAndGet())
+                .onClose(() -> {
+                    try {
+                        entries.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        commit(event, "list", relativePath, true, count.get());
+                    }
+                });
     }
     
     public boolean fileExists(String relativePath) {
         String fullPath = config.getBasePath() + "/" + relativePath;
-        return new File(fullPath).exists();
+        return new File(fullPath).exists() || archive.contains(relativePath);
     }
     
     public String getFullPath(String relativePath) {
         return config.getBasePath() + "/" + relativePath;
     }
+    
+    /**
+     * Monotonically increasing version of the stored data, bumped by every save and
+     * delete of a file directly in candidates/, clients/, analyses/ or interview-prep/. The counter is
+     * kept in a marker file, so writes made by other instances sharing the directory
+     * are seen as soon as they are made.
+     */
+    public long getVersion() {
+        try {
+            long shared = readMarker();
+            sharedVersion.accumulateAndGet(shared, Math::max);
+        } catch (IOException e) {
+            // No versioned write yet
+        }
+        return sharedVersion.get() + unsharedBumps.get();
+    }
+    
+    /**
+     * The archived copy of a file whose hot copy is gone, or the original not-found error
+     */
+    private byte[] readArchived(String relativePath, IOException notFound) throws IOException {
+        byte[] data = archive.read(relativePath);
+        if (data == null) {
+            throw notFound;
+        }
+        return data;
+    }
+    
+    private StorageEvent begin() {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * Record the operation if the recording wants it; the file size is only looked up then
+     */
+    private void commit(StorageEvent event, String operation, String relativePath, boolean done, int entries) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.setOperation(operation);
+        event.setPath(relativePath);
+        event.setFailed(!done);
+        event.setEntries(entries);
+        if (!"list".equals(operation) && !"delete".equals(operation)) {
+            File file = new File(getFullPath(relativePath));
+            event.setBytes(file.isFile() ? file.length() : 0);
+        }
+        event.commit();
+    }
+    
+    private void bumpVersion(String relativePath) {
+        int slash = relativePath.lastIndexOf('/');
+        if (slash < 0 || !VERSIONED_DIRS.contains(relativePath.substring(0, slash))) {
+            return;
+        }
+        // The file lock orders instances; it cannot be taken twice in one JVM, hence markerLock
+        synchronized (markerLock) {
+            try (FileChannel channel = FileChannel.open(Paths.get(getFullPath(VERSION_MARKER)),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Released when the channel closes
+                channel.lock();
+                long next = parseMarker(channel) + 1;
+                byte[] text = Long.toString(next).getBytes(StandardCharsets.US_ASCII);
+                // Overwrite in place: the counter never gets shorter, so readers never see it empty
+                channel.write(ByteBuffer.wrap(text), 0);
+                channel.truncate(text.length);
+                sharedVersion.accumulateAndGet(next, Math::max);
+            } catch (IOException e) {
+                // Other instances notice on their next bump; this one already has
+                unsharedBumps.incrementAndGet();
+            }
+        }
+    }
+    
+    private long readMarker() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(getFullPath(VERSION_MARKER)), StandardOpenOption.READ)) {
+            return parseMarker(channel);
+        }
+    }
+    
+    private long parseMarker(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(20);
+        channel.read(buffer, 0);
+        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+        try {
+            return text.isEmpty() ? 0 : Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            // Marker from before the counter; start counting
+            return 0;
+        }
+    }
 }
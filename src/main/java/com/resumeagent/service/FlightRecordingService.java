@@ -0,0 +1,190 @@
+package com.resumeagent.service;
+
+import com.resumeagent.model.RecordingInfo;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Java Flight Recorder recordings started on demand, plus an optional continuous
+ * recording that keeps the last few minutes of events so a latency spike can be
+ * dumped after the fact. Dumps include the application's own agent call, PDF,
+ * storage and workflow stage events alongside the JVM's GC, CPU and I/O events.
+ * Events that record the process environment or command line are left out of
+ * every recording, whatever the configuration enables.
+ */
+@Service
+public class FlightRecordingService {
+    
+    private static final String NAME_PREFIX = "resume-agent-";
+    private static final String CONTINUOUS = NAME_PREFIX + "continuous";
+    // Environment variables, system properties and the JVM command line carry API keys and passwords
+    private static final List<String> SECRET_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+    
+    private final String defaultSettings;
+    private final DataSize maxSize;
+    private final Map<Long, String> settingsById = new ConcurrentHashMap<>();
+    
+    public FlightRecordingService(@Value("${app.jfr.settings:default}") String defaultSettings,
+                                  @Value("${app.jfr.max-size:200MB}") DataSize maxSize,
+                                  @Value("${app.jfr.continuous.enabled:false}") boolean continuous,
+                                  @Value("${app.jfr.continuous.max-age:30m}") Duration continuousMaxAge) throws IOException, ParseException {
+        this.defaultSettings = defaultSettings;
+        this.maxSize = maxSize;
+        if (continuous) {
+            Recording recording = newRecording(CONTINUOUS, defaultSettings);
+            recording.setMaxAge(continuousMaxAge);
+            recording.start();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (Recording recording : ownRecordings()) {
+            recording.close();
+        }
+    }
+    
+    /**
+     * Start a recording that stops by itself after the duration, or runs until stopped when it is null
+     *
+     * @param settings JFR configuration name (default, profile), or null for app.jfr.settings
+     */
+    public RecordingInfo start(Duration duration, String settings) throws IOException, ParseException {
+        Recording recording = newRecording(null, settings != null ? settings : defaultSettings);
+        if (duration != null) {
+            recording.setDuration(duration);
+        }
+        recording.start();
+        return toInfo(recording);
+    }
+    
+    public List<RecordingInfo> list() {
+        List<RecordingInfo> infos = new ArrayList<>();
+        for (Recording recording : ownRecordings()) {
+            infos.add(toInfo(recording));
+        }
+        return infos;
+    }
+    
+    /**
+     * @return the stopped recording, or null if there is none with this id
+     */
+    public RecordingInfo stop(long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return toInfo(recording);
+    }
+    
+    /**
+     * Discard the recording and its data
+     */
+    public boolean close(long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        settingsById.remove(id);
+        return true;
+    }
+    
+    /**
+     * Write the recording's data so far to a temporary file, which the caller deletes
+     *
+     * @return the file, or null if there is no recording with this id
+     */
+    public Path dump(long id) throws IOException {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        Path file = Files.createTempFile(NAME_PREFIX + id + "-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+    
+    /**
+     * Write everything the running recordings, including the continuous one, hold
+     * right now to a temporary file, which the caller deletes
+     *
+     * @return the file, or null if nothing is being recorded
+     */
+    public Path snapshot() throws IOException {
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            if (snapshot.getSize() == 0) {
+                return null;
+            }
+            Path file = Files.createTempFile(NAME_PREFIX + "snapshot-", ".jfr");
+            snapshot.dump(file);
+            return file;
+        }
+    }
+    
+    private Recording newRecording(String name, String settings) throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(name != null ? name : NAME_PREFIX + recording.getId());
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSize.toBytes());
+        SECRET_EVENTS.forEach(recording::disable);
+        settingsById.put(recording.getId(), settings);
+        return recording;
+    }
+    
+    private Recording find(long id) {
+        for (Recording recording : ownRecordings()) {
+            if (recording.getId() == id) {
+                return recording;
+            }
+        }
+        return null;
+    }
+    
+    private List<Recording> ownRecordings() {
+        List<Recording> own = new ArrayList<>();
+        for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (recording.getName().startsWith(NAME_PREFIX)) {
+                own.add(recording);
+            }
+        }
+        return own;
+    }
+    
+    private RecordingInfo toInfo(Recording recording) {
+        return RecordingInfo.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .settings(settingsById.get(recording.getId()))
+                .startedAt(recording.getStartTime() != null
+                        ? LocalDateTime.ofInstant(recording.getStartTime(), ZoneId.systemDefault())
+                        : null)
+                .duration(recording.getDuration() != null ? recording.getDuration().toString() : null)
+                .maxAge(recording.getMaxAge() != null ? recording.getMaxAge().toString() : null)
+                .sizeBytes(recording.getSize())
+                .build();
+    }
+}
@@ -0,0 +1,280 @@
+package com.resumeagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.resumeagent.agent.LlmCallContext;
+import com.resumeagent.model.IdempotencyRecord;
+import com.resumeagent.util.HashUtil;
+import com.resumeagent.util.JsonUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executes a POST at most once per Idempotency-Key (scoped by tenant and
+ * operation). Successful responses are stored under idempotency/ for the
+ * configured window and replayed to retries. A retry that arrives while the first
+ * request is still running attaches to that execution; on another instance it
+ * waits for the stored response, guarded by a lease. Failed executions are not
+ * stored, so they can be retried with the same key.
+ */
+@Service
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final String RECORD_DIR = "idempotency";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final long SWEEP_INTERVAL_MILLIS = 60 * 60 * 1000L;
+    
+    private final FileStorageService fileStorage;
+    private final LeaseService leaseService;
+    private final JsonUtil jsonUtil;
+    private final HashUtil hashUtil;
+    private final Duration ttl;
+    private final long waitTimeoutMillis;
+    
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private volatile long lastSweep = System.currentTimeMillis();
+    
+    public IdempotencyService(FileStorageService fileStorage,
+                              LeaseService leaseService,
+                              JsonUtil jsonUtil,
+                              HashUtil hashUtil,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.wait-timeout:150s}") Duration waitTimeout) {
+        this.fileStorage = fileStorage;
+        this.leaseService = leaseService;
+        this.jsonUtil = jsonUtil;
+        this.hashUtil = hashUtil;
+        this.ttl = ttl;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+    }
+    
+    /**
+     * Run action once for key, or replay/attach to the response of the execution that
+     * already ran for it. Without a key the action simply runs. A key reused with a
+     * different request body is answered with 422, and a wait for another instance
+     * that exceeds the wait timeout with 409.
+     */
+    public <T> Mono<ResponseEntity<T>> execute(String key, String operation, Map<String, String> request,
+                                               Class<T> responseType, Supplier<Mono<ResponseEntity<T>>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String tenant = LlmCallContext.getTenant();
+        String id = hashUtil.sha256(tenant + "|" + operation + "|" + key);
+        String requestHash = requestHash(request);
+        
+        return Mono.defer(() -> {
+            IdempotencyRecord template = IdempotencyRecord.builder()
+                    .key(key)
+                    .operation(operation)
+                    .tenant(tenant)
+                    .requestHash(requestHash)
+                    .build();
+            long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+            // Shared by retries that arrive while it runs; it completes even if the first caller goes away.
+            // It leaves the map before the outcome is emitted, so a retry sent after a failure runs again.
+            InFlight created = new InFlight(requestHash, self -> resolve(id, template, action, deadline)
+                    .doOnEach(signal -> inFlight.remove(id, self))
+                    .cache());
+            InFlight running = inFlight.putIfAbsent(id, created);
+            if (running != null) {
+                if (!running.requestHash.equals(requestHash)) {
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).<T>build());
+                }
+                return running.response.map(stored -> toResponse(stored, responseType, true));
+            }
+            
+            return created.response.map(stored -> toResponse(stored, responseType, stored.replayed));
+        });
+    }
+    
+    private <T> Mono<Stored> resolve(String id, IdempotencyRecord template,
+                                     Supplier<Mono<ResponseEntity<T>>> action, long deadline) {
+        return Mono.fromCallable(() -> claim(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(attempt -> {
+                    if (attempt.record != null) {
+                        boolean sameRequest = template.getRequestHash().equals(attempt.record.getRequestHash());
+                        return Mono.just(sameRequest
+                                ? new Stored(attempt.record.getStatus(), attempt.record.getBody(), null, true)
+                                : new Stored(HttpStatus.UNPROCESSABLE_ENTITY.value(), null, null, false));
+                    }
+                    if (attempt.lease != null) {
+                        return run(id, template, attempt.lease, action);
+                    }
+                    if (System.currentTimeMillis() > deadline) {
+                        return Mono.just(new Stored(HttpStatus.CONFLICT.value(), null, null, false));
+                    }
+                    // Another instance is executing this key; wait for its stored response
+                    return Mono.delay(POLL_INTERVAL).then(Mono.defer(() -> resolve(id, template, action, deadline)));
+                });
+    }
+    
+    private <T> Mono<Stored> run(String id, IdempotencyRecord template, LeaseService.Lease lease,
+                                 Supplier<Mono<ResponseEntity<T>>> action) {
+        return Mono.defer(action::get)
+                .flatMap(entity -> Mono.fromCallable(() -> {
+                    if (entity.getStatusCode().is2xxSuccessful()) {
+                        store(id, template, entity);
+                    }
+                    return new Stored(entity.getStatusCode().value(), null, entity.getBody(), false);
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .doFinally(signal -> lease.close());
+    }
+    
+    /**
+     * The stored response if there is one, otherwise the lease to execute, otherwise
+     * neither (another instance holds the lease)
+     */
+    private Attempt claim(String id) throws IOException {
+        IdempotencyRecord record = loadRecord(id);
+        if (record != null) {
+            return new Attempt(record, null);
+        }
+        LeaseService.Lease lease = leaseService.tryAcquire("idempotency-" + id);
+        if (lease != null) {
+            // The previous holder may have stored its response just before releasing
+            record = loadRecord(id);
+            if (record != null) {
+                lease.close();
+                return new Attempt(record, null);
+            }
+        }
+        return new Attempt(null, lease);
+    }
+    
+    private IdempotencyRecord loadRecord(String id) throws IOException {
+        String path = recordPath(id);
+        if (!fileStorage.fileExists(path)) {
+            return null;
+        }
+        IdempotencyRecord record = fileStorage.loadJson(path, IdempotencyRecord.class);
+        if (record.getExpiresAt() != null && record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            fileStorage.deleteFile(path);
+            return null;
+        }
+        return record;
+    }
+    
+    private void store(String id, IdempotencyRecord template, ResponseEntity<?> entity) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .key(template.getKey())
+                .operation(template.getOperation())
+                .tenant(template.getTenant())
+                .requestHash(template.getRequestHash())
+                .status(entity.getStatusCode().value())
+                .body(entity.getBody() != null ? jsonUtil.toTree(entity.getBody()) : null)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+        fileStorage.saveJson(record, recordPath(id));
+        sweepIfDue();
+    }
+    
+    /**
+     * Delete expired records, at most once per hour
+     */
+    private void sweepIfDue() throws IOException {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep < SWEEP_INTERVAL_MILLIS) {
+            return;
+        }
+        lastSweep = now;
+        for (String file : fileStorage.listFiles(RECORD_DIR)) {
+            if (file.endsWith(".json")) {
+                try {
+                    loadRecord(file.substring(0, file.length() - 5));
+                } catch (IOException e) {
+                    // Being replaced or already removed
+                }
+            }
+        }
+    }
+    
+    private <T> ResponseEntity<T> toResponse(Stored stored, Class<T> responseType, boolean replayed) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status);
+        if (replayed) {
+            builder.header(REPLAYED_HEADER, "true");
+        }
+        if (stored.original != null) {
+            return builder.body(responseType.cast(stored.original));
+        }
+        if (stored.body == null || stored.body.isNull()) {
+            return builder.build();
+        }
+        try {
+            return builder.body(jsonUtil.fromTree(stored.body, responseType));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    private String requestHash(Map<String, String> request) {
+        try {
+            return hashUtil.sha256(jsonUtil.toJsonString(request != null ? new TreeMap<>(request) : Map.of()));
+        } catch (IOException e) {
+            return "";
+        }
+    }
+    
+    private String recordPath(String id) {
+        return RECORD_DIR + "/" + id + ".json";
+    }
+    
+    /**
+     * An execution in progress. Its response is complete before it is published, and
+     * nothing runs until the first caller subscribes.
+     */
+    private static class InFlight {
+        private final String requestHash;
+        private final Mono<Stored> response;
+        
+        InFlight(String requestHash, Function<InFlight, Mono<Stored>> response) {
+            this.requestHash = requestHash;
+            this.response = response.apply(this);
+        }
+    }
+    
+    private static class Attempt {
+        private final IdempotencyRecord record;
+        private final LeaseService.Lease lease;
+        
+        Attempt(IdempotencyRecord record, LeaseService.Lease lease) {
+            this.record = record;
+            this.lease = lease;
+        }
+    }
+    
+    /**
+     * A response as produced by this instance (original body) or read back from storage
+     */
+    private static class Stored {
+        private final int status;
+        private final JsonNode body;
+        private final Object original;
+        private final boolean replayed;
+        
+        Stored(int status, JsonNode body, Object original, boolean replayed) {
+            this.status = status;
+            this.body = body;
+            this.original = original;
+            this.replayed = replayed;
+        }
+    }
+}
@@ -3,7 +3,11 @@ package com.resumeagent.service;
 import com.resumeagent.agent.InterviewPrepAgent;
 import com.resumeagent.model.ClientRequirement;
 import com.resumeagent.model.InterviewPrep;
+import com.resumeagent.util.BlockingUtil;
+import com.resumeagent.util.HashUtil;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,23 +18,38 @@ public class InterviewPrepService {
     
     private final FileStorageService fileStorage;
     private final InterviewPrepAgent prepAgent;
+    private final HashUtil hashUtil;
     
-    public InterviewPrepService(FileStorageService fileStorage, InterviewPrepAgent prepAgent) {
+    public InterviewPrepService(FileStorageService fileStorage, InterviewPrepAgent prepAgent, HashUtil hashUtil) {
         this.fileStorage = fileStorage;
         this.prepAgent = prepAgent;
+        this.hashUtil = hashUtil;
     }
     
     public InterviewPrep generateInterviewPrep(String candidateId, String clientId) throws IOException {
+        return BlockingUtil.await(generateInterviewPrepAsync(candidateId, clientId));
+    }
+    
+    public Mono<InterviewPrep> generateInterviewPrepAsync(String candidateId, String clientId) {
         // Load client requirement
-        ClientRequirement requirement = fileStorage.loadJson("clients/" + clientId + ".json", ClientRequirement.class);
-        
-        // Generate interview prep
-        InterviewPrep prep = prepAgent.generateQuestions(candidateId, requirement);
-        
-        // Save interview prep
-        fileStorage.saveJson(prep, "interview-prep/" + candidateId + "_" + clientId + ".json");
-        
-        return prep;
+        return Mono.fromCallable(() -> fileStorage.loadJson("clients/" + clientId + ".json", ClientRequirement.class))
+                .subscribeOn(Schedulers.boundedElastic())
+                // Generate interview prep
+                .flatMap(requirement -> prepAgent.generateQuestionsAsync(candidateId, requirement)
+                        .map(prep -> {
+                            prep.setRequirementHash(hashUtil.requirementHash(requirement));
+                            return prep;
+                        }))
+                .publishOn(Schedulers.boundedElastic())
+                // Save interview prep
+                .flatMap(prep -> Mono.fromCallable(() -> {
+                    saveInterviewPrep(prep);
+                    return prep;
+                }));
+    }
+    
+    public void saveInterviewPrep(InterviewPrep prep) throws IOException {
+        fileStorage.saveJson(prep, "interview-prep/" + prep.getCandidateId() + "_" + prep.getClientId() + ".json");
     }
     
     public InterviewPrep getInterviewPrep(String candidateId, String clientId) throws IOException {
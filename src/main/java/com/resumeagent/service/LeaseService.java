@@ -0,0 +1,308 @@
+package com.resumeagent.service;
+
+import com.resumeagent.model.LeaseInfo;
+import com.resumeagent.util.JsonUtil;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases on the shared data directory, so several instances can split work
+ * without a coordinator. A lease is a file leases/{key}.{generation}.lease, with the
+ * key in URL-safe Base64, created with CREATE_NEW, which only one node can win. The holder refreshes the file's
+ * modification time as a heartbeat; once that is older than the TTL the lease has
+ * expired and any node may claim the next generation, which takes over the work of
+ * a dead node. A holder that finds a newer generation or another token on disk has
+ * lost the lease. Node clocks are assumed to be roughly in sync.
+ */
+@Service
+public class LeaseService {
+    
+    private static final String LEASE_DIR = "leases";
+    private static final String SUFFIX = ".lease";
+    
+    private final FileStorageService fileStorage;
+    private final JsonUtil jsonUtil;
+    private final String nodeId;
+    private final long ttlMillis;
+    private final Set<Lease> held = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService heartbeat;
+    
+    public LeaseService(FileStorageService fileStorage,
+                        JsonUtil jsonUtil,
+                        @Value("${app.cluster.node-id:}") String nodeId,
+                        @Value("${app.cluster.lease-ttl:30s}") Duration ttl,
+                        @Value("${app.cluster.heartbeat-interval:10s}") Duration heartbeatInterval) {
+        this.fileStorage = fileStorage;
+        this.jsonUtil = jsonUtil;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.ttlMillis = ttl.toMillis();
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = heartbeatInterval.toMillis();
+        this.heartbeat.scheduleWithFixedDelay(this::renewAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Release everything held so other nodes can take over without waiting for expiry
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (Lease lease : new ArrayList<>(held)) {
+            lease.close();
+        }
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Claim the lease for key, or return null if another claim is live. The work it
+     * guards may have been finished by the previous holder, so callers should check
+     * whether it is still needed after claiming.
+     */
+    public Lease tryAcquire(String key) throws IOException {
+        String name = fileName(key);
+        Long current = latestGeneration(name);
+        if (current != null && !isExpired(leasePath(name, current))) {
+            return null;
+        }
+        
+        long generation = current != null ? current + 1 : 1;
+        Path path = leasePath(name, generation);
+        LeaseInfo record = LeaseInfo.builder()
+                .key(key)
+                .owner(nodeId)
+                .token(UUID.randomUUID().toString())
+                .generation(generation)
+                .acquiredAt(LocalDateTime.now())
+                .build();
+        try {
+            Files.write(path, jsonUtil.toJsonString(record).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (FileAlreadyExistsException e) {
+            return null;
+        }
+        
+        // The expired generation is superseded; its holder notices on its next heartbeat
+        if (current != null) {
+            Files.deleteIfExists(leasePath(name, current));
+        }
+        
+        Lease lease = new Lease(key, name, generation, record.getToken());
+        held.add(lease);
+        return lease;
+    }
+    
+    /**
+     * All lease files on the shared directory, live and expired
+     */
+    public List<LeaseInfo> getLeases() throws IOException {
+        List<LeaseInfo> leases = new ArrayList<>();
+        for (String file : fileStorage.listFiles(LEASE_DIR)) {
+            if (!file.endsWith(SUFFIX)) {
+                continue;
+            }
+            Path path = Paths.get(fileStorage.getFullPath(LEASE_DIR + "/" + file));
+            try {
+                LeaseInfo info = readRecord(path);
+                long age = System.currentTimeMillis() - Files.getLastModifiedTime(path).toMillis();
+                info.setHeartbeatAgeMillis(age);
+                info.setExpired(age > ttlMillis);
+                info.setToken(null);
+                leases.add(info);
+            } catch (IOException e) {
+                // Released or being written while listing
+            }
+        }
+        return leases;
+    }
+    
+    private void renewAll() {
+        Map<String, Long> latest;
+        try {
+            latest = latestGenerations();
+        } catch (IOException e) {
+            return;
+        }
+        for (Lease lease : held) {
+            Long current = latest.get(lease.name);
+            Path path = leasePath(lease.name, lease.generation);
+            try {
+                if (current == null || current != lease.generation || !lease.token.equals(readRecord(path).getToken())) {
+                    lease.lost();
+                    continue;
+                }
+                Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (NoSuchFileException e) {
+                lease.lost();
+            } catch (IOException e) {
+                // Storage hiccup; retry on the next heartbeat, expiry covers longer outages
+            }
+        }
+    }
+    
+    private void release(Lease lease) {
+        held.remove(lease);
+        Path path = leasePath(lease.name, lease.generation);
+        try {
+            if (lease.token.equals(readRecord(path).getToken())) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            // Already taken over or removed
+        }
+    }
+    
+    private boolean isExpired(Path path) throws IOException {
+        try {
+            return System.currentTimeMillis() - Files.getLastModifiedTime(path).toMillis() > ttlMillis;
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+    }
+    
+    /**
+     * The newest generation on disk for one lease, found by its name prefix
+     */
+    private Long latestGeneration(String name) throws IOException {
+        Long latest = null;
+        Path directory = Paths.get(fileStorage.getFullPath(LEASE_DIR));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, name + ".*" + SUFFIX)) {
+            for (Path path : files) {
+                Long generation = generationOf(name, path.getFileName().toString());
+                if (generation != null && (latest == null || generation > latest)) {
+                    latest = generation;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        return latest;
+    }
+    
+    private Long generationOf(String name, String file) {
+        String generation = file.substring(name.length() + 1, file.length() - SUFFIX.length());
+        try {
+            return Long.parseLong(generation);
+        } catch (NumberFormatException e) {
+            // Not a lease file
+            return null;
+        }
+    }
+    
+    private Map<String, Long> latestGenerations() throws IOException {
+        Map<String, Long> latest = new HashMap<>();
+        for (String file : fileStorage.listFiles(LEASE_DIR)) {
+            if (!file.endsWith(SUFFIX)) {
+                continue;
+            }
+            String base = file.substring(0, file.length() - SUFFIX.length());
+            int dot = base.lastIndexOf('.');
+            if (dot <= 0) {
+                continue;
+            }
+            try {
+                latest.merge(base.substring(0, dot), Long.parseLong(base.substring(dot + 1)), Math::max);
+            } catch (NumberFormatException e) {
+                // Not a lease file
+            }
+        }
+        return latest;
+    }
+    
+    private LeaseInfo readRecord(Path path) throws IOException {
+        return jsonUtil.fromJsonString(Files.readString(path, StandardCharsets.UTF_8), LeaseInfo.class);
+    }
+    
+    private Path leasePath(String name, long generation) {
+        return Paths.get(fileStorage.getFullPath(LEASE_DIR + "/" + name + "." + generation + SUFFIX));
+    }
+    
+    /**
+     * Reversible, so distinct keys never share a lease file
+     */
+    private String fileName(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+    
+    /**
+     * A claimed lease; closing it releases the lease. It stays valid until closed
+     * or until the heartbeat finds it was taken over.
+     */
+    public class Lease implements AutoCloseable {
+        private final String key;
+        private final String name;
+        private final long generation;
+        private final String token;
+        private volatile boolean valid = true;
+        
+        private Lease(String key, String name, long generation, String token) {
+            this.key = key;
+            this.name = name;
+            this.generation = generation;
+            this.token = token;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        public boolean isValid() {
+            return valid;
+        }
+        
+        private void lost() {
+            valid = false;
+            held.remove(this);
+        }
+        
+        @Override
+        public void close() {
+            if (valid) {
+                valid = false;
+                release(this);
+            }
+        }
+    }
+}
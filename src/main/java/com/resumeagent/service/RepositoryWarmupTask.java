@@ -0,0 +1,41 @@
+package com.resumeagent.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads every stored record once so the JSON mappers are initialized and the
+ * files are in the page cache before the first listing request.
+ */
+@Component
+@Order(1)
+public class RepositoryWarmupTask implements WarmupTask {
+    
+    private final ClientService clientService;
+    private final CandidateService candidateService;
+    private final AnalysisService analysisService;
+    private final InterviewPrepService interviewPrepService;
+    
+    public RepositoryWarmupTask(ClientService clientService,
+                                CandidateService candidateService,
+                                AnalysisService analysisService,
+                                InterviewPrepService interviewPrepService) {
+        this.clientService = clientService;
+        this.candidateService = candidateService;
+        this.analysisService = analysisService;
+        this.interviewPrepService = interviewPrepService;
+    }
+    
+    @Override
+    public String getName() {
+        return "repositories";
+    }
+    
+    @Override
+    public void warmUp() {
+        clientService.getAllClients();
+        candidateService.getAllCandidates();
+        analysisService.getAllAnalyses();
+        interviewPrepService.getAllInterviewPreps();
+    }
+}
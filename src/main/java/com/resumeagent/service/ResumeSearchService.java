@@ -0,0 +1,629 @@
+package com.resumeagent.service;
+
+import com.resumeagent.event.ResumeTextUpdatedEvent;
+import com.resumeagent.model.Candidate;
+import com.resumeagent.model.SearchHit;
+import com.resumeagent.model.SearchResult;
+import com.resumeagent.search.DiskSegment;
+import com.resumeagent.search.IndexPaths;
+import com.resumeagent.search.MemorySegment;
+import com.resumeagent.search.PostingsCursor;
+import com.resumeagent.search.SearchQuery;
+import com.resumeagent.search.Segment;
+import com.resumeagent.search.Tokenizer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over extracted resume text, ranked with BM25. Uploads are
+ * indexed into an in-memory segment that is flushed to an immutable on-disk
+ * segment after flush-docs documents or when indexing goes quiet; small segments
+ * are merged in the background. Segments are kept per instance under
+ * index/search/{node-id} (see {@link IndexPaths}), and their postings are
+ * memory-mapped, so searching never reads a PDF. A replaced resume is indexed
+ * again and its older document is masked out until a merge drops it.
+ */
+@Service
+public class ResumeSearchService {
+    
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int SNIPPET_TOKENS = 30;
+    
+    private final CandidateService candidateService;
+    private final FileStorageService fileStorage;
+    private final IndexPaths.NodeDirectory nodeDirectory;
+    private final Path indexDir;
+    private final int flushDocs;
+    private final int maxSegments;
+    private final ScheduledExecutorService executor;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<SegmentState> segments = new ArrayList<>();
+    private final Map<String, DocRef> live = new HashMap<>();
+    private long liveLength;
+    private SegmentState buffer;
+    private long nextGeneration;
+    private volatile boolean loaded;
+    private long lastIndexedAt;
+    private long reconciledVersion = -1;
+    
+    public ResumeSearchService(CandidateService candidateService,
+                               FileStorageService fileStorage,
+                               LeaseService leaseService,
+                               @Value("${app.storage.base-path}") String basePath,
+                               @Value("${app.cluster.node-id:}") String nodeId,
+                               @Value("${app.search.flush-docs:200}") int flushDocs,
+                               @Value("${app.search.flush-interval:30s}") Duration flushInterval,
+                               @Value("${app.search.max-segments:8}") int maxSegments,
+                               @Value("${app.search.reconcile-interval:5m}") Duration reconcileInterval) throws IOException {
+        this.candidateService = candidateService;
+        this.fileStorage = fileStorage;
+        this.nodeDirectory = IndexPaths.lockNodeDirectory(basePath, "search", nodeId, leaseService.getNodeId());
+        this.indexDir = nodeDirectory.getPath();
+        this.flushDocs = Math.max(1, flushDocs);
+        this.maxSegments = Math.max(2, maxSegments);
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushMillis = flushInterval.toMillis();
+        executor.scheduleWithFixedDelay(() -> flushIfIdle(flushMillis), flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        long reconcileMillis = reconcileInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::reconcileIfChanged, reconcileMillis, reconcileMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        if (loaded) {
+            flush();
+        }
+        nodeDirectory.close();
+    }
+    
+    @EventListener
+    public void onResumeTextUpdated(ResumeTextUpdatedEvent event) throws IOException {
+        ensureLoaded();
+        index(event.getCandidateId(), event.getText(), candidateService.getResumeTextModified(event.getCandidateId()));
+    }
+    
+    /**
+     * Rank resumes against the query. Free words are scored independently and
+     * "quoted phrases" must match exactly; a resume matching any clause is a hit.
+     */
+    public SearchResult search(String query, int limit) throws IOException {
+        ensureLoaded();
+        long started = System.currentTimeMillis();
+        SearchQuery parsed = SearchQuery.parse(query);
+        List<ScoredDoc> top = new ArrayList<>();
+        int total = 0;
+        int indexed;
+        
+        lock.readLock().lock();
+        try {
+            indexed = live.size();
+            if (!parsed.isEmpty() && indexed > 0) {
+                float averageLength = (float) liveLength / indexed;
+                List<Float> idfs = new ArrayList<>();
+                for (List<String> clause : parsed.getClauses()) {
+                    float idf = 0;
+                    for (String term : clause) {
+                        idf += idf(term, indexed);
+                    }
+                    idfs.add(idf);
+                }
+                
+                PriorityQueue<ScoredDoc> heap = new PriorityQueue<>(Comparator.comparingDouble(ScoredDoc::score));
+                for (SegmentState state : segments) {
+                    float[] scores = new float[state.segment.getDocCount()];
+                    for (int i = 0; i < parsed.getClauses().size(); i++) {
+                        scoreClause(state, parsed.getClauses().get(i), idfs.get(i), averageLength, scores);
+                    }
+                    for (int doc = 0; doc < scores.length; doc++) {
+                        if (scores[doc] > 0) {
+                            total++;
+                            if (heap.size() < limit) {
+                                heap.add(new ScoredDoc(state.segment.getCandidateId(doc), scores[doc]));
+                            } else if (scores[doc] > heap.peek().score) {
+                                heap.poll();
+                                heap.add(new ScoredDoc(state.segment.getCandidateId(doc), scores[doc]));
+                            }
+                        }
+                    }
+                }
+                top.addAll(heap);
+                top.sort(Comparator.comparingDouble(ScoredDoc::score).reversed());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        List<SearchHit> hits = new ArrayList<>();
+        for (ScoredDoc doc : top) {
+            hits.add(toHit(doc, parsed.getTerms()));
+        }
+        return SearchResult.builder()
+                .query(query)
+                .total(total)
+                .indexed(indexed)
+                .tookMillis(System.currentTimeMillis() - started)
+                .hits(hits)
+                .build();
+    }
+    
+    /**
+     * Index resumes whose stored text is missing from the index or newer than the
+     * indexed copy (uploads handled by other instances, or lost in a crash before
+     * a flush), and drop candidates that no longer exist
+     */
+    public void reconcile() throws IOException {
+        ensureLoaded();
+        long version = fileStorage.getVersion();
+        Set<String> ids = new HashSet<>(candidateService.getCandidateIds());
+        for (String candidateId : ids) {
+            long stamp = candidateService.getResumeTextModified(candidateId);
+            if (stamp == 0 || stamp != indexedStamp(candidateId)) {
+                try {
+                    String text = candidateService.getResumeText(candidateId);
+                    index(candidateId, text, candidateService.getResumeTextModified(candidateId));
+                } catch (IOException e) {
+                    // Resume file missing or unreadable; the candidate stays unsearchable
+                }
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            for (String candidateId : new ArrayList<>(live.keySet())) {
+                if (!ids.contains(candidateId)) {
+                    unlink(candidateId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reconciledVersion = version;
+        executor.execute(this::flush);
+    }
+    
+    private void index(String candidateId, String text, long stamp) {
+        boolean full;
+        lock.writeLock().lock();
+        try {
+            unlink(candidateId);
+            MemorySegment memory = (MemorySegment) buffer.segment;
+            int doc = memory.add(candidateId, text, stamp);
+            buffer.live.set(doc);
+            live.put(candidateId, new DocRef(buffer, doc));
+            liveLength += memory.getDocLength(doc);
+            lastIndexedAt = System.currentTimeMillis();
+            full = memory.getDocCount() >= flushDocs;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (full) {
+            executor.execute(this::flush);
+        }
+    }
+    
+    // Caller holds the write lock
+    private void unlink(String candidateId) {
+        DocRef previous = live.remove(candidateId);
+        if (previous != null) {
+            previous.state.live.clear(previous.doc);
+            liveLength -= previous.state.segment.getDocLength(previous.doc);
+        }
+    }
+    
+    private long indexedStamp(String candidateId) {
+        lock.readLock().lock();
+        try {
+            DocRef ref = live.get(candidateId);
+            return ref != null ? ref.state.segment.getStamp(ref.doc) : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private float idf(String term, int docCount) {
+        int docFreq = 0;
+        for (SegmentState state : segments) {
+            docFreq += state.segment.getDocFreq(term);
+        }
+        // Masked copies of replaced resumes are still counted until merged away
+        docFreq = Math.min(docFreq, docCount);
+        return (float) Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+    }
+    
+    private void scoreClause(SegmentState state, List<String> terms, float idf, float averageLength, float[] scores) {
+        PostingsCursor[] cursors = new PostingsCursor[terms.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = state.segment.postings(terms.get(i));
+            if (cursors[i] == null) {
+                return;
+            }
+        }
+        int[] current = new int[cursors.length];
+        PostingsCursor lead = cursors[0];
+        while (lead.next()) {
+            int doc = lead.doc();
+            if (!state.live.get(doc)) {
+                continue;
+            }
+            int freq = cursors.length == 1 ? lead.freq() : phraseFreq(cursors, current, doc);
+            if (freq < 0) {
+                return;
+            }
+            if (freq > 0) {
+                float norm = K1 * (1 - B + B * state.segment.getDocLength(doc) / averageLength);
+                scores[doc] += idf * freq * (K1 + 1) / (freq + norm);
+            }
+        }
+    }
+    
+    /**
+     * Occurrences of the phrase in the lead cursor's document; -1 once a later term
+     * has no further documents, so no more matches are possible
+     */
+    private int phraseFreq(PostingsCursor[] cursors, int[] current, int doc) {
+        int[][] positions = new int[cursors.length][];
+        positions[0] = cursors[0].positions();
+        for (int i = 1; i < cursors.length; i++) {
+            // current[i] is one past the cursor's document, 0 before it has moved
+            if (current[i] <= doc) {
+                if (!cursors[i].advance(doc)) {
+                    return -1;
+                }
+                current[i] = cursors[i].doc() + 1;
+            }
+            if (current[i] != doc + 1) {
+                return 0;
+            }
+            positions[i] = cursors[i].positions();
+        }
+        int freq = 0;
+        for (int start : positions[0]) {
+            boolean match = true;
+            for (int i = 1; i < positions.length && match; i++) {
+                match = Arrays.binarySearch(positions[i], start + i) >= 0;
+            }
+            if (match) {
+                freq++;
+            }
+        }
+        return freq;
+    }
+    
+    private SearchHit toHit(ScoredDoc doc, Set<String> terms) throws IOException {
+        String name = null;
+        try {
+            Candidate candidate = candidateService.getCandidate(doc.candidateId);
+            name = candidate.getName();
+        } catch (IOException e) {
+            // Candidate removed since indexing; the hit is still reported
+        }
+        return SearchHit.builder()
+                .candidateId(doc.candidateId)
+                .name(name)
+                .score(Math.round(doc.score * 1000) / 1000.0)
+                .snippet(snippet(candidateService.getResumeText(doc.candidateId), terms))
+                .build();
+    }
+    
+    /**
+     * The window of the resume with the most query terms, escaped, with matches marked
+     */
+    private String snippet(String text, Set<String> terms) {
+        List<Tokenizer.Token> tokens = Tokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return "";
+        }
+        int bestStart = 0;
+        int bestCount = -1;
+        int count = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (terms.contains(tokens.get(i).getTerm())) {
+                count++;
+            }
+            if (i >= SNIPPET_TOKENS && terms.contains(tokens.get(i - SNIPPET_TOKENS).getTerm())) {
+                count--;
+            }
+            if (count > bestCount) {
+                bestCount = count;
+                bestStart = Math.max(0, i - SNIPPET_TOKENS + 1);
+            }
+        }
+        int end = Math.min(tokens.size(), bestStart + SNIPPET_TOKENS);
+        
+        StringBuilder snippet = new StringBuilder(bestStart > 0 ? "… " : "");
+        int cursor = tokens.get(bestStart).getStart();
+        for (int i = bestStart; i < end; i++) {
+            Tokenizer.Token token = tokens.get(i);
+            snippet.append(HtmlUtils.htmlEscape(text.substring(cursor, token.getStart()).replaceAll("\\s+", " ")));
+            String word = HtmlUtils.htmlEscape(text.substring(token.getStart(), token.getEnd()));
+            snippet.append(terms.contains(token.getTerm()) ? "<mark>" + word + "</mark>" : word);
+            cursor = token.getEnd();
+        }
+        if (end < tokens.size()) {
+            snippet.append(" …");
+        }
+        return snippet.toString();
+    }
+    
+    private void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            Files.createDirectories(indexDir);
+            List<Path> dirs = new ArrayList<>();
+            try (Stream<Path> files = Files.list(indexDir)) {
+                files.forEach(dirs::add);
+            }
+            List<SegmentState> loadedSegments = new ArrayList<>();
+            for (Path dir : dirs) {
+                String name = dir.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // Left by a crash while writing a segment
+                    FileSystemUtils.deleteRecursively(dir);
+                } else if (name.startsWith("seg-")) {
+                    loadedSegments.add(new SegmentState(DiskSegment.open(dir), generation(name)));
+                }
+            }
+            loadedSegments.sort(Comparator.comparingLong(s -> s.generation));
+            
+            // The newest copy of each candidate wins; older copies stay masked until merged
+            for (SegmentState state : loadedSegments) {
+                for (int doc = 0; doc < state.segment.getDocCount(); doc++) {
+                    String candidateId = state.segment.getCandidateId(doc);
+                    DocRef previous = live.get(candidateId);
+                    if (previous == null || previous.state.segment.getStamp(previous.doc) <= state.segment.getStamp(doc)) {
+                        unlink(candidateId);
+                        state.live.set(doc);
+                        live.put(candidateId, new DocRef(state, doc));
+                        liveLength += state.segment.getDocLength(doc);
+                    }
+                }
+                segments.add(state);
+                nextGeneration = Math.max(nextGeneration, state.generation + 1);
+            }
+            buffer = newBuffer();
+            segments.add(buffer);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Caller holds the write lock
+    private SegmentState newBuffer() {
+        long generation = nextGeneration++;
+        return new SegmentState(new MemorySegment(segmentName(generation)), generation);
+    }
+    
+    private void flushIfIdle(long idleMillis) {
+        boolean idle;
+        lock.readLock().lock();
+        try {
+            idle = buffer != null && buffer.segment.getDocCount() > 0
+                    && System.currentTimeMillis() - lastIndexedAt >= idleMillis;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (idle) {
+            flush();
+        }
+    }
+    
+    /**
+     * Write the in-memory segment to disk. The sealed segment stays searchable while
+     * it is written and is then swapped for the disk copy; runs on the index thread
+     * (or at shutdown), so flushes and merges never overlap.
+     */
+    private synchronized void flush() {
+        SegmentState sealed;
+        lock.writeLock().lock();
+        try {
+            if (buffer == null || buffer.segment.getDocCount() == 0) {
+                return;
+            }
+            sealed = buffer;
+            buffer = newBuffer();
+            segments.add(buffer);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            DiskSegment disk = DiskSegment.write((MemorySegment) sealed.segment, indexDir.resolve(sealed.segment.getName()));
+            lock.writeLock().lock();
+            try {
+                sealed.segment = disk;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            // The sealed segment stays in memory and searchable; reconcile re-indexes it after a restart
+            return;
+        }
+        mergeIfNeeded();
+    }
+    
+    /**
+     * Merge the smallest disk segments into one, keeping only their live documents
+     */
+    private void mergeIfNeeded() {
+        List<SegmentState> sources = new ArrayList<>();
+        List<BitSet> snapshots = new ArrayList<>();
+        long generation;
+        lock.readLock().lock();
+        try {
+            List<SegmentState> onDisk = new ArrayList<>();
+            for (SegmentState state : segments) {
+                if (state.segment instanceof DiskSegment) {
+                    onDisk.add(state);
+                }
+            }
+            if (onDisk.size() <= maxSegments) {
+                return;
+            }
+            onDisk.sort(Comparator.comparingInt(s -> s.live.cardinality()));
+            sources.addAll(onDisk.subList(0, onDisk.size() - maxSegments / 2));
+            sources.sort(Comparator.comparingLong(s -> s.generation));
+            for (SegmentState source : sources) {
+                snapshots.add((BitSet) source.live.clone());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            generation = nextGeneration++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        MemorySegment merged = new MemorySegment(segmentName(generation));
+        List<int[]> docMaps = new ArrayList<>();
+        for (int s = 0; s < sources.size(); s++) {
+            Segment segment = sources.get(s).segment;
+            BitSet snapshot = snapshots.get(s);
+            int[] docMap = new int[segment.getDocCount()];
+            for (int doc = 0; doc < docMap.length; doc++) {
+                docMap[doc] = snapshot.get(doc)
+                        ? merged.addDocument(segment.getCandidateId(doc), segment.getDocLength(doc), segment.getStamp(doc))
+                        : -1;
+            }
+            docMaps.add(docMap);
+        }
+        // Sources are copied in order, so each term's merged postings stay in document order
+        for (int s = 0; s < sources.size(); s++) {
+            Segment segment = sources.get(s).segment;
+            int[] docMap = docMaps.get(s);
+            for (String term : segment.terms()) {
+                PostingsCursor cursor = segment.postings(term);
+                while (cursor.next()) {
+                    if (docMap[cursor.doc()] >= 0) {
+                        merged.addPosting(term, docMap[cursor.doc()], cursor.positions());
+                    }
+                }
+            }
+        }
+        
+        DiskSegment disk;
+        try {
+            disk = DiskSegment.write(merged, indexDir.resolve(merged.getName()));
+        } catch (IOException e) {
+            return;
+        }
+        SegmentState mergedState = new SegmentState(disk, generation);
+        lock.writeLock().lock();
+        try {
+            for (int s = 0; s < sources.size(); s++) {
+                SegmentState source = sources.get(s);
+                int[] docMap = docMaps.get(s);
+                for (int doc = 0; doc < docMap.length; doc++) {
+                    // Documents replaced while merging stay dead in the merged segment
+                    if (docMap[doc] >= 0 && source.live.get(doc)) {
+                        mergedState.live.set(docMap[doc]);
+                        live.put(source.segment.getCandidateId(doc), new DocRef(mergedState, docMap[doc]));
+                    }
+                }
+            }
+            segments.removeAll(sources);
+            segments.add(0, mergedState);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (SegmentState source : sources) {
+            try {
+                FileSystemUtils.deleteRecursively(indexDir.resolve(source.segment.getName()));
+            } catch (IOException e) {
+                // Masked by the merged segment's newer generation on the next load
+            }
+        }
+    }
+    
+    private void reconcileIfChanged() {
+        try {
+            if (loaded && fileStorage.getVersion() != reconciledVersion) {
+                reconcile();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Retried on the next interval
+        }
+    }
+    
+    private static String segmentName(long generation) {
+        return String.format("seg-%012d", generation);
+    }
+    
+    private static long generation(String name) {
+        return Long.parseLong(name.substring(4));
+    }
+    
+    private static class SegmentState {
+        private volatile Segment segment;
+        private final long generation;
+        private final BitSet live = new BitSet();
+        
+        SegmentState(Segment segment, long generation) {
+            this.segment = segment;
+            this.generation = generation;
+        }
+    }
+    
+    private static class DocRef {
+        private final SegmentState state;
+        private final int doc;
+        
+        DocRef(SegmentState state, int doc) {
+            this.state = state;
+            this.doc = doc;
+        }
+    }
+    
+    private static class ScoredDoc {
+        private final String candidateId;
+        private final float score;
+        
+        ScoredDoc(String candidateId, float score) {
+            this.candidateId = candidateId;
+            this.score = score;
+        }
+        
+        float score() {
+            return score;
+        }
+    }
+}
@@ -2,11 +2,25 @@ package com.resumeagent.service;
 
 import com.resumeagent.agent.ResumeModifierAgent;
 import com.resumeagent.model.ClientRequirement;
+import com.resumeagent.model.OptimizedResume;
+import com.resumeagent.util.BlockingUtil;
+import com.resumeagent.util.HashUtil;
 import com.resumeagent.util.PDFUtil;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 @Service
 public class ResumeService {
@@ -14,31 +28,85 @@ public class ResumeService {
     private final FileStorageService fileStorage;
     private final ResumeModifierAgent modifierAgent;
     private final PDFUtil pdfUtil;
+    private final HashUtil hashUtil;
     
     public ResumeService(FileStorageService fileStorage, 
                         ResumeModifierAgent modifierAgent,
-                        PDFUtil pdfUtil) {
+                        PDFUtil pdfUtil,
+                        HashUtil hashUtil) {
         this.fileStorage = fileStorage;
         this.modifierAgent = modifierAgent;
         this.pdfUtil = pdfUtil;
+        this.hashUtil = hashUtil;
     }
     
+    /**
+     * Generate the optimized resume text. The text is the stored artifact;
+     * its PDF is only rendered when someone downloads it.
+     */
     public String optimizeResume(String candidateId, String clientId) throws IOException {
-        // Load client requirement
-        ClientRequirement requirement = fileStorage.loadJson("clients/" + clientId + ".json", ClientRequirement.class);
-        
-        // Load original resume
+        return BlockingUtil.await(optimizeResumeAsync(candidateId, clientId));
+    }
+    
+    public Mono<String> optimizeResumeAsync(String candidateId, String clientId) {
         String originalPath = fileStorage.getFullPath("candidates/resumes/original/" + candidateId + ".pdf");
-        String originalText = pdfUtil.extractText(new File(originalPath));
-        
-        // Generate optimized resume text
-        String optimizedText = modifierAgent.optimizeResume(originalText, requirement);
+        return Mono.fromCallable(() -> {
+                    // Load client requirement
+                    ClientRequirement requirement = fileStorage.loadJson("clients/" + clientId + ".json", ClientRequirement.class);
+                    // Load original resume
+                    String originalText = pdfUtil.extractText(new File(originalPath));
+                    return new OptimizationInputs(requirement, originalText, hashUtil.sha256(new File(originalPath)));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                // Generate optimized resume text
+                .flatMap(inputs -> modifierAgent.optimizeResumeAsync(inputs.originalText, inputs.requirement)
+                        .publishOn(Schedulers.boundedElastic())
+                        .flatMap(optimizedText -> Mono.fromCallable(() -> saveOptimizedResume(
+                                candidateId, clientId, optimizedText, inputs.requirement, inputs.resumeHash))));
+    }
+    
+    private String saveOptimizedResume(String candidateId, String clientId, String optimizedText,
+                                       ClientRequirement requirement, String resumeHash) throws IOException {
+        // Save the text and drop any PDF rendered from a previous version
+        String textPath = modifiedTextPath(candidateId, clientId);
+        fileStorage.saveText(optimizedText, textPath);
+        fileStorage.deleteFile(modifiedPdfPath(candidateId, clientId));
         
-        // Save as new PDF
-        String modifiedPath = fileStorage.getFullPath("candidates/resumes/modified/" + candidateId + "_" + clientId + ".pdf");
-        pdfUtil.generatePDF(optimizedText, new File(modifiedPath));
+        // Record which inputs produced it
+        OptimizedResume metadata = OptimizedResume.builder()
+                .candidateId(candidateId)
+                .clientId(clientId)
+                .requirementHash(hashUtil.requirementHash(requirement))
+                .resumeHash(resumeHash)
+                .generatedAt(LocalDateTime.now())
+                .build();
+        fileStorage.saveJson(metadata, modifiedMetadataPath(candidateId, clientId));
         
-        return modifiedPath;
+        return fileStorage.getFullPath(textPath);
+    }
+    
+    /**
+     * Metadata of the optimized resume; absent for resumes optimized before inputs were recorded
+     */
+    public OptimizedResume getOptimizedResume(String candidateId, String clientId) throws IOException {
+        if (!fileStorage.fileExists(modifiedMetadataPath(candidateId, clientId))) {
+            return OptimizedResume.builder().candidateId(candidateId).clientId(clientId).build();
+        }
+        return fileStorage.loadJson(modifiedMetadataPath(candidateId, clientId), OptimizedResume.class);
+    }
+    
+    /**
+     * Candidate/client pairs that have an optimized resume, as {candidateId, clientId}
+     */
+    public List<String[]> listOptimizedResumes() throws IOException {
+        List<String[]> pairs = new ArrayList<>();
+        for (String file : fileStorage.listFiles("candidates/resumes/modified")) {
+            int separator = file.indexOf('_');
+            if (file.endsWith(".txt") && separator > 0) {
+                pairs.add(new String[]{file.substring(0, separator), file.substring(separator + 1, file.length() - 4)});
+            }
+        }
+        return pairs;
     }
     
     public File getOriginalResume(String candidateId) {
@@ -46,8 +114,118 @@ public class ResumeService {
         return new File(path);
     }
     
-    public File getModifiedResume(String candidateId, String clientId) {
-        String path = fileStorage.getFullPath("candidates/resumes/modified/" + candidateId + "_" + clientId + ".pdf");
-        return new File(path);
+    /**
+     * Strong ETag of the original resume, derived from the PDF content
+     */
+    public String getOriginalResumeETag(String candidateId) throws IOException {
+        return "\"" + hashUtil.sha256(getOriginalResume(candidateId)) + "\"";
+    }
+    
+    /**
+     * Strong ETag of the modified resume, derived from its text, or null if it was never optimized
+     */
+    public String getModifiedResumeETag(String candidateId, String clientId) throws IOException {
+        if (!fileStorage.fileExists(modifiedTextPath(candidateId, clientId))) {
+            return null;
+        }
+        String text = fileStorage.loadText(modifiedTextPath(candidateId, clientId));
+        return "\"" + hashUtil.sha256(text) + "\"";
+    }
+    
+    /**
+     * The rendered PDF if it is cached and not older than the optimized text, otherwise null
+     */
+    public File getCachedModifiedResume(String candidateId, String clientId) {
+        File pdf = new File(fileStorage.getFullPath(modifiedPdfPath(candidateId, clientId)));
+        File text = new File(fileStorage.getFullPath(modifiedTextPath(candidateId, clientId)));
+        if (pdf.exists() && pdf.lastModified() >= text.lastModified()) {
+            return pdf;
+        }
+        return null;
+    }
+    
+    /**
+     * Render the modified resume into the given stream while caching the PDF on disk
+     */
+    public void renderModifiedResume(String candidateId, String clientId, OutputStream out) throws IOException {
+        String text = fileStorage.loadText(modifiedTextPath(candidateId, clientId));
+        Path target = new File(fileStorage.getFullPath(modifiedPdfPath(candidateId, clientId))).toPath();
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        
+        try (OutputStream cacheOut = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            pdfUtil.generatePDF(text, new TeeOutputStream(out, cacheOut));
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * The cached PDF of the modified resume, rendering it first if necessary
+     */
+    public File renderModifiedResumeToCache(String candidateId, String clientId) throws IOException {
+        File cached = getCachedModifiedResume(candidateId, clientId);
+        if (cached != null) {
+            return cached;
+        }
+        renderModifiedResume(candidateId, clientId, OutputStream.nullOutputStream());
+        return new File(fileStorage.getFullPath(modifiedPdfPath(candidateId, clientId)));
+    }
+    
+    public String getModifiedResumeFilename(String candidateId, String clientId) {
+        return candidateId + "_" + clientId + ".pdf";
+    }
+    
+    private String modifiedTextPath(String candidateId, String clientId) {
+        return "candidates/resumes/modified/" + candidateId + "_" + clientId + ".txt";
+    }
+    
+    private String modifiedMetadataPath(String candidateId, String clientId) {
+        return "candidates/resumes/modified/" + candidateId + "_" + clientId + ".json";
+    }
+    
+    private String modifiedPdfPath(String candidateId, String clientId) {
+        return "candidates/resumes/modified/" + getModifiedResumeFilename(candidateId, clientId);
+    }
+    
+    private static class OptimizationInputs {
+        private final ClientRequirement requirement;
+        private final String originalText;
+        private final String resumeHash;
+        
+        OptimizationInputs(ClientRequirement requirement, String originalText, String resumeHash) {
+            this.requirement = requirement;
+            this.originalText = originalText;
+            this.resumeHash = resumeHash;
+        }
+    }
+    
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+        
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
     }
 }
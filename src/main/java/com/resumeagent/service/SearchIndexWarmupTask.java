@@ -0,0 +1,32 @@
+package com.resumeagent.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Opens the search index and indexes any resumes it is missing, so the first
+ * search neither waits for loading nor misses uploads made while this instance
+ * was down.
+ */
+@Component
+@Order(3)
+public class SearchIndexWarmupTask implements WarmupTask {
+    
+    private final ResumeSearchService searchService;
+    
+    public SearchIndexWarmupTask(ResumeSearchService searchService) {
+        this.searchService = searchService;
+    }
+    
+    @Override
+    public String getName() {
+        return "search-index";
+    }
+    
+    @Override
+    public void warmUp() throws IOException {
+        searchService.reconcile();
+    }
+}
@@ -0,0 +1,246 @@
+package com.resumeagent.service;
+
+import com.resumeagent.model.WorkItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Work queues on the shared data directory. Items are files under work/{queue}/,
+ * and any node may claim one by taking its lease. An item is deleted once it is
+ * completed, so the work of a node that dies mid-item is picked up by another node
+ * as soon as its lease expires.
+ *
+ * Each node keeps the queue's ids sorted in memory. The directory is listed again at
+ * most once a second and only when its modification time changed, and only items not
+ * seen before are read, so draining a queue does not re-read every item per claim.
+ */
+@Service
+public class SharedWorkQueue {
+    
+    private static final String WORK_DIR = "work";
+    private static final long REFRESH_MILLIS = 1000;
+    private static final Comparator<Entry> CLAIM_ORDER = Comparator
+            .comparingDouble((Entry entry) -> entry.priority).reversed()
+            .thenComparing((Entry entry) -> entry.submittedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(entry -> entry.id);
+    
+    private final FileStorageService fileStorage;
+    private final LeaseService leaseService;
+    private final int maxQueueSize;
+    private final Map<String, QueueView> views = new ConcurrentHashMap<>();
+    
+    public SharedWorkQueue(FileStorageService fileStorage,
+                           LeaseService leaseService,
+                           @Value("${app.cluster.max-queue-size:10000}") int maxQueueSize) {
+        this.fileStorage = fileStorage;
+        this.leaseService = leaseService;
+        this.maxQueueSize = maxQueueSize;
+    }
+    
+    /**
+     * Add an item unless one with the same id is already queued or the queue is full
+     *
+     * @return false if the item was already queued or the queue is full
+     */
+    public boolean submit(String queue, String id, double priority, Map<String, String> payload) throws IOException {
+        QueueView view = refresh(queue);
+        synchronized (view) {
+            String path = itemPath(queue, id);
+            if (view.entries.containsKey(id) || view.entries.size() >= maxQueueSize || fileStorage.fileExists(path)) {
+                return false;
+            }
+            new File(fileStorage.getFullPath(WORK_DIR + "/" + queue)).mkdirs();
+            WorkItem item = WorkItem.builder()
+                    .id(id)
+                    .queue(queue)
+                    .priority(priority)
+                    .payload(payload)
+                    .submittedBy(leaseService.getNodeId())
+                    .submittedAt(LocalDateTime.now())
+                    .build();
+            fileStorage.saveJson(item, path);
+            view.add(new Entry(item));
+            return true;
+        }
+    }
+    
+    /**
+     * Claim the highest-priority item no other node is working on, or null if there is none
+     */
+    public Claim claimNext(String queue) throws IOException {
+        QueueView view = refresh(queue);
+        synchronized (view) {
+            Iterator<Entry> iterator = view.ordered.iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                LeaseService.Lease lease = leaseService.tryAcquire(leaseKey(queue, entry.id));
+                if (lease == null) {
+                    continue;
+                }
+                WorkItem item = load(queue, entry.id);
+                if (item == null) {
+                    // Completed by another node since the last listing
+                    lease.close();
+                    iterator.remove();
+                    view.entries.remove(entry.id);
+                    continue;
+                }
+                return new Claim(item, lease);
+            }
+            return null;
+        }
+    }
+    
+    public boolean contains(String queue, String id) throws IOException {
+        QueueView view = refresh(queue);
+        synchronized (view) {
+            return view.entries.containsKey(id);
+        }
+    }
+    
+    public int size(String queue) {
+        try {
+            QueueView view = refresh(queue);
+            synchronized (view) {
+                return view.entries.size();
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Bring the in-memory view in line with the directory, reading only new items
+     */
+    private QueueView refresh(String queue) throws IOException {
+        QueueView view = views.computeIfAbsent(queue, name -> new QueueView());
+        synchronized (view) {
+            long now = System.currentTimeMillis();
+            if (now - view.refreshedAt < REFRESH_MILLIS) {
+                return view;
+            }
+            view.refreshedAt = now;
+            long modified = new File(fileStorage.getFullPath(WORK_DIR + "/" + queue)).lastModified();
+            if (modified == view.directoryModified) {
+                return view;
+            }
+            view.directoryModified = modified;
+            
+            Set<String> ids = new HashSet<>();
+            for (String file : fileStorage.listFiles(WORK_DIR + "/" + queue)) {
+                if (file.endsWith(".json")) {
+                    ids.add(file.substring(0, file.length() - ".json".length()));
+                }
+            }
+            view.entries.keySet().removeIf(id -> !ids.contains(id));
+            view.ordered.removeIf(entry -> !ids.contains(entry.id));
+            for (String id : ids) {
+                if (!view.entries.containsKey(id)) {
+                    WorkItem item = load(queue, id);
+                    if (item != null) {
+                        view.add(new Entry(item));
+                    }
+                }
+            }
+            return view;
+        }
+    }
+    
+    private WorkItem load(String queue, String id) {
+        try {
+            return fileStorage.loadJson(itemPath(queue, id), WorkItem.class);
+        } catch (IOException e) {
+            // Completed while listing
+            return null;
+        }
+    }
+    
+    private void removed(String queue, String id) {
+        QueueView view = views.get(queue);
+        if (view != null) {
+            synchronized (view) {
+                Entry entry = view.entries.remove(id);
+                if (entry != null) {
+                    view.ordered.remove(entry);
+                }
+            }
+        }
+    }
+    
+    private String itemPath(String queue, String id) {
+        return WORK_DIR + "/" + queue + "/" + id + ".json";
+    }
+    
+    private String leaseKey(String queue, String id) {
+        return "work-" + queue + "-" + id;
+    }
+    
+    /**
+     * A claimed item. Completing it removes the item from the queue; releasing it
+     * leaves the item for any node to claim again.
+     */
+    public class Claim {
+        private final WorkItem item;
+        private final LeaseService.Lease lease;
+        
+        private Claim(WorkItem item, LeaseService.Lease lease) {
+            this.item = item;
+            this.lease = lease;
+        }
+        
+        public WorkItem getItem() {
+            return item;
+        }
+        
+        public void complete() throws IOException {
+            try {
+                if (lease.isValid()) {
+                    fileStorage.deleteFile(itemPath(item.getQueue(), item.getId()));
+                    removed(item.getQueue(), item.getId());
+                }
+            } finally {
+                lease.close();
+            }
+        }
+        
+        public void release() {
+            lease.close();
+        }
+    }
+    
+    private static class Entry {
+        private final String id;
+        private final double priority;
+        private final LocalDateTime submittedAt;
+        
+        private Entry(WorkItem item) {
+            this.id = item.getId();
+            this.priority = item.getPriority() != null ? item.getPriority() : 0;
+            this.submittedAt = item.getSubmittedAt();
+        }
+    }
+    
+    private static class QueueView {
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final TreeSet<Entry> ordered = new TreeSet<>(CLAIM_ORDER);
+        private long refreshedAt;
+        private long directoryModified = -1;
+        
+        private void add(Entry entry) {
+            entries.put(entry.id, entry);
+            ordered.add(entry);
+        }
+    }
+}
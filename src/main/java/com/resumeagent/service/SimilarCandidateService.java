@@ -0,0 +1,381 @@
+package com.resumeagent.service;
+
+import com.resumeagent.event.ResumeTextUpdatedEvent;
+import com.resumeagent.model.Candidate;
+import com.resumeagent.model.SimilarCandidate;
+import com.resumeagent.search.HnswIndex;
+import com.resumeagent.search.IndexPaths;
+import com.resumeagent.search.SparseVector;
+import com.resumeagent.search.Tokenizer;
+import com.resumeagent.util.SkillRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "More like this" for candidates, answered locally without a model call. Each
+ * resume becomes a sparse vector of hashed features (log term frequency of its
+ * words, plus its extracted skills at a higher weight), kept to the features
+ * with the highest tf-idf. Vectors live in an HNSW graph compared by idf-weighted
+ * cosine, with idf taken from the current document frequencies, so the weights
+ * follow the corpus as it grows. The graph is updated on upload and saved to
+ * index/similar/{node-id} in the background.
+ */
+@Service
+public class SimilarCandidateService {
+    
+    private static final int FORMAT = 3;
+    private static final int DIMENSIONS = 1 << 18;
+    private static final int MAX_FEATURES = 96;
+    private static final float SKILL_WEIGHT = 3f;
+    private static final int MAX_LINKS = 16;
+    private static final int EF_CONSTRUCTION = 100;
+    private static final int EF_SEARCH = 64;
+    private static final double MAX_DELETED_SHARE = 0.25;
+    
+    private final CandidateService candidateService;
+    private final FileStorageService fileStorage;
+    private final SkillRegistry skillRegistry;
+    private final IndexPaths.NodeDirectory nodeDirectory;
+    private final Path indexFile;
+    private final ScheduledExecutorService executor;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int[] docFreq = new int[DIMENSIONS];
+    private final float[] idf = new float[DIMENSIONS];
+    private final HnswIndex index = new HnswIndex(MAX_LINKS, EF_CONSTRUCTION, (a, b) -> 1 - a.cosine(b, idf));
+    private volatile boolean loaded;
+    private volatile boolean dirty;
+    private long reconciledVersion = -1;
+    
+    public SimilarCandidateService(CandidateService candidateService,
+                                   FileStorageService fileStorage,
+                                   LeaseService leaseService,
+                                   SkillRegistry skillRegistry,
+                                   @Value("${app.storage.base-path}") String basePath,
+                                   @Value("${app.cluster.node-id:}") String nodeId,
+                                   @Value("${app.similar.save-interval:30s}") Duration saveInterval,
+                                   @Value("${app.similar.reconcile-interval:5m}") Duration reconcileInterval) throws IOException {
+        this.candidateService = candidateService;
+        this.fileStorage = fileStorage;
+        this.skillRegistry = skillRegistry;
+        this.nodeDirectory = IndexPaths.lockNodeDirectory(basePath, "similar", nodeId, leaseService.getNodeId());
+        this.indexFile = nodeDirectory.getPath().resolve("hnsw.bin");
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "similar-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long saveMillis = saveInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::saveQuietly, saveMillis, saveMillis, TimeUnit.MILLISECONDS);
+        long reconcileMillis = reconcileInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::reconcileIfChanged, reconcileMillis, reconcileMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        saveQuietly();
+        nodeDirectory.close();
+    }
+    
+    @EventListener
+    public void onResumeTextUpdated(ResumeTextUpdatedEvent event) throws IOException {
+        ensureLoaded();
+        Candidate candidate = candidateService.getCandidate(event.getCandidateId());
+        add(candidate, event.getText(), candidateService.getResumeTextModified(event.getCandidateId()));
+    }
+    
+    /**
+     * The candidates whose resumes are closest to this candidate's, most similar first
+     */
+    public List<SimilarCandidate> findSimilar(String candidateId, int limit) throws IOException {
+        return findSimilar(candidateId, limit, true);
+    }
+    
+    /**
+     * Like {@link #findSimilar(String, int)}, but a candidate that is not indexed yet
+     * has no neighbours instead of having its resume extracted, for page renders
+     */
+    public List<SimilarCandidate> findSimilarIndexed(String candidateId, int limit) throws IOException {
+        return findSimilar(candidateId, limit, false);
+    }
+    
+    private List<SimilarCandidate> findSimilar(String candidateId, int limit, boolean indexMissing) throws IOException {
+        ensureLoaded();
+        boolean indexed;
+        lock.readLock().lock();
+        try {
+            indexed = index.contains(candidateId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!indexed) {
+            if (!indexMissing) {
+                return List.of();
+            }
+            Candidate candidate = candidateService.getCandidate(candidateId);
+            add(candidate, candidateService.getResumeText(candidateId), candidateService.getResumeTextModified(candidateId));
+        }
+        
+        List<String> ids = new ArrayList<>();
+        List<Double> similarities = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            SparseVector query = index.getVector(candidateId);
+            for (HnswIndex.Scored scored : index.search(query, limit, Math.max(EF_SEARCH, limit * 2), candidateId)) {
+                ids.add(index.getId(scored.node()));
+                similarities.add(Math.round((1 - scored.distance()) * 1000) / 1000.0);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        List<SimilarCandidate> similar = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            SimilarCandidate.SimilarCandidateBuilder builder = SimilarCandidate.builder()
+                    .candidateId(ids.get(i))
+                    .similarity(similarities.get(i));
+            try {
+                Candidate candidate = candidateService.getCandidate(ids.get(i));
+                builder.name(candidate.getName()).skills(candidate.getSkills());
+            } catch (IOException e) {
+                // Removed since it was indexed; still reported by id
+            }
+            similar.add(builder.build());
+        }
+        return similar;
+    }
+    
+    /**
+     * Add resumes missing from the index or changed since they were indexed, such
+     * as uploads through another instance, and drop candidates that no longer exist
+     */
+    public void reconcile() throws IOException {
+        ensureLoaded();
+        long version = fileStorage.getVersion();
+        Set<String> ids = new HashSet<>(candidateService.getCandidateIds());
+        for (String candidateId : ids) {
+            long stamp = candidateService.getResumeTextModified(candidateId);
+            long indexedStamp;
+            lock.readLock().lock();
+            try {
+                indexedStamp = index.getStamp(candidateId);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (stamp == 0 || stamp != indexedStamp) {
+                try {
+                    Candidate candidate = candidateService.getCandidate(candidateId);
+                    String text = candidateService.getResumeText(candidateId);
+                    add(candidate, text, candidateService.getResumeTextModified(candidateId));
+                } catch (IOException e) {
+                    // Resume missing or unreadable; retried on the next reconcile
+                }
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            List<String> removed = new ArrayList<>();
+            for (String candidateId : index.ids()) {
+                if (!ids.contains(candidateId)) {
+                    removed.add(candidateId);
+                }
+            }
+            for (String candidateId : removed) {
+                forget(index.getVector(candidateId));
+                index.remove(candidateId);
+                dirty = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reconciledVersion = version;
+        saveQuietly();
+    }
+    
+    private void add(Candidate candidate, String text, long stamp) {
+        lock.writeLock().lock();
+        try {
+            SparseVector previous = index.getVector(candidate.getId());
+            if (previous != null) {
+                forget(previous);
+            }
+            SparseVector vector = vectorize(text, candidate.getSkills());
+            for (int feature : vector.getIndices()) {
+                docFreq[feature]++;
+            }
+            updateIdf(vector);
+            index.add(candidate.getId(), vector, stamp);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Caller holds the write lock
+    private void forget(SparseVector vector) {
+        for (int feature : vector.getIndices()) {
+            docFreq[feature]--;
+        }
+        updateIdf(vector);
+    }
+    
+    // Caller holds the write lock. Only the vector's own features change frequency;
+    // the others drift slowly with the document count and are refreshed on load
+    private void updateIdf(SparseVector vector) {
+        int documents = index.size() + 1;
+        for (int feature : vector.getIndices()) {
+            idf[feature] = idfOf(docFreq[feature], documents);
+        }
+    }
+    
+    private static float idfOf(int docFreq, int documents) {
+        return (float) Math.log(1 + (double) documents / (1 + docFreq));
+    }
+    
+    /**
+     * Hashed log term frequencies plus skills, keeping the MAX_FEATURES features
+     * with the highest tf-idf
+     */
+    private SparseVector vectorize(String text, List<String> skills) {
+        Map<Integer, Float> weights = new HashMap<>();
+        for (String term : Tokenizer.terms(text)) {
+            weights.merge(feature(term), 1f, Float::sum);
+        }
+        weights.replaceAll((feature, count) -> 1 + (float) Math.log(count));
+        if (skills != null) {
+            for (String skill : skills) {
+                weights.merge(feature("skill:" + skillRegistry.keyOf(skill)), SKILL_WEIGHT, Math::max);
+            }
+        }
+        int documents = index.size() + 1;
+        List<Map.Entry<Integer, Float>> ranked = new ArrayList<>(weights.entrySet());
+        ranked.sort((a, b) -> Float.compare(b.getValue() * idfOf(docFreq[b.getKey()], documents),
+                a.getValue() * idfOf(docFreq[a.getKey()], documents)));
+        List<Map.Entry<Integer, Float>> kept = ranked.subList(0, Math.min(MAX_FEATURES, ranked.size()));
+        kept.sort(Map.Entry.comparingByKey());
+        int[] indices = new int[kept.size()];
+        float[] values = new float[kept.size()];
+        for (int i = 0; i < kept.size(); i++) {
+            indices[i] = kept.get(i).getKey();
+            values[i] = kept.get(i).getValue();
+        }
+        return new SparseVector(indices, values);
+    }
+    
+    private static int feature(String term) {
+        return (term.hashCode() * 0x9E3779B9 >>> 14) & (DIMENSIONS - 1);
+    }
+    
+    private void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            Files.createDirectories(indexFile.getParent());
+            if (Files.exists(indexFile)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+                    if (in.readInt() == FORMAT) {
+                        index.read(in);
+                        for (String candidateId : index.ids()) {
+                            for (int feature : index.getVector(candidateId).getIndices()) {
+                                docFreq[feature]++;
+                            }
+                        }
+                        for (int feature = 0; feature < DIMENSIONS; feature++) {
+                            idf[feature] = idfOf(docFreq[feature], index.size());
+                        }
+                    }
+                } catch (IOException e) {
+                    // Unreadable index; rebuilt by reconcile
+                    index.clear();
+                    Arrays.fill(docFreq, 0);
+                }
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Write the graph to a temporary file and move it into place, under the read
+     * lock so uploads wait only for the write. Once re-uploads and removals have
+     * left more than a quarter of the nodes deleted, the graph is rebuilt from the
+     * live ones first so it and hnsw.bin stay proportional to the candidates.
+     */
+    private synchronized void saveQuietly() {
+        if (!loaded) {
+            return;
+        }
+        compactIfNeeded();
+        lock.readLock().lock();
+        try {
+            if (!dirty) {
+                return;
+            }
+            Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FORMAT);
+                index.write(out);
+            }
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            // Kept dirty and retried on the next interval
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void compactIfNeeded() {
+        lock.writeLock().lock();
+        try {
+            if (index.getDeletedShare() > MAX_DELETED_SHARE) {
+                index.compact();
+                dirty = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void reconcileIfChanged() {
+        try {
+            if (loaded && fileStorage.getVersion() != reconciledVersion) {
+                reconcile();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Retried on the next interval
+        }
+    }
+}
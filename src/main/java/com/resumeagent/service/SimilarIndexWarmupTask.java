@@ -0,0 +1,30 @@
+package com.resumeagent.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Loads the similar-candidates graph and adds resumes it is missing
+ */
+@Component
+@Order(5)
+public class SimilarIndexWarmupTask implements WarmupTask {
+    
+    private final SimilarCandidateService similarCandidates;
+    
+    public SimilarIndexWarmupTask(SimilarCandidateService similarCandidates) {
+        this.similarCandidates = similarCandidates;
+    }
+    
+    @Override
+    public String getName() {
+        return "similar-index";
+    }
+    
+    @Override
+    public void warmUp() throws IOException {
+        similarCandidates.reconcile();
+    }
+}
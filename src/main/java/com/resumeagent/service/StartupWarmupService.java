@@ -0,0 +1,79 @@
+package com.resumeagent.service;
+
+import com.resumeagent.model.WarmupStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the registered warm-up tasks on a background thread after the port has
+ * opened, so startup only pays for what serving a request needs. The tasks are
+ * resolved lazily; with lazy initialization this is also where the beans they
+ * touch get created. A failing task is recorded and the rest still run.
+ */
+@Service
+public class StartupWarmupService {
+    
+    private final ObjectProvider<WarmupTask> tasks;
+    private final boolean enabled;
+    
+    private final Map<String, Long> taskMillis = new LinkedHashMap<>();
+    private final Map<String, String> failures = new LinkedHashMap<>();
+    private volatile String state = "PENDING";
+    private volatile long durationMillis;
+    
+    public StartupWarmupService(ObjectProvider<WarmupTask> tasks,
+                                @Value("${app.startup.warmup.enabled:true}") boolean enabled) {
+        this.tasks = tasks;
+        this.enabled = enabled;
+        if (!enabled) {
+            state = "DISABLED";
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(this::runTasks, "startup-warmup");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    public synchronized WarmupStatus getStatus() {
+        return WarmupStatus.builder()
+                .state(state)
+                .durationMillis(durationMillis)
+                .taskMillis(new LinkedHashMap<>(taskMillis))
+                .failures(new LinkedHashMap<>(failures))
+                .build();
+    }
+    
+    private void runTasks() {
+        state = "RUNNING";
+        long started = System.currentTimeMillis();
+        tasks.orderedStream().forEach(task -> {
+            long taskStarted = System.currentTimeMillis();
+            String failure = null;
+            try {
+                task.warmUp();
+            } catch (Exception e) {
+                failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+            synchronized (this) {
+                taskMillis.put(task.getName(), System.currentTimeMillis() - taskStarted);
+                if (failure != null) {
+                    failures.put(task.getName(), failure);
+                }
+            }
+        });
+        durationMillis = System.currentTimeMillis() - started;
+        state = "DONE";
+    }
+}
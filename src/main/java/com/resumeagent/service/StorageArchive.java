@@ -0,0 +1,429 @@
+package com.resumeagent.service;
+
+import com.resumeagent.config.FileStorageConfig;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Cold tier of the file store. Files that have not changed for a while are packed
+ * into compressed zip segments under archive/{directory}/ and read back from there
+ * when their hot copy is gone. A hot copy always wins over an archived one, and
+ * later segments supersede earlier ones. Deleting an archived file leaves a marker
+ * under archive/{directory}/deleted/ until a newer copy is packed. Compaction
+ * rewrites segments that hold mostly superseded or deleted files and drops the
+ * markers nothing refers to anymore.
+ *
+ * The segment index is kept in memory and reloaded when the archive directory
+ * changes, so instances sharing the data directory see each other's segments.
+ */
+@Component
+public class StorageArchive {
+    
+    static final String ARCHIVE_DIR = "archive";
+    private static final String DELETED_DIR = "deleted";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".zip";
+    
+    private final Path root;
+    private final Set<String> directories;
+    private final Map<String, DirectoryIndex> indexes = new ConcurrentHashMap<>();
+    
+    public StorageArchive(FileStorageConfig config,
+                          @Value("${app.storage.lifecycle.directories:analyses,interview-prep,candidates/resumes/modified}") List<String> directories) {
+        this.root = Paths.get(config.getBasePath(), ARCHIVE_DIR);
+        this.directories = new HashSet<>(directories);
+        for (String directory : directories) {
+            indexes.put(directory, new DirectoryIndex(root.resolve(directory)));
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        indexes.values().forEach(DirectoryIndex::close);
+    }
+    
+    /**
+     * Directories whose cold files are archived
+     */
+    public Set<String> getDirectories() {
+        return Collections.unmodifiableSet(directories);
+    }
+    
+    public boolean contains(String relativePath) {
+        DirectoryIndex index = index(relativePath);
+        return index != null && index.find(name(relativePath)) != null;
+    }
+    
+    /**
+     * Contents of the archived copy, or null if the file is not archived
+     */
+    public byte[] read(String relativePath) throws IOException {
+        DirectoryIndex index = index(relativePath);
+        if (index == null) {
+            return null;
+        }
+        String name = name(relativePath);
+        for (int attempt = 0; ; attempt++) {
+            Segment segment = index.find(name);
+            if (segment == null) {
+                return null;
+            }
+            try {
+                ZipEntry entry = segment.zip.getEntry(name);
+                try (InputStream in = segment.zip.getInputStream(entry)) {
+                    return in.readAllBytes();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Compacted while reading; the entry has moved to a newer segment
+                if (!segment.closed || attempt > 0) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Names of the archived files in the directory that have not been deleted. The
+     * stream walks the in-memory index lazily; segments loaded while it runs may or
+     * may not be included.
+     */
+    public Stream<String> names(String directory) {
+        DirectoryIndex index = indexes.get(directory);
+        return index != null ? index.names() : Stream.empty();
+    }
+    
+    /**
+     * Mark an archived file deleted; does nothing if it is not archived
+     */
+    public void delete(String relativePath) throws IOException {
+        DirectoryIndex index = index(relativePath);
+        if (index != null && index.find(name(relativePath)) != null) {
+            index.markDeleted(name(relativePath));
+        }
+    }
+    
+    /**
+     * Pack the files into a new segment of the directory's archive and clear deletion
+     * markers of the packed names. The files themselves are left in place.
+     *
+     * @return bytes written
+     */
+    public long pack(String directory, List<Path> files) throws IOException {
+        DirectoryIndex index = indexes.get(directory);
+        if (index == null) {
+            throw new IllegalArgumentException("Not an archived directory: " + directory);
+        }
+        return index.pack(files);
+    }
+    
+    /**
+     * Rewrite the segments of the directory whose share of live files fell below
+     * minLiveRatio. Their live files move to new segments of at most segmentFiles
+     * files; the old segments and the deletion markers they made necessary are removed.
+     *
+     * @return segments removed
+     */
+    public int compact(String directory, double minLiveRatio, int segmentFiles) throws IOException {
+        DirectoryIndex index = indexes.get(directory);
+        if (index == null) {
+            throw new IllegalArgumentException("Not an archived directory: " + directory);
+        }
+        return index.compact(minLiveRatio, segmentFiles);
+    }
+    
+    /**
+     * Number of archived files in the directory that have not been deleted
+     */
+    public int getArchivedFiles(String directory) {
+        DirectoryIndex index = indexes.get(directory);
+        return index != null ? (int) index.names().count() : 0;
+    }
+    
+    public int getSegments(String directory) {
+        DirectoryIndex index = indexes.get(directory);
+        return index != null ? index.segmentCount() : 0;
+    }
+    
+    private DirectoryIndex index(String relativePath) {
+        int slash = relativePath.lastIndexOf('/');
+        return slash > 0 ? indexes.get(relativePath.substring(0, slash)) : null;
+    }
+    
+    private static String name(String relativePath) {
+        return relativePath.substring(relativePath.lastIndexOf('/') + 1);
+    }
+    
+    /**
+     * Later segments supersede earlier ones, whatever order they were loaded in
+     */
+    private static Segment newer(Segment current, Segment added) {
+        return current.name.compareTo(added.name) > 0 ? current : added;
+    }
+    
+    private static class Segment {
+        private final String name;
+        private final ZipFile zip;
+        private volatile boolean closed;
+        
+        Segment(String name, ZipFile zip) {
+            this.name = name;
+            this.zip = zip;
+        }
+        
+        void close() {
+            closed = true;
+            try {
+                zip.close();
+            } catch (IOException e) {
+                // Nothing left to read from it
+            }
+        }
+    }
+    
+    /**
+     * Writes the entries of a new segment
+     */
+    private interface SegmentWriter {
+        void write(ZipOutputStream zip) throws IOException;
+    }
+    
+    /**
+     * Which segment holds each archived file of one directory
+     */
+    private static class DirectoryIndex {
+        private final Path directory;
+        private final Path deletedDirectory;
+        private final Map<String, Segment> segments = new LinkedHashMap<>();
+        private final Map<String, Segment> entries = new ConcurrentHashMap<>();
+        private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+        private FileTime directoryModified;
+        private FileTime deletedModified;
+        
+        DirectoryIndex(Path directory) {
+            this.directory = directory;
+            this.deletedDirectory = directory.resolve(DELETED_DIR);
+        }
+        
+        Segment find(String name) {
+            refresh();
+            return deleted.contains(name) ? null : entries.get(name);
+        }
+        
+        Stream<String> names() {
+            refresh();
+            return entries.keySet().stream().filter(name -> !deleted.contains(name));
+        }
+        
+        synchronized int segmentCount() {
+            refresh();
+            return segments.size();
+        }
+        
+        synchronized void markDeleted(String name) throws IOException {
+            Files.createDirectories(deletedDirectory);
+            Path marker = deletedDirectory.resolve(name);
+            if (!Files.exists(marker)) {
+                Files.createFile(marker);
+            }
+            deleted.add(name);
+        }
+        
+        synchronized long pack(List<Path> files) throws IOException {
+            String name = writeSegment(zip -> {
+                for (Path file : files) {
+                    ZipEntry entry = new ZipEntry(file.getFileName().toString());
+                    entry.setLastModifiedTime(Files.getLastModifiedTime(file));
+                    zip.putNextEntry(entry);
+                    Files.copy(file, zip);
+                    zip.closeEntry();
+                }
+            });
+            
+            load(name);
+            for (Path file : files) {
+                String packed = file.getFileName().toString();
+                Files.deleteIfExists(deletedDirectory.resolve(packed));
+                deleted.remove(packed);
+            }
+            return Files.size(directory.resolve(name));
+        }
+        
+        synchronized int compact(double minLiveRatio, int segmentFiles) throws IOException {
+            refresh();
+            List<Segment> sparse = new ArrayList<>();
+            List<String> live = new ArrayList<>();
+            for (Segment segment : segments.values()) {
+                List<String> segmentLive = segment.zip.stream()
+                        .map(ZipEntry::getName)
+                        .filter(name -> entries.get(name) == segment && !deleted.contains(name))
+                        .toList();
+                if (segmentLive.size() < minLiveRatio * segment.zip.size()) {
+                    sparse.add(segment);
+                    live.addAll(segmentLive);
+                }
+            }
+            if (sparse.isEmpty()) {
+                return 0;
+            }
+            
+            // Live files are the newest copies, so the newer segment names cannot shadow anything
+            for (int start = 0; start < live.size(); start += segmentFiles) {
+                List<String> batch = live.subList(start, Math.min(live.size(), start + segmentFiles));
+                String name = writeSegment(zip -> {
+                    for (String file : batch) {
+                        ZipFile source = entries.get(file).zip;
+                        ZipEntry sourceEntry = source.getEntry(file);
+                        ZipEntry entry = new ZipEntry(file);
+                        entry.setLastModifiedTime(sourceEntry.getLastModifiedTime());
+                        zip.putNextEntry(entry);
+                        try (InputStream in = source.getInputStream(sourceEntry)) {
+                            in.transferTo(zip);
+                        }
+                        zip.closeEntry();
+                    }
+                });
+                load(name);
+            }
+            
+            sparse.forEach(segment -> segments.remove(segment.name));
+            rebuildEntries();
+            for (Segment segment : sparse) {
+                segment.close();
+                Files.deleteIfExists(directory.resolve(segment.name));
+            }
+            // A marker only hides archived copies; with none left it is obsolete
+            for (String name : new ArrayList<>(deleted)) {
+                if (!entries.containsKey(name)) {
+                    Files.deleteIfExists(deletedDirectory.resolve(name));
+                    deleted.remove(name);
+                }
+            }
+            return sparse.size();
+        }
+        
+        /**
+         * Write a new segment atomically and return its name
+         */
+        private String writeSegment(SegmentWriter writer) throws IOException {
+            Files.createDirectories(directory);
+            // Names sort in creation order, which is the order segments supersede each other
+            String name = SEGMENT_PREFIX + String.format("%013d", System.currentTimeMillis())
+                    + "-" + UUID.randomUUID().toString().substring(0, 8) + SEGMENT_SUFFIX;
+            Path temp = directory.resolve("." + name + ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp);
+                     ZipOutputStream zip = new ZipOutputStream(out)) {
+                    writer.write(zip);
+                }
+                Files.move(temp, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return name;
+        }
+        
+        /**
+         * Load segments and deletion markers written since the last look, by this or another instance
+         */
+        private synchronized void refresh() {
+            try {
+                FileTime modified = Files.exists(directory) ? Files.getLastModifiedTime(directory) : null;
+                if (modified != null && !modified.equals(directoryModified)) {
+                    directoryModified = modified;
+                    List<String> names = new ArrayList<>();
+                    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                        stream.forEach(path -> names.add(path.getFileName().toString()));
+                    }
+                    Collections.sort(names);
+                    for (String name : names) {
+                        if (!segments.containsKey(name)) {
+                            load(name);
+                        }
+                    }
+                    // Compacted away by another instance
+                    Set<String> listed = new HashSet<>(names);
+                    List<Segment> removed = segments.values().stream()
+                            .filter(segment -> !listed.contains(segment.name))
+                            .toList();
+                    if (!removed.isEmpty()) {
+                        removed.forEach(segment -> segments.remove(segment.name));
+                        rebuildEntries();
+                        removed.forEach(Segment::close);
+                    }
+                }
+                
+                FileTime markersModified = Files.exists(deletedDirectory) ? Files.getLastModifiedTime(deletedDirectory) : null;
+                if (markersModified != null && !markersModified.equals(deletedModified)) {
+                    deletedModified = markersModified;
+                    Set<String> markers = new HashSet<>();
+                    try (DirectoryStream<Path> stream = Files.newDirectoryStream(deletedDirectory)) {
+                        stream.forEach(path -> markers.add(path.getFileName().toString()));
+                    }
+                    deleted.retainAll(markers);
+                    deleted.addAll(markers);
+                }
+            } catch (IOException e) {
+                // Keep serving from what is already loaded; the next lookup tries again
+            }
+        }
+        
+        private void load(String name) throws IOException {
+            if (segments.containsKey(name)) {
+                return;
+            }
+            Segment segment;
+            try {
+                segment = new Segment(name, new ZipFile(directory.resolve(name).toFile()));
+            } catch (NoSuchFileException | FileNotFoundException e) {
+                // Removed since it was listed
+                return;
+            }
+            segments.put(name, segment);
+            segment.zip.stream().forEach(entry -> entries.merge(entry.getName(), segment, StorageArchive::newer));
+        }
+        
+        /**
+         * Point every name at its newest remaining segment. Names that stay archived are
+         * never missing from the map, so lazy name streams keep seeing them.
+         */
+        private void rebuildEntries() {
+            Map<String, Segment> rebuilt = new HashMap<>();
+            for (Segment segment : segments.values()) {
+                segment.zip.stream().forEach(entry -> rebuilt.merge(entry.getName(), segment, StorageArchive::newer));
+            }
+            entries.putAll(rebuilt);
+            entries.keySet().retainAll(rebuilt.keySet());
+        }
+        
+        synchronized void close() {
+            segments.values().forEach(Segment::close);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.resumeagent.service;
+
+import com.resumeagent.model.StorageStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the hot directories small. Files in the lifecycle directories that have
+ * not been written for archive-after are packed into archive segments and removed
+ * from the hot directory; reads fall through to the archive transparently. Cached
+ * PDFs of modified resumes older than the PDF TTL are deleted, since they are
+ * re-rendered from the optimized text on the next download. Segments whose share
+ * of live files fell below compact-below are rewritten. One instance at a time
+ * runs the policy, guarded by a lease.
+ */
+@Service
+public class StorageLifecycleService {
+    
+    private static final String LEASE_KEY = "storage-lifecycle";
+    private static final String MODIFIED_DIR = "candidates/resumes/modified";
+    
+    private final FileStorageService fileStorage;
+    private final StorageArchive archive;
+    private final LeaseService leaseService;
+    private final boolean enabled;
+    private final Duration archiveAfter;
+    private final Duration modifiedPdfTtl;
+    private final int segmentFiles;
+    private final double compactBelow;
+    private final ScheduledExecutorService executor;
+    
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunArchived;
+    private volatile long lastRunArchivedBytes;
+    private volatile long lastRunPdfsDeleted;
+    private volatile long lastRunSegmentsCompacted;
+    private volatile long lastRunMillis;
+    
+    public StorageLifecycleService(FileStorageService fileStorage,
+                                   StorageArchive archive,
+                                   LeaseService leaseService,
+                                   @Value("${app.storage.lifecycle.enabled:false}") boolean enabled,
+                                   @Value("${app.storage.lifecycle.archive-after:30d}") Duration archiveAfter,
+                                   @Value("${app.storage.lifecycle.modified-pdf-ttl:7d}") Duration modifiedPdfTtl,
+                                   @Value("${app.storage.lifecycle.segment-files:5000}") int segmentFiles,
+                                   @Value("${app.storage.lifecycle.compact-below:0.5}") double compactBelow,
+                                   @Value("${app.storage.lifecycle.interval:6h}") Duration interval) {
+        this.fileStorage = fileStorage;
+        this.archive = archive;
+        this.leaseService = leaseService;
+        this.enabled = enabled;
+        this.archiveAfter = archiveAfter;
+        this.modifiedPdfTtl = modifiedPdfTtl;
+        this.segmentFiles = segmentFiles;
+        this.compactBelow = compactBelow;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "storage-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            long millis = interval.toMillis();
+            executor.scheduleWithFixedDelay(this::runQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Apply the policy now
+     *
+     * @return false if another instance holds the lease
+     */
+    public synchronized boolean run() throws IOException {
+        try (LeaseService.Lease lease = leaseService.tryAcquire(LEASE_KEY)) {
+            if (lease == null) {
+                return false;
+            }
+            long started = System.currentTimeMillis();
+            long pdfsDeleted = deleteExpiredPdfs(started - modifiedPdfTtl.toMillis());
+            long archived = 0;
+            long archivedBytes = 0;
+            long compacted = 0;
+            for (String directory : archive.getDirectories()) {
+                long[] packed = archiveDirectory(directory, started - archiveAfter.toMillis(), lease);
+                archived += packed[0];
+                archivedBytes += packed[1];
+                if (lease.isValid()) {
+                    compacted += archive.compact(directory, compactBelow, segmentFiles);
+                }
+            }
+            lastRunAt = LocalDateTime.now();
+            lastRunArchived = archived;
+            lastRunArchivedBytes = archivedBytes;
+            lastRunPdfsDeleted = pdfsDeleted;
+            lastRunSegmentsCompacted = compacted;
+            lastRunMillis = System.currentTimeMillis() - started;
+            return true;
+        }
+    }
+    
+    public StorageStatus getStatus() throws IOException {
+        Map<String, Integer> hot = new LinkedHashMap<>();
+        Map<String, Integer> archived = new LinkedHashMap<>();
+        Map<String, Integer> segments = new LinkedHashMap<>();
+        for (String directory : archive.getDirectories()) {
+            int count = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(hotDirectory(directory), Files::isRegularFile)) {
+                for (Path ignored : files) {
+                    count++;
+                }
+            }
+            hot.put(directory, count);
+            archived.put(directory, archive.getArchivedFiles(directory));
+            segments.put(directory, archive.getSegments(directory));
+        }
+        return StorageStatus.builder()
+                .lifecycleEnabled(enabled)
+                .hotFiles(hot)
+                .archivedFiles(archived)
+                .segments(segments)
+                .lastRunAt(lastRunAt)
+                .lastRunArchived(lastRunArchived)
+                .lastRunArchivedBytes(lastRunArchivedBytes)
+                .lastRunPdfsDeleted(lastRunPdfsDeleted)
+                .lastRunSegmentsCompacted(lastRunSegmentsCompacted)
+                .lastRunMillis(lastRunMillis)
+                .build();
+    }
+    
+    private void runQuietly() {
+        try {
+            run();
+        } catch (IOException | RuntimeException e) {
+            // Retried on the next run
+        }
+    }
+    
+    private long deleteExpiredPdfs(long cutoff) throws IOException {
+        Path directory = hotDirectory(MODIFIED_DIR);
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.pdf")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+    
+    /**
+     * Pack the directory's cold files, segment by segment, then drop the hot copies
+     * that were not rewritten in the meantime
+     *
+     * @return files archived and bytes written
+     */
+    private long[] archiveDirectory(String directory, long cutoff, LeaseService.Lease lease) throws IOException {
+        Path hotDirectory = hotDirectory(directory);
+        if (!Files.isDirectory(hotDirectory)) {
+            return new long[]{0, 0};
+        }
+        long archived = 0;
+        long bytes = 0;
+        List<Path> batch = new ArrayList<>();
+        Map<Path, FileTime> packedVersions = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(hotDirectory, this::isArchivable)) {
+            for (Path file : files) {
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (modified.toMillis() >= cutoff) {
+                    continue;
+                }
+                batch.add(file);
+                packedVersions.put(file, modified);
+                if (batch.size() >= segmentFiles) {
+                    bytes += archive.pack(directory, batch);
+                    archived += dropHotCopies(batch, packedVersions);
+                    batch.clear();
+                    packedVersions.clear();
+                    if (!lease.isValid()) {
+                        return new long[]{archived, bytes};
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            bytes += archive.pack(directory, batch);
+            archived += dropHotCopies(batch, packedVersions);
+        }
+        return new long[]{archived, bytes};
+    }
+    
+    private long dropHotCopies(List<Path> files, Map<Path, FileTime> packedVersions) throws IOException {
+        long dropped = 0;
+        for (Path file : files) {
+            if (dropIfUnchanged(file, packedVersions.get(file))) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+    
+    /**
+     * Delete the hot copy if it is still the packed version. The file is first moved
+     * to a private name, so a save that lands meanwhile writes a new hot copy instead
+     * of being deleted; reads in between find the packed version in the archive.
+     */
+    private boolean dropIfUnchanged(Path file, FileTime packedVersion) throws IOException {
+        Path detached = file.resolveSibling("." + file.getFileName() + "." + UUID.randomUUID() + ".archiving");
+        try {
+            Files.move(file, detached, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (Files.getLastModifiedTime(detached).equals(packedVersion)) {
+            Files.delete(detached);
+            return true;
+        }
+        // Rewritten since it was packed: put it back unless an even newer save has taken its place
+        try {
+            Files.createLink(file, detached);
+        } catch (FileAlreadyExistsException e) {
+            // The newer save wins
+        } catch (UnsupportedOperationException e) {
+            if (!Files.exists(file)) {
+                Files.move(detached, file, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        Files.deleteIfExists(detached);
+        return false;
+    }
+    
+    /**
+     * Stored JSON and text; rendered PDFs and temporary files are never archived
+     */
+    private boolean isArchivable(Path file) {
+        String name = file.getFileName().toString();
+        return Files.isRegularFile(file) && !name.startsWith(".") && !name.endsWith(".pdf") && !name.endsWith(".tmp");
+    }
+    
+    private Path hotDirectory(String directory) {
+        return Paths.get(fileStorage.getFullPath(directory));
+    }
+}
@@ -0,0 +1,14 @@
+package com.resumeagent.service;
+
+import java.io.IOException;
+
+/**
+ * Work that makes the first requests faster but is not needed to serve them.
+ * Tasks run in order on a background thread once the application is ready.
+ */
+public interface WarmupTask {
+    
+    String getName();
+    
+    void warmUp() throws IOException;
+}
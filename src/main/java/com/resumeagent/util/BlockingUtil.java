@@ -0,0 +1,60 @@
+package com.resumeagent.util;
+
+import com.resumeagent.agent.LlmCallContext;
+import com.resumeagent.agent.LlmPriority;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Bridges reactive service methods to their blocking counterparts
+ */
+public final class BlockingUtil {
+    
+    private BlockingUtil() {
+    }
+    
+    /**
+     * Block for the result, rethrowing an IOException from the pipeline as itself.
+     * Model calls made by the pipeline keep the calling thread's priority and tenant.
+     */
+    public static <T> T await(Mono<T> mono) throws IOException {
+        try {
+            return mono.contextWrite(LlmCallContext.capture()).block();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Run a blocking call on the bounded elastic scheduler. Model calls it makes keep
+     * the priority and tenant from the subscriber context, or else the assembling thread's.
+     */
+    public static <T> Mono<T> offload(Callable<T> task) {
+        LlmPriority assemblyPriority = LlmCallContext.getPriority();
+        String assemblyTenant = LlmCallContext.getTenant();
+        return Mono.deferContextual(context -> {
+            LlmPriority priority = LlmCallContext.getPriority(context, assemblyPriority);
+            String tenant = LlmCallContext.getTenant(context, assemblyTenant);
+            return Mono.fromCallable(() -> {
+                LlmPriority previousPriority = LlmCallContext.getPriority();
+                String previousTenant = LlmCallContext.getTenant();
+                LlmCallContext.setPriority(priority);
+                LlmCallContext.setTenant(tenant);
+                try {
+                    return task.call();
+                } finally {
+                    LlmCallContext.setPriority(previousPriority);
+                    LlmCallContext.setTenant(previousTenant);
+                }
+            }).subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.resumeagent.util;
+
+import com.resumeagent.model.ClientRequirement;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class HashUtil {
+    
+    private static final int MAX_CACHED_FILE_HASHES = 10_000;
+    
+    // Remembers file hashes until the file's size or modification time changes
+    private final Map<String, CachedHash> fileHashes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedHash> eldest) {
+            return size() > MAX_CACHED_FILE_HASHES;
+        }
+    };
+    
+    /**
+     * SHA-256 of a string's UTF-8 bytes as lower-case hex
+     */
+    public String sha256(String text) {
+        return HexFormat.of().formatHex(newDigest().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    /**
+     * SHA-256 of a file's content as lower-case hex
+     */
+    public String sha256(File file) throws IOException {
+        String key = file.getCanonicalPath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+        synchronized (fileHashes) {
+            CachedHash cached = fileHashes.get(key);
+            if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+                return cached.hash;
+            }
+        }
+        
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        
+        synchronized (fileHashes) {
+            fileHashes.put(key, new CachedHash(size, lastModified, hash));
+        }
+        return hash;
+    }
+    
+    /**
+     * Hash of the requirement fields the agents' prompts are built from; ids,
+     * timestamps and the raw text do not affect it
+     */
+    public String requirementHash(ClientRequirement requirement) {
+        return sha256(String.join("\u0000",
+                String.valueOf(requirement.getRole()),
+                String.valueOf(requirement.getLevel()),
+                String.valueOf(requirement.getRequiredSkills()),
+                String.valueOf(requirement.getPreferredSkills()),
+                String.valueOf(requirement.getYearsOfExperience())));
+    }
+    
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static class CachedHash {
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+        
+        CachedHash(long size, long lastModified, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
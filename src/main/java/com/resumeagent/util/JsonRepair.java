@@ -0,0 +1,225 @@
+package com.resumeagent.util;
+
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recovers a JSON object from model output that is not strictly valid: text or
+ * code fences around the object, single quotes, unquoted keys, trailing commas,
+ * and output cut off by the token limit. A truncated object keeps only its
+ * complete members and elements; the one being written when the output stopped
+ * is dropped, so a required field cut off mid-value reads as missing.
+ */
+public final class JsonRepair {
+    
+    public static final String SURROUNDING_TEXT = "surrounding-text";
+    public static final String LENIENT_SYNTAX = "lenient-syntax";
+    public static final String TRUNCATED = "truncated";
+    
+    private static final int MAX_TRUNCATION_ATTEMPTS = 64;
+    
+    private static final ObjectMapper STRICT = new ObjectMapper();
+    private static final ObjectMapper LENIENT = JsonMapper.builder()
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .build();
+    
+    private JsonRepair() {
+    }
+    
+    /**
+     * Parse the first JSON object in the text. The result's node is null when no
+     * object could be recovered; its repairs list what had to be fixed.
+     */
+    public static Result parse(String text) {
+        if (text == null) {
+            return new Result(null, List.of());
+        }
+        String body = stripFences(text.trim());
+        JsonNode strict = readObject(STRICT, body);
+        if (strict != null) {
+            return new Result(strict, List.of());
+        }
+        
+        int start = body.indexOf('{');
+        if (start < 0) {
+            return new Result(null, List.of());
+        }
+        List<String> repairs = new ArrayList<>();
+        if (start > 0) {
+            repairs.add(SURROUNDING_TEXT);
+        }
+        
+        Scan scan = new Scan(body, start);
+        if (scan.end >= 0) {
+            String object = body.substring(start, scan.end + 1);
+            if (!body.substring(scan.end + 1).isBlank() && !repairs.contains(SURROUNDING_TEXT)) {
+                repairs.add(SURROUNDING_TEXT);
+            }
+            JsonNode node = readObject(STRICT, object);
+            if (node == null) {
+                node = readObject(LENIENT, object);
+                repairs.add(LENIENT_SYNTAX);
+            }
+            return new Result(node, node != null ? repairs : List.of());
+        }
+        
+        repairs.add(TRUNCATED);
+        JsonNode node = closeTruncated(body, scan);
+        return new Result(node, node != null ? repairs : List.of());
+    }
+    
+    /**
+     * Close the open strings and brackets of an object that was cut off, backing up
+     * to earlier member boundaries until what is left parses
+     */
+    private static JsonNode closeTruncated(String body, Scan scan) {
+        // Output that stopped right after a complete value can be closed where it is
+        char last = lastNonWhitespace(body);
+        if (!scan.inString && (last == '}' || last == ']' || last == '"' || last == '\'')) {
+            JsonNode node = readObject(LENIENT, body.substring(scan.start) + closers(scan.stack));
+            if (node != null) {
+                return node;
+            }
+        }
+        int attempts = 0;
+        for (int i = scan.cuts.size() - 1; i >= 0 && attempts < MAX_TRUNCATION_ATTEMPTS; i--, attempts++) {
+            Cut cut = scan.cuts.get(i);
+            JsonNode node = readObject(LENIENT, body.substring(scan.start, cut.index) + closers(cut.stack));
+            if (node != null) {
+                return node;
+            }
+        }
+        return null;
+    }
+    
+    private static String stripFences(String text) {
+        String cleaned = text;
+        if (cleaned.startsWith("```json")) {
+            cleaned = cleaned.substring(7);
+        } else if (cleaned.startsWith("```")) {
+            cleaned = cleaned.substring(3);
+        }
+        if (cleaned.endsWith("```")) {
+            cleaned = cleaned.substring(0, cleaned.length() - 3);
+        }
+        return cleaned.trim();
+    }
+    
+    private static JsonNode readObject(ObjectMapper mapper, String text) {
+        try {
+            JsonNode node = mapper.readTree(text);
+            return node != null && node.isObject() ? node : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private static char lastNonWhitespace(String text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return text.charAt(i);
+            }
+        }
+        return 0;
+    }
+    
+    private static String closers(String stack) {
+        StringBuilder closers = new StringBuilder();
+        for (int i = stack.length() - 1; i >= 0; i--) {
+            closers.append(stack.charAt(i) == '{' ? '}' : ']');
+        }
+        return closers.toString();
+    }
+    
+    /**
+     * Walks the object from its opening brace, tracking strings and brackets. Records
+     * where the object ends, or for truncated output the member boundaries it
+     * could be cut back to.
+     */
+    private static class Scan {
+        private final int start;
+        private final List<Cut> cuts = new ArrayList<>();
+        private String stack = "";
+        private boolean inString;
+        private int end = -1;
+        
+        Scan(String text, int start) {
+            this.start = start;
+            char quote = 0;
+            boolean escaped = false;
+            for (int i = start; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == quote) {
+                        inString = false;
+                    }
+                    continue;
+                }
+                switch (c) {
+                    case '"', '\'' -> {
+                        inString = true;
+                        quote = c;
+                    }
+                    case '{', '[' -> {
+                        // A nested container cut off before its first element is dropped, not left empty
+                        if (stack.isEmpty()) {
+                            cuts.add(new Cut(i + 1, stack + c));
+                        }
+                        stack = stack + c;
+                    }
+                    case '}', ']' -> {
+                        stack = stack.substring(0, Math.max(stack.length() - 1, 0));
+                        if (stack.isEmpty()) {
+                            end = i;
+                            return;
+                        }
+                    }
+                    case ',' -> cuts.add(new Cut(i, stack));
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+    
+    private static class Cut {
+        private final int index;
+        private final String stack;
+        
+        Cut(int index, String stack) {
+            this.index = index;
+            this.stack = stack;
+        }
+    }
+    
+    public static class Result {
+        private final JsonNode node;
+        private final List<String> repairs;
+        
+        Result(JsonNode node, List<String> repairs) {
+            this.node = node;
+            this.repairs = repairs;
+        }
+        
+        public JsonNode getNode() {
+            return node;
+        }
+        
+        public List<String> getRepairs() {
+            return repairs;
+        }
+    }
+}
@@ -1,33 +1,71 @@
 package com.resumeagent.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
 
 @Component
 public class JsonUtil {
     
     private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
     
-    public JsonUtil() {
+    public JsonUtil(SkillRegistry skillRegistry) {
         this.objectMapper = new ObjectMapper();
+        this.objectMapper.setInjectableValues(new InjectableValues.Std().addValue(SkillRegistry.class, skillRegistry));
         this.objectMapper.registerModule(new JavaTimeModule());
         this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        this.lineWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
     
+    /**
+     * Writes to a temporary file and renames it into place, so readers (including
+     * other instances sharing the data directory) never see a partial document
+     */
     public <T> void writeToFile(T object, String filePath) throws IOException {
-        objectMapper.writeValue(new File(filePath), object);
+        Path target = Paths.get(filePath);
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), object);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Write the object as one compact line of JSON, leaving the stream open
+     */
+    public void writeLine(Object object, OutputStream out) throws IOException {
+        lineWriter.writeValue(out, object);
+        out.write('\n');
     }
     
     public <T> T readFromFile(String filePath, Class<T> clazz) throws IOException {
         return objectMapper.readValue(new File(filePath), clazz);
     }
     
+    public <T> T fromBytes(byte[] json, Class<T> clazz) throws IOException {
+        return objectMapper.readValue(json, clazz);
+    }
+    
     public String toJsonString(Object object) throws IOException {
         return objectMapper.writeValueAsString(object);
     }
@@ -35,4 +73,12 @@ public class JsonUtil {
     public <T> T fromJsonString(String json, Class<T> clazz) throws IOException {
         return objectMapper.readValue(json, clazz);
     }
+    
+    public JsonNode toTree(Object object) {
+        return objectMapper.valueToTree(object);
+    }
+    
+    public <T> T fromTree(JsonNode node, Class<T> clazz) throws IOException {
+        return objectMapper.treeToValue(node, clazz);
+    }
 }
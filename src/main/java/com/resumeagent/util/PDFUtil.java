@@ -1,6 +1,7 @@
 package com.resumeagent.util;
 
-import org.apache.pdfbox.Loader;
+import com.resumeagent.jfr.PdfExtractEvent;
+import com.resumeagent.jfr.PdfGenerateEvent;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -8,13 +9,29 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class PDFUtil {
@@ -23,13 +40,48 @@ public class PDFUtil {
     private static final float FONT_SIZE = 11;
     private static final float LEADING = 14;
     
+    private final PDType1Font metricsFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    private final Map<Character, Float> charWidths = new ConcurrentHashMap<>();
+    
+    private final PdfLoader pdfLoader;
+    private final int parallelPageThreshold;
+    private final int minPagesPerChunk;
+    private final ExecutorService extractionPool;
+    
+    public PDFUtil(PdfLoader pdfLoader,
+                   @Value("${app.pdf.parallel-page-threshold:12}") int parallelPageThreshold,
+                   @Value("${app.pdf.min-pages-per-chunk:4}") int minPagesPerChunk,
+                   @Value("${app.pdf.extraction-threads:0}") int extractionThreads) {
+        this.pdfLoader = pdfLoader;
+        this.parallelPageThreshold = parallelPageThreshold;
+        this.minPagesPerChunk = Math.max(1, minPagesPerChunk);
+        int threads = extractionThreads > 0 ? extractionThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.extractionPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pdf-extract-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Ranges that never started are cancelled, so callers waiting on them return
+        extractionPool.shutdownNow().forEach(task -> ((Future<?>) task).cancel(false));
+    }
+    
     /**
      * Extract text content from a PDF file
      */
     public String extractText(File pdfFile) throws IOException {
-        try (PDDocument document = Loader.loadPDF(pdfFile)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+        PdfExtractEvent event = new PdfExtractEvent();
+        event.begin();
+        event.setSource(pdfFile.getName());
+        event.setInputBytes(pdfFile.length());
+        try (PdfLoader.LoadedPdf pdf = pdfLoader.load(pdfFile)) {
+            return extractText(pdf, event);
+        } finally {
+            event.commit();
         }
     }
     
@@ -37,67 +89,199 @@ public class PDFUtil {
      * Extract text content from a PDF input stream
      */
     public String extractText(InputStream inputStream) throws IOException {
-        byte[] bytes = inputStream.readAllBytes();
-        try (PDDocument document = Loader.loadPDF(bytes)) {
+        PdfExtractEvent event = new PdfExtractEvent();
+        event.begin();
+        event.setSource("stream");
+        try (PdfLoader.LoadedPdf pdf = pdfLoader.load(inputStream)) {
+            return extractText(pdf, event);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    /**
+     * Documents at or above the page threshold are split into page ranges that are
+     * extracted concurrently. PDDocument is not thread-safe, so every range after the
+     * first works on its own freshly loaded copy.
+     */
+    private String extractText(PdfLoader.LoadedPdf pdf, PdfExtractEvent event) throws IOException {
+        PDDocument document = pdf.getDocument();
+        int pageCount = document.getNumberOfPages();
+        event.setPages(pageCount);
+        event.setRanges(1);
+        if (pageCount < parallelPageThreshold) {
             PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+            String text = stripper.getText(document);
+            event.setCharacters(text.length());
+            return text;
+        }
+        
+        List<int[]> ranges = splitPageRanges(pageCount);
+        event.setRanges(ranges.size());
+        List<Future<String>> futures = new ArrayList<>();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        for (int[] range : ranges.subList(1, ranges.size())) {
+            futures.add(extractionPool.submit(() -> {
+                if (abandoned.get()) {
+                    return "";
+                }
+                try (PdfLoader.LoadedPdf copy = pdf.reopen()) {
+                    return extractRange(copy.getDocument(), range[0], range[1]);
+                }
+            }));
+        }
+        
+        try {
+            StringBuilder text = new StringBuilder(extractRange(document, ranges.get(0)[0], ranges.get(0)[1]));
+            for (Future<String> future : futures) {
+                text.append(future.get());
+            }
+            event.setCharacters(text.length());
+            return text.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting PDF text", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ioException
+                    ? ioException
+                    : new IOException("Failed to extract PDF text", e.getCause());
+        } finally {
+            // Copies must be closed before the caller closes the source document. Cancelling
+            // would not wait for running ranges, so ranges not started yet are skipped instead
+            // and every range is waited for.
+            abandoned.set(true);
+            awaitAll(futures);
         }
     }
     
+    private void awaitAll(List<Future<String>> futures) {
+        boolean interrupted = false;
+        for (Future<String> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    // Already reported above, or cancelled before it started
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private String extractRange(PDDocument document, int startPage, int endPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        return stripper.getText(document);
+    }
+    
+    /**
+     * Split 1-based pages into at most one contiguous range per extraction thread
+     */
+    private List<int[]> splitPageRanges(int pageCount) {
+        int threads = ((ThreadPoolExecutor) extractionPool).getMaximumPoolSize() + 1;
+        int chunks = Math.max(1, Math.min(threads, pageCount / minPagesPerChunk));
+        int pagesPerChunk = (pageCount + chunks - 1) / chunks;
+        
+        List<int[]> ranges = new ArrayList<>();
+        for (int start = 1; start <= pageCount; start += pagesPerChunk) {
+            ranges.add(new int[]{start, Math.min(pageCount, start + pagesPerChunk - 1)});
+        }
+        return ranges;
+    }
+    
     /**
      * Generate a PDF document from text content
      */
     public void generatePDF(String content, File outputFile) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+            generatePDF(content, out, outputFile.getName());
+        }
+    }
+    
+    /**
+     * Generate a PDF document from text content, writing it to the given stream
+     */
+    public void generatePDF(String content, OutputStream out) throws IOException {
+        generatePDF(content, out, "stream");
+    }
+    
+    private void generatePDF(String content, OutputStream out, String destination) throws IOException {
+        PdfGenerateEvent event = new PdfGenerateEvent();
+        event.begin();
+        event.setDestination(destination);
+        event.setCharacters(content.length());
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try {
+            renderPDF(content, counted, event);
+        } finally {
+            event.setOutputBytes(counted.count);
+            event.commit();
+        }
+    }
+    
+    private void renderPDF(String content, OutputStream out, PdfGenerateEvent event) throws IOException {
         try (PDDocument document = new PDDocument()) {
-            // Split content into lines that fit the page
-            List<String> lines = splitTextIntoLines(content);
+            // One font instance per document; PDFont objects are not safe to share across concurrent renders
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            List<String> lines = splitTextIntoLines(content, PDRectangle.A4.getWidth() - 2 * MARGIN);
+            event.setLines(lines.size());
             
-            PDPage page = new PDPage(PDRectangle.A4);
-            document.addPage(page);
-            
-            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-                contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), FONT_SIZE);
-                contentStream.beginText();
-                contentStream.newLineAtOffset(MARGIN, page.getMediaBox().getHeight() - MARGIN);
-                
-                float yPosition = page.getMediaBox().getHeight() - MARGIN;
-                
+            PDPageContentStream contentStream = null;
+            float yPosition = 0;
+            try {
                 for (String line : lines) {
-                    // Check if we need a new page
-                    if (yPosition < MARGIN) {
-                        contentStream.endText();
-                        contentStream.close();
-                        
-                        page = new PDPage(PDRectangle.A4);
+                    // Start a new page when the current one is full
+                    if (contentStream == null || yPosition < MARGIN) {
+                        if (contentStream != null) {
+                            contentStream.endText();
+                            contentStream.close();
+                        }
+                        PDPage page = new PDPage(PDRectangle.A4);
                         document.addPage(page);
-                        
-                        PDPageContentStream newContentStream = new PDPageContentStream(document, page);
-                        newContentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), FONT_SIZE);
-                        newContentStream.beginText();
-                        newContentStream.newLineAtOffset(MARGIN, page.getMediaBox().getHeight() - MARGIN);
+                        contentStream = new PDPageContentStream(document, page);
+                        contentStream.setFont(font, FONT_SIZE);
+                        contentStream.setLeading(LEADING);
+                        contentStream.beginText();
                         yPosition = page.getMediaBox().getHeight() - MARGIN;
-                        
-                        newContentStream.showText(line);
-                        newContentStream.newLineAtOffset(0, -LEADING);
-                        yPosition -= LEADING;
-                        continue;
+                        contentStream.newLineAtOffset(MARGIN, yPosition);
                     }
                     
                     contentStream.showText(line);
-                    contentStream.newLineAtOffset(0, -LEADING);
+                    contentStream.newLine();
                     yPosition -= LEADING;
                 }
                 
-                contentStream.endText();
+                if (contentStream == null) {
+                    document.addPage(new PDPage(PDRectangle.A4));
+                } else {
+                    contentStream.endText();
+                }
+            } finally {
+                if (contentStream != null) {
+                    contentStream.close();
+                }
             }
             
-            document.save(outputFile);
+            event.setPages(document.getNumberOfPages());
+            document.save(out);
         }
     }
     
-    private List<String> splitTextIntoLines(String text) {
+    /**
+     * Wrap text to the given line width using the cached Helvetica glyph widths.
+     * Characters the font cannot encode are replaced so rendering never fails mid-document.
+     */
+    private List<String> splitTextIntoLines(String text, float maxWidth) {
         List<String> lines = new ArrayList<>();
-        String[] paragraphs = text.split("\n");
+        String[] paragraphs = text.replace("\r", "").replace("\t", "    ").split("\n");
+        float spaceWidth = charWidth(' ');
         
         for (String paragraph : paragraphs) {
             if (paragraph.trim().isEmpty()) {
@@ -105,19 +289,41 @@ public class PDFUtil {
                 continue;
             }
             
-            // Simple word wrapping - approximately 80 characters per line
             String[] words = paragraph.split(" ");
             StringBuilder currentLine = new StringBuilder();
+            float currentWidth = 0;
             
-            for (String word : words) {
-                if (currentLine.length() + word.length() + 1 > 80) {
-                    lines.add(currentLine.toString());
-                    currentLine = new StringBuilder(word);
-                } else {
-                    if (currentLine.length() > 0) {
-                        currentLine.append(" ");
+            for (String rawWord : words) {
+                String word = sanitize(rawWord);
+                float wordWidth = textWidth(word);
+                float separator = currentLine.length() > 0 ? spaceWidth : 0;
+                
+                if (currentWidth + separator + wordWidth <= maxWidth) {
+                    if (separator > 0) {
+                        currentLine.append(' ');
                     }
                     currentLine.append(word);
+                    currentWidth += separator + wordWidth;
+                    continue;
+                }
+                
+                if (currentLine.length() > 0) {
+                    lines.add(currentLine.toString());
+                    currentLine = new StringBuilder();
+                    currentWidth = 0;
+                }
+                
+                // Hard-break words that are wider than a whole line
+                for (int i = 0; i < word.length(); i++) {
+                    char c = word.charAt(i);
+                    float width = charWidth(c);
+                    if (currentWidth + width > maxWidth && currentLine.length() > 0) {
+                        lines.add(currentLine.toString());
+                        currentLine = new StringBuilder();
+                        currentWidth = 0;
+                    }
+                    currentLine.append(c);
+                    currentWidth += width;
                 }
             }
             
@@ -128,4 +334,67 @@ public class PDFUtil {
         
         return lines;
     }
+    
+    private String sanitize(String word) {
+        StringBuilder sanitized = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            sanitized.append(charWidth(c) < 0 ? '?' : c);
+        }
+        return sanitized.toString();
+    }
+    
+    private float textWidth(String text) {
+        float width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += charWidth(text.charAt(i));
+        }
+        return width;
+    }
+    
+    /**
+     * Width of a character in points at FONT_SIZE, or -1 if Helvetica cannot encode it
+     */
+    private float charWidth(char c) {
+        Float width = charWidths.get(c);
+        if (width == null) {
+            width = measure(c);
+            charWidths.put(c, width);
+        }
+        return width;
+    }
+    
+    private float measure(char c) {
+        // PDFont caches widths internally without synchronization
+        synchronized (metricsFont) {
+            try {
+                return metricsFont.getStringWidth(String.valueOf(c)) / 1000 * FONT_SIZE;
+            } catch (IllegalArgumentException | IOException e) {
+                return -1;
+            }
+        }
+    }
+    
+    /**
+     * Counts the bytes written through to the target stream
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+        
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package com.resumeagent.util;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Loads PDFs from file-backed input instead of byte arrays and bounds the heap
+ * PDFBox may use for scratch buffers. Every open document reserves its share of a
+ * global in-memory budget; when the budget is exhausted, documents fall back to
+ * temp-file-only scratch storage rather than waiting.
+ */
+@Component
+public class PdfLoader {
+    
+    private static final int BUDGET_UNIT = 1024;
+    
+    private final boolean memoryMapped;
+    private final long perDocumentMemoryBytes;
+    private final long perDocumentScratchBytes;
+    private final File scratchDir;
+    private final Semaphore memoryBudget;
+    
+    public PdfLoader(@Value("${app.pdf.memory-mapped-input:false}") boolean memoryMapped,
+                     @Value("${app.pdf.max-memory-per-document:4MB}") DataSize maxMemoryPerDocument,
+                     @Value("${app.pdf.max-memory-total:64MB}") DataSize maxMemoryTotal,
+                     @Value("${app.pdf.max-scratch-per-document:256MB}") DataSize maxScratchPerDocument,
+                     @Value("${app.pdf.scratch-dir:${java.io.tmpdir}}") String scratchDir) {
+        this.memoryMapped = memoryMapped;
+        this.perDocumentMemoryBytes = maxMemoryPerDocument.toBytes();
+        this.perDocumentScratchBytes = maxScratchPerDocument.toBytes();
+        this.scratchDir = new File(scratchDir);
+        this.memoryBudget = new Semaphore((int) (maxMemoryTotal.toBytes() / BUDGET_UNIT));
+    }
+    
+    /**
+     * Open a PDF file for reading
+     */
+    public LoadedPdf load(File pdfFile) throws IOException {
+        return load(pdfFile, null);
+    }
+    
+    /**
+     * Spool a PDF stream to a scratch file and open it; the scratch file is deleted on close
+     */
+    public LoadedPdf load(InputStream inputStream) throws IOException {
+        Path spooled = Files.createTempFile(scratchDir.toPath(), "pdf-upload-", ".pdf");
+        try {
+            Files.copy(inputStream, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return load(spooled.toFile(), spooled);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
+    
+    private LoadedPdf load(File pdfFile, Path spooled) throws IOException {
+        int permits = (int) (perDocumentMemoryBytes / BUDGET_UNIT);
+        boolean reserved = permits > 0 && memoryBudget.tryAcquire(permits);
+        MemoryUsageSetting setting = reserved
+                ? MemoryUsageSetting.setupMixed(perDocumentMemoryBytes, perDocumentMemoryBytes + perDocumentScratchBytes)
+                : MemoryUsageSetting.setupTempFileOnly(perDocumentScratchBytes);
+        setting.setTempDir(scratchDir);
+        
+        RandomAccessRead input = null;
+        try {
+            input = memoryMapped ? new RandomAccessReadMemoryMappedFile(pdfFile) : new RandomAccessReadBufferedFile(pdfFile);
+            PDDocument document = Loader.loadPDF(input, setting.streamCache);
+            return new LoadedPdf(pdfFile, document, input, reserved ? permits : 0, spooled);
+        } catch (IOException | RuntimeException e) {
+            if (input != null) {
+                input.close();
+            }
+            if (reserved) {
+                memoryBudget.release(permits);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Bytes of the global in-memory budget not currently reserved by open documents
+     */
+    public long getAvailableMemoryBytes() {
+        return (long) memoryBudget.availablePermits() * BUDGET_UNIT;
+    }
+    
+    public class LoadedPdf implements Closeable {
+        private final File source;
+        private final PDDocument document;
+        private final RandomAccessRead input;
+        private final int reservedPermits;
+        private final Path spooled;
+        private boolean closed;
+        
+        private LoadedPdf(File source, PDDocument document, RandomAccessRead input, int reservedPermits, Path spooled) {
+            this.source = source;
+            this.document = document;
+            this.input = input;
+            this.reservedPermits = reservedPermits;
+            this.spooled = spooled;
+        }
+        
+        public PDDocument getDocument() {
+            return document;
+        }
+        
+        /**
+         * Open an independent copy of the same PDF for use on another thread.
+         * The copy must be closed before this document.
+         */
+        public LoadedPdf reopen() throws IOException {
+            return load(source, null);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                document.close();
+                input.close();
+            } finally {
+                if (reservedPermits > 0) {
+                    memoryBudget.release(reservedPermits);
+                }
+                if (spooled != null) {
+                    Files.deleteIfExists(spooled);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.resumeagent.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads a list of skill names with every spelling interned in the {@link SkillRegistry}
+ * injected into the mapper. Mappers without one get the names as they are.
+ */
+public class SkillListDeserializer extends JsonDeserializer<List<String>> {
+    
+    @Override
+    public List<String> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JavaType type = context.getTypeFactory().constructCollectionType(List.class, String.class);
+        List<String> skills = context.readValue(parser, type);
+        SkillRegistry registry = registry(context);
+        return registry != null ? registry.intern(skills) : skills;
+    }
+    
+    private SkillRegistry registry(DeserializationContext context) {
+        try {
+            return (SkillRegistry) context.findInjectableValue(SkillRegistry.class.getName(), null, null);
+        } catch (JsonMappingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.resumeagent.util;
+
+import com.resumeagent.config.SkillProperties;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns skill names and maps them to compact integer IDs. Names that differ only
+ * in case, spacing or punctuation ("Spring Boot", "spring-boot", "springboot"), or
+ * that are configured aliases of each other, share one ID, so skills are matched as
+ * sorted int arrays. Each distinct spelling is kept once while any model refers to
+ * it, and models read from storage share those instances.
+ *
+ * IDs are assigned in first-seen order and only live in memory; anything persisted
+ * uses {@link #keyOf(String)} instead.
+ */
+@Component
+public class SkillRegistry {
+    
+    private final Map<String, String> aliases = new HashMap<>();
+    // Canonical key -> ID; there are far fewer keys than spellings
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    // Weak, so spellings of models no longer in memory are dropped
+    private final Map<String, WeakReference<String>> spellings = new WeakHashMap<>();
+    
+    public SkillRegistry(SkillProperties skillProperties) {
+        skillProperties.getAliases().forEach((alias, skill) -> aliases.put(normalize(alias), normalize(skill)));
+    }
+    
+    /**
+     * The shared instance of this spelling
+     */
+    public String intern(String skill) {
+        if (skill == null) {
+            return null;
+        }
+        synchronized (spellings) {
+            WeakReference<String> reference = spellings.get(skill);
+            String interned = reference != null ? reference.get() : null;
+            if (interned == null) {
+                spellings.put(skill, new WeakReference<>(skill));
+                interned = skill;
+            }
+            return interned;
+        }
+    }
+    
+    /**
+     * The list with every spelling interned; order and duplicates are kept as given
+     */
+    public List<String> intern(List<String> skills) {
+        if (skills == null) {
+            return null;
+        }
+        List<String> interned = new ArrayList<>(skills.size());
+        for (String skill : skills) {
+            interned.add(intern(skill));
+        }
+        return interned;
+    }
+    
+    /**
+     * The skills as sorted, distinct IDs
+     */
+    public SkillSet skillSetOf(Collection<String> skills) {
+        if (skills == null || skills.isEmpty()) {
+            return SkillSet.EMPTY;
+        }
+        return new SkillSet(skills.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(skill -> ids.computeIfAbsent(keyOf(skill), key -> nextId.getAndIncrement()))
+                .sorted()
+                .distinct()
+                .toArray());
+    }
+    
+    /**
+     * Canonical form of the skill: lower case letters, digits, '+' and '#', with aliases resolved
+     */
+    public String keyOf(String skill) {
+        String key = normalize(skill);
+        return aliases.getOrDefault(key, key);
+    }
+    
+    /**
+     * How many of the required skills the skills cover; a skill covers a required one
+     * when both have the same ID
+     */
+    public static int countMatched(SkillSet skills, SkillSet required) {
+        int matched = 0;
+        int i = 0;
+        for (int r = 0; r < required.ids.length; r++) {
+            while (i < skills.ids.length && skills.ids[i] < required.ids[r]) {
+                i++;
+            }
+            if (i < skills.ids.length && skills.ids[i] == required.ids[r]) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+    
+    private static String normalize(String skill) {
+        StringBuilder key = new StringBuilder(skill.length());
+        skill.codePoints().forEach(c -> {
+            if (Character.isLetterOrDigit(c)) {
+                key.appendCodePoint(Character.toLowerCase(c));
+            } else if (c == '+' || c == '#') {
+                key.appendCodePoint(c);
+            }
+        });
+        // Names made only of punctuation keep it rather than all collapsing to one key
+        return key.length() > 0 ? key.toString() : skill.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Skills prepared for matching, see {@link #countMatched(SkillSet, SkillSet)}
+     */
+    public static class SkillSet {
+        private static final SkillSet EMPTY = new SkillSet(new int[0]);
+        
+        private final int[] ids;
+        
+        private SkillSet(int[] ids) {
+            this.ids = ids;
+        }
+        
+        public int size() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.resumeagent.util;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts tokens offline with the BPE encoding of the configured chat model
+ */
+@Component
+public class TokenCounter {
+    
+    private final EncodingRegistry registry = Encodings.newLazyEncodingRegistry();
+    private final String model;
+    
+    public TokenCounter(@Value("${spring.ai.openai.chat.options.model:gpt-4o}") String model) {
+        this.model = model;
+    }
+    
+    public int count(String text) {
+        return encoding().countTokens(text);
+    }
+    
+    /**
+     * Cut text down to at most maxTokens tokens, keeping the beginning
+     */
+    public String truncate(String text, int maxTokens) {
+        if (maxTokens <= 0) {
+            return "";
+        }
+        EncodingResult result = encoding().encode(text, maxTokens);
+        if (!result.isTruncated()) {
+            return text;
+        }
+        return text.substring(0, result.getLastProcessedCharacterIndex() + 1);
+    }
+    
+    private Encoding encoding() {
+        // Unknown model names fall back to the encoding used by current OpenAI chat models
+        return registry.getEncodingForModel(model)
+                .orElseGet(() -> registry.getEncoding(EncodingType.O200K_BASE));
+    }
+}
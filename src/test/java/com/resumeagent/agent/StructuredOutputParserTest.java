@@ -0,0 +1,97 @@
+package com.resumeagent.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.resumeagent.util.TokenCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StructuredOutputParserTest {
+    
+    private static final OutputSchema SCHEMA = new OutputSchema()
+            .require("analysis", ResumeAnalyzerAgent.OUTPUT_SCHEMA)
+            .require("interview_prep", InterviewPrepAgent.OUTPUT_SCHEMA);
+    private static final String RESUME = "Jane Doe. Twelve years of Java and Kotlin at a payments company.";
+    private static final FollowUpInput INPUT = new FollowUpInput("Assess the candidate.")
+            .section(FollowUpInput.REQUIREMENTS, "Role: Backend Engineer")
+            .trimmableSection(FollowUpInput.RESUME, RESUME);
+    
+    private final Agent agent = () -> "Fused Assessment Agent";
+    private LlmGateway llmGateway;
+    private StructuredOutputParser parser;
+    
+    @BeforeEach
+    void setUp() {
+        llmGateway = mock(LlmGateway.class);
+        parser = new StructuredOutputParser(llmGateway, new ParseStatsTracker(), new TokenCounter("gpt-4o"), true, 10);
+    }
+    
+    @Test
+    void completeAnswerNeedsNoFollowUp() {
+        JsonNode json = parser.parseAsync(agent, """
+                {"analysis": {"fit_score": 80, "matched_skills": ["Java"], "missing_skills": []},
+                 "interview_prep": {"technical_questions": ["Q1"], "behavioral_questions": ["B1"]}}
+                """, SCHEMA, INPUT, null).block();
+        
+        assertThat(json.at("/analysis/fit_score").asInt()).isEqualTo(80);
+        verify(llmGateway, never()).callAsync(any(), anyString(), anyMap(), any(), any());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void followUpShowsThePartialAnswerAndOnlyTheInputsTheMissingFieldsNeed() {
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        when(llmGateway.callAsync(eq(agent), anyString(), params.capture(), eq("inputs"), any()))
+                .thenReturn(Mono.just("{\"technical_questions\": [\"Q1\"], \"behavioral_questions\": [\"B1\"]}"));
+        
+        JsonNode json = parser.parseAsync(agent, """
+                {"analysis": {"fit_score": 80, "matched_skills": ["Java"], "missing_skills": []},
+                 "interview_prep": {"technical_questions": ["Q1", "Q2
+                """, SCHEMA, INPUT, null).block();
+        
+        assertThat(json.at("/analysis/fit_score").asInt()).isEqualTo(80);
+        assertThat(json.at("/interview_prep/behavioral_questions/0").asText()).isEqualTo("B1");
+        Map<String, Object> sent = params.getValue();
+        assertThat((String) sent.get("previousAnswer")).contains("\"fit_score\":80");
+        assertThat((String) sent.get("inputs")).contains("Role: Backend Engineer").doesNotContain("Jane Doe");
+        assertThat((String) sent.get("missingSchema")).contains("behavioral_questions").doesNotContain("fit_score");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void longInputSectionsAreShortened() {
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        when(llmGateway.callAsync(eq(agent), anyString(), params.capture(), eq("inputs"), any()))
+                .thenReturn(Mono.just("{\"analysis\": {\"fit_score\": 70}}"));
+        
+        parser.parseAsync(agent, """
+                {"analysis": {"matched_skills": ["Java"], "missing_skills": []},
+                 "interview_prep": {"technical_questions": ["Q1"], "behavioral_questions": ["B1"]}}
+                """, SCHEMA, INPUT, null).block();
+        
+        String inputs = (String) params.getValue().get("inputs");
+        assertThat(inputs).contains("Role: Backend Engineer", "Jane Doe").doesNotContain("payments company");
+    }
+    
+    @Test
+    void stillIncompleteAnswerFails() {
+        when(llmGateway.callAsync(eq(agent), anyString(), anyMap(), any(), any())).thenReturn(Mono.just("{}"));
+        
+        assertThatThrownBy(() -> parser.parseAsync(agent, "not json", SCHEMA, INPUT, null).block())
+                .isInstanceOf(ModelOutputException.class);
+    }
+}
@@ -0,0 +1,116 @@
+package com.resumeagent.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+    
+    private static final int DIMENSIONS = 64;
+    private static final float[] WEIGHTS = new float[DIMENSIONS];
+    
+    static {
+        Arrays.fill(WEIGHTS, 1f);
+    }
+    
+    private final Random random = new Random(7);
+    
+    @Test
+    void reAddingMarksOldNodesDeleted() {
+        HnswIndex index = newIndex();
+        for (int i = 0; i < 20; i++) {
+            index.add("c" + i, randomVector(), 1);
+        }
+        for (int i = 0; i < 10; i++) {
+            index.add("c" + i, randomVector(), 2);
+        }
+        
+        assertThat(index.size()).isEqualTo(20);
+        assertThat(index.getDeletedShare()).isEqualTo(10 / 30.0);
+    }
+    
+    @Test
+    void compactDropsDeletedNodesAndKeepsLiveOnes() throws IOException {
+        HnswIndex index = newIndex();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 40; i++) {
+                index.add("c" + i, randomVector(), round);
+            }
+        }
+        index.remove("c0");
+        int before = serializedSize(index);
+        
+        index.compact();
+        
+        assertThat(index.getDeletedShare()).isZero();
+        assertThat(index.size()).isEqualTo(39);
+        assertThat(index.contains("c0")).isFalse();
+        assertThat(index.getStamp("c1")).isEqualTo(4);
+        assertThat(serializedSize(index)).isLessThan(before / 4);
+    }
+    
+    @Test
+    void searchReturnsKLiveResultsAmongManyDeletedNodes() {
+        HnswIndex index = newIndex();
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 30; i++) {
+                index.add("c" + i, randomVector(), round);
+            }
+        }
+        
+        List<HnswIndex.Scored> results = index.search(randomVector(), 10, 10, null);
+        
+        assertThat(results).hasSize(10);
+        assertThat(results).extracting(scored -> index.getId(scored.node())).doesNotHaveDuplicates();
+    }
+    
+    @Test
+    void deletedShareSurvivesSerialization() throws IOException {
+        HnswIndex index = newIndex();
+        for (int i = 0; i < 8; i++) {
+            index.add("c" + i, randomVector(), 1);
+        }
+        index.remove("c3");
+        index.remove("c4");
+        
+        HnswIndex copy = newIndex();
+        copy.read(new DataInputStream(new ByteArrayInputStream(serialize(index))));
+        
+        assertThat(copy.size()).isEqualTo(6);
+        assertThat(copy.getDeletedShare()).isEqualTo(0.25);
+    }
+    
+    private int serializedSize(HnswIndex index) throws IOException {
+        return serialize(index).length;
+    }
+    
+    private byte[] serialize(HnswIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.write(out);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private HnswIndex newIndex() {
+        return new HnswIndex(4, 20, (a, b) -> 1 - a.cosine(b, WEIGHTS));
+    }
+    
+    private SparseVector randomVector() {
+        int[] indices = random.ints(0, DIMENSIONS).distinct().limit(8).sorted().toArray();
+        float[] values = new float[indices.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 0.1f + random.nextFloat();
+        }
+        return new SparseVector(indices, values);
+    }
+}
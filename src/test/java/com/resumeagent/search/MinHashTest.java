@@ -0,0 +1,46 @@
+package com.resumeagent.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashTest {
+    
+    private static final String RESUME = "Senior software engineer with ten years of experience building payment "
+            + "platforms in Java and Kotlin. Led the migration of a monolith to Spring Boot services on Kubernetes, "
+            + "cut checkout latency by forty percent and mentored a team of six engineers across two offices.";
+    
+    @Test
+    void textWithTooFewShinglesHasNoSignature() {
+        assertThat(MinHash.signature(null)).isNull();
+        assertThat(MinHash.signature("")).isNull();
+        assertThat(MinHash.signature("  \f \n ")).isNull();
+        assertThat(MinHash.signature("Jane Doe, Java developer")).isNull();
+    }
+    
+    @Test
+    void storedSignaturesOfEmptyTextAreNotUsable() {
+        int[] empty = new int[MinHash.SIZE];
+        Arrays.fill(empty, Integer.MAX_VALUE);
+        
+        assertThat(MinHash.isUsable(empty)).isFalse();
+        assertThat(MinHash.isUsable(null)).isFalse();
+        assertThat(MinHash.isUsable(new int[3])).isFalse();
+        assertThat(MinHash.isUsable(MinHash.signature(RESUME))).isTrue();
+    }
+    
+    @Test
+    void lightlyEditedTextIsSimilarAndUnrelatedTextIsNot() {
+        int[] original = MinHash.signature(RESUME);
+        int[] edited = MinHash.signature(RESUME.replace("ten years", "eleven years"));
+        int[] unrelated = MinHash.signature("Registered nurse with a decade in intensive care units, trained in "
+                + "ventilator management, patient triage and electronic health records, coordinating night shifts "
+                + "for a ward of thirty beds and teaching new staff on infection control procedures.");
+        
+        assertThat(MinHash.similarity(original, original)).isEqualTo(1.0);
+        assertThat(MinHash.similarity(original, edited)).isGreaterThan(0.7);
+        assertThat(MinHash.similarity(original, unrelated)).isLessThan(0.2);
+    }
+}
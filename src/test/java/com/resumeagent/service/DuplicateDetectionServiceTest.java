@@ -0,0 +1,83 @@
+package com.resumeagent.service;
+
+import com.resumeagent.event.ResumeTextUpdatedEvent;
+import com.resumeagent.model.DuplicateMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DuplicateDetectionServiceTest {
+    
+    private static final String RESUME = "Senior software engineer with ten years of experience building payment "
+            + "platforms in Java and Kotlin. Led the migration of a monolith to Spring Boot services on Kubernetes, "
+            + "cut checkout latency by forty percent and mentored a team of six engineers across two offices.";
+    
+    @TempDir
+    Path baseDir;
+    
+    private CandidateService candidateService;
+    private DuplicateDetectionService service;
+    
+    @BeforeEach
+    void setUp() {
+        candidateService = mock(CandidateService.class);
+        service = new DuplicateDetectionService(candidateService, TestStorage.fileStorage(baseDir), "reuse", 0.9);
+    }
+    
+    @Test
+    void nearIdenticalResumesAreMatched() throws Exception {
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("a", RESUME));
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("b", RESUME + " References on request."));
+        
+        List<DuplicateMatch> matches = service.findNearDuplicates("a");
+        
+        assertThat(matches).extracting(DuplicateMatch::getCandidateId).containsExactly("b");
+    }
+    
+    @Test
+    void resumesWithoutTextAreNeverMatched() throws Exception {
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("scanned-1", ""));
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("scanned-2", "  \f "));
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("short", "Jane Doe"));
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("full", RESUME));
+        
+        assertThat(service.findNearDuplicates("scanned-1")).isEmpty();
+        assertThat(service.findNearDuplicates("scanned-2")).isEmpty();
+        assertThat(service.findNearDuplicates("short")).isEmpty();
+        assertThat(service.findNearDuplicates("full")).isEmpty();
+    }
+    
+    @Test
+    void backfilledResumesWithoutTextAreNeverMatched() throws Exception {
+        when(candidateService.getCandidateIds()).thenReturn(List.of("scanned-1", "scanned-2"));
+        when(candidateService.getResumeText("scanned-1")).thenReturn("");
+        when(candidateService.getResumeText("scanned-2")).thenReturn("");
+        
+        service.backfill();
+        
+        assertThat(service.findNearDuplicates("scanned-1")).isEmpty();
+        
+        // Reloaded from storage by a fresh instance
+        DuplicateDetectionService restarted = new DuplicateDetectionService(candidateService,
+                TestStorage.fileStorage(baseDir), "reuse", 0.9);
+        assertThat(restarted.findNearDuplicates("scanned-2")).isEmpty();
+    }
+    
+    @Test
+    void replacedResumeLeavesItsOldBuckets() throws Exception {
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("a", RESUME));
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("b", RESUME));
+        
+        service.onResumeTextUpdated(new ResumeTextUpdatedEvent("b", ""));
+        
+        assertThat(service.findNearDuplicates("a")).isEmpty();
+        assertThat(service.findNearDuplicates("b")).isEmpty();
+    }
+}
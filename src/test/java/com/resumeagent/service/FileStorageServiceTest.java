@@ -0,0 +1,51 @@
+package com.resumeagent.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileStorageServiceTest {
+    
+    @TempDir
+    Path baseDir;
+    
+    @Test
+    void pageSourcesBumpTheVersion() throws Exception {
+        FileStorageService fileStorage = TestStorage.fileStorage(baseDir);
+        long start = fileStorage.getVersion();
+        
+        fileStorage.saveJson(Map.of("id", "c1"), "candidates/c1.json");
+        fileStorage.saveJson(Map.of("id", "k1"), "clients/k1.json");
+        fileStorage.saveJson(Map.of("fitScore", 50), "analyses/c1_k1.json");
+        fileStorage.deleteFile("analyses/c1_k1.json");
+        
+        assertThat(fileStorage.getVersion()).isEqualTo(start + 4);
+    }
+    
+    @Test
+    void resumeFilesAndOtherWritesLeaveTheVersionAlone() throws Exception {
+        FileStorageService fileStorage = TestStorage.fileStorage(baseDir);
+        long start = fileStorage.getVersion();
+        
+        fileStorage.saveText("resume text", "candidates/resumes/text/c1.txt");
+        fileStorage.saveJson(new int[] {1, 2, 3}, "candidates/resumes/signatures/c1.json");
+        fileStorage.saveText("tailored", "candidates/resumes/modified/c1_k1.txt");
+        fileStorage.saveJson(Map.of("state", "done"), "imports/job.json");
+        
+        assertThat(fileStorage.getVersion()).isEqualTo(start);
+    }
+    
+    @Test
+    void otherInstancesSeeTheBumps() throws Exception {
+        FileStorageService fileStorage = TestStorage.fileStorage(baseDir);
+        FileStorageService otherInstance = TestStorage.fileStorage(baseDir);
+        
+        fileStorage.saveJson(Map.of("id", "c1"), "candidates/c1.json");
+        
+        assertThat(otherInstance.getVersion()).isEqualTo(fileStorage.getVersion()).isPositive();
+    }
+}
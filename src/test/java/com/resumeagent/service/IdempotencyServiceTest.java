@@ -0,0 +1,172 @@
+package com.resumeagent.service;
+
+import com.resumeagent.agent.LlmCallContext;
+import com.resumeagent.util.HashUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyServiceTest {
+    
+    private static final String OPERATION = "analyze";
+    private static final Map<String, String> REQUEST = Map.of("candidateId", "c1", "clientId", "r1");
+    
+    @TempDir
+    Path baseDir;
+    
+    private LeaseService leasesA;
+    private LeaseService leasesB;
+    private IdempotencyService nodeA;
+    private IdempotencyService nodeB;
+    private final AtomicInteger runs = new AtomicInteger();
+    
+    @BeforeEach
+    void setUp() {
+        FileStorageService fileStorage = TestStorage.fileStorage(baseDir);
+        leasesA = TestStorage.leaseService(fileStorage, "node-a", Duration.ofSeconds(30));
+        leasesB = TestStorage.leaseService(fileStorage, "node-b", Duration.ofSeconds(30));
+        nodeA = idempotencyService(fileStorage, leasesA);
+        nodeB = idempotencyService(fileStorage, leasesB);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        leasesA.shutdown();
+        leasesB.shutdown();
+        LlmCallContext.clear();
+    }
+    
+    @Test
+    void sameKeyRunsOnceAndIsReplayed() {
+        ResponseEntity<String> first = execute(nodeA, "key-1", REQUEST, this::succeed);
+        ResponseEntity<String> retry = execute(nodeA, "key-1", REQUEST, this::succeed);
+        
+        assertThat(runs).hasValue(1);
+        assertThat(first.getBody()).isEqualTo("result-1");
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getBody()).isEqualTo("result-1");
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+    
+    @Test
+    void storedResponseIsReplayedByAnotherInstance() {
+        execute(nodeA, "key-1", REQUEST, this::succeed);
+        
+        ResponseEntity<String> retry = execute(nodeB, "key-1", REQUEST, this::succeed);
+        
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getBody()).isEqualTo("result-1");
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+    
+    @Test
+    void retryWhileRunningAttachesToTheExecution() {
+        Supplier<Mono<ResponseEntity<String>>> slow = () -> succeed().delayElement(Duration.ofMillis(200));
+        
+        Tuple2<ResponseEntity<String>, ResponseEntity<String>> both = Mono.zip(
+                nodeA.execute("key-1", OPERATION, REQUEST, String.class, slow),
+                nodeA.execute("key-1", OPERATION, REQUEST, String.class, slow)).block();
+        
+        assertThat(runs).hasValue(1);
+        assertThat(both.getT1().getBody()).isEqualTo("result-1");
+        assertThat(both.getT2().getBody()).isEqualTo("result-1");
+    }
+    
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        int keys = 50;
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < keys; i++) {
+                String key = "key-" + i;
+                CyclicBarrier start = new CyclicBarrier(2);
+                Callable<ResponseEntity<String>> call = () -> {
+                    start.await();
+                    return execute(nodeA, key, REQUEST, () -> succeed().delayElement(Duration.ofMillis(20)));
+                };
+                Future<ResponseEntity<String>> first = callers.submit(call);
+                Future<ResponseEntity<String>> second = callers.submit(call);
+                
+                assertThat(first.get(10, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(second.get(10, TimeUnit.SECONDS).getBody()).isEqualTo(first.get().getBody());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(runs).hasValue(keys);
+    }
+    
+    @Test
+    void keyReusedWithDifferentRequestIsRejected() {
+        execute(nodeA, "key-1", REQUEST, this::succeed);
+        
+        ResponseEntity<String> reused = execute(nodeA, "key-1", Map.of("candidateId", "c2"), this::succeed);
+        
+        assertThat(runs).hasValue(1);
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+    
+    @Test
+    void failedExecutionIsNotStored() {
+        ResponseEntity<String> failed = execute(nodeA, "key-1", REQUEST,
+                () -> Mono.just(ResponseEntity.status(HttpStatus.BAD_GATEWAY).<String>build()));
+        ResponseEntity<String> retry = execute(nodeA, "key-1", REQUEST, this::succeed);
+        
+        assertThat(failed.getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(retry.getBody()).isEqualTo("result-1");
+        assertThat(retry.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+    
+    @Test
+    void keysAreScopedByTenant() {
+        LlmCallContext.setTenant("tenant-a");
+        execute(nodeA, "key-1", REQUEST, this::succeed);
+        LlmCallContext.setTenant("tenant-b");
+        
+        ResponseEntity<String> other = execute(nodeA, "key-1", REQUEST, this::succeed);
+        
+        assertThat(runs).hasValue(2);
+        assertThat(other.getBody()).isEqualTo("result-2");
+    }
+    
+    @Test
+    void requestsWithoutKeyAlwaysRun() {
+        execute(nodeA, null, REQUEST, this::succeed);
+        execute(nodeA, " ", REQUEST, this::succeed);
+        
+        assertThat(runs).hasValue(2);
+    }
+    
+    private Mono<ResponseEntity<String>> succeed() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok("result-" + runs.incrementAndGet()));
+    }
+    
+    private static ResponseEntity<String> execute(IdempotencyService service, String key, Map<String, String> request,
+                                                  Supplier<Mono<ResponseEntity<String>>> action) {
+        return service.execute(key, OPERATION, request, String.class, action).block();
+    }
+    
+    private static IdempotencyService idempotencyService(FileStorageService fileStorage, LeaseService leaseService) {
+        return new IdempotencyService(fileStorage, leaseService, TestStorage.jsonUtil(), new HashUtil(),
+                Duration.ofHours(1), Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,77 @@
+package com.resumeagent.service;
+
+import com.resumeagent.model.LeaseInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaseServiceTest {
+    
+    @TempDir
+    Path baseDir;
+    
+    private LeaseService nodeA;
+    private LeaseService nodeB;
+    
+    @BeforeEach
+    void setUp() {
+        FileStorageService fileStorage = TestStorage.fileStorage(baseDir);
+        nodeA = TestStorage.leaseService(fileStorage, "node-a", Duration.ofMillis(200));
+        nodeB = TestStorage.leaseService(fileStorage, "node-b", Duration.ofMillis(200));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+    }
+    
+    @Test
+    void liveLeaseIsExclusiveUntilReleased() throws Exception {
+        LeaseService.Lease lease = nodeA.tryAcquire("report-42");
+        assertThat(lease).isNotNull();
+        assertThat(nodeB.tryAcquire("report-42")).isNull();
+        
+        lease.close();
+        
+        LeaseService.Lease taken = nodeB.tryAcquire("report-42");
+        assertThat(taken).isNotNull();
+        assertThat(taken.isValid()).isTrue();
+    }
+    
+    @Test
+    void expiredLeaseIsTakenOverWithNextGeneration() throws Exception {
+        assertThat(nodeA.tryAcquire("report-42")).isNotNull();
+        
+        Thread.sleep(300);
+        
+        assertThat(nodeB.tryAcquire("report-42")).isNotNull();
+        List<LeaseInfo> leases = nodeB.getLeases();
+        assertThat(leases).hasSize(1);
+        assertThat(leases.get(0).getOwner()).isEqualTo("node-b");
+        assertThat(leases.get(0).getGeneration()).isEqualTo(2);
+    }
+    
+    @Test
+    void keysThatOnlyDifferInPunctuationAreDistinctLeases() throws Exception {
+        assertThat(nodeA.tryAcquire("work-a.b")).isNotNull();
+        assertThat(nodeB.tryAcquire("work-a_b")).isNotNull();
+        assertThat(nodeB.tryAcquire("work-a/b")).isNotNull();
+        assertThat(nodeB.tryAcquire("work-a.b")).isNull();
+    }
+    
+    @Test
+    void releasedLeasesAreRemovedFromDisk() throws Exception {
+        nodeA.tryAcquire("one").close();
+        nodeA.tryAcquire("two").close();
+        
+        assertThat(nodeA.getLeases()).isEmpty();
+    }
+}
@@ -0,0 +1,100 @@
+package com.resumeagent.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedWorkQueueTest {
+    
+    private static final String QUEUE = "test";
+    
+    @TempDir
+    Path baseDir;
+    
+    private LeaseService leasesA;
+    private LeaseService leasesB;
+    private SharedWorkQueue nodeA;
+    private SharedWorkQueue nodeB;
+    
+    @BeforeEach
+    void setUp() {
+        FileStorageService fileStorage = TestStorage.fileStorage(baseDir);
+        leasesA = TestStorage.leaseService(fileStorage, "node-a", Duration.ofSeconds(30));
+        leasesB = TestStorage.leaseService(fileStorage, "node-b", Duration.ofSeconds(30));
+        nodeA = new SharedWorkQueue(fileStorage, leasesA, 3);
+        nodeB = new SharedWorkQueue(fileStorage, leasesB, 3);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        leasesA.shutdown();
+        leasesB.shutdown();
+    }
+    
+    @Test
+    void claimsHighestPriorityFirst() throws Exception {
+        nodeA.submit(QUEUE, "low", 0.1, Map.of());
+        nodeA.submit(QUEUE, "high", 0.9, Map.of("k", "v"));
+        nodeA.submit(QUEUE, "mid", 0.5, Map.of());
+        
+        SharedWorkQueue.Claim claim = nodeA.claimNext(QUEUE);
+        assertThat(claim.getItem().getId()).isEqualTo("high");
+        assertThat(claim.getItem().getPayload()).containsEntry("k", "v");
+        claim.complete();
+        
+        assertThat(nodeA.claimNext(QUEUE).getItem().getId()).isEqualTo("mid");
+        assertThat(nodeA.size(QUEUE)).isEqualTo(2);
+    }
+    
+    @Test
+    void duplicateAndOverflowingSubmissionsAreRefused() throws Exception {
+        assertThat(nodeA.submit(QUEUE, "a", 1, Map.of())).isTrue();
+        assertThat(nodeA.submit(QUEUE, "a", 1, Map.of())).isFalse();
+        assertThat(nodeA.submit(QUEUE, "b", 1, Map.of())).isTrue();
+        assertThat(nodeA.submit(QUEUE, "c", 1, Map.of())).isTrue();
+        
+        assertThat(nodeA.submit(QUEUE, "d", 1, Map.of())).isFalse();
+        assertThat(nodeA.contains(QUEUE, "d")).isFalse();
+        assertThat(nodeA.size(QUEUE)).isEqualTo(3);
+    }
+    
+    @Test
+    void itemClaimedByAnotherNodeIsSkipped() throws Exception {
+        nodeA.submit(QUEUE, "first", 2, Map.of());
+        nodeA.submit(QUEUE, "second", 1, Map.of());
+        
+        SharedWorkQueue.Claim claimA = nodeA.claimNext(QUEUE);
+        SharedWorkQueue.Claim claimB = nodeB.claimNext(QUEUE);
+        
+        assertThat(claimA.getItem().getId()).isEqualTo("first");
+        assertThat(claimB.getItem().getId()).isEqualTo("second");
+        assertThat(nodeB.claimNext(QUEUE)).isNull();
+    }
+    
+    @Test
+    void releasedItemCanBeClaimedAgain() throws Exception {
+        nodeA.submit(QUEUE, "only", 1, Map.of());
+        
+        nodeA.claimNext(QUEUE).release();
+        
+        assertThat(nodeB.claimNext(QUEUE).getItem().getId()).isEqualTo("only");
+    }
+    
+    @Test
+    void itemCompletedElsewhereIsDroppedFromStaleView() throws Exception {
+        nodeA.submit(QUEUE, "only", 1, Map.of());
+        // Node B lists the item, then node A finishes it before B's view is refreshed
+        assertThat(nodeB.size(QUEUE)).isEqualTo(1);
+        nodeA.claimNext(QUEUE).complete();
+        
+        assertThat(nodeB.claimNext(QUEUE)).isNull();
+        assertThat(nodeB.size(QUEUE)).isZero();
+    }
+}
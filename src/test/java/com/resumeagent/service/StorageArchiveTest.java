@@ -0,0 +1,127 @@
+package com.resumeagent.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageArchiveTest {
+    
+    private static final String DIRECTORY = "analyses";
+    
+    @TempDir
+    Path baseDir;
+    
+    private StorageArchive archive;
+    private StorageArchive otherInstance;
+    
+    @BeforeEach
+    void setUp() {
+        archive = new StorageArchive(TestStorage.config(baseDir), List.of(DIRECTORY));
+        otherInstance = new StorageArchive(TestStorage.config(baseDir), List.of(DIRECTORY));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        archive.close();
+        otherInstance.close();
+    }
+    
+    @Test
+    void packedFilesAreReadBack() throws Exception {
+        archive.pack(DIRECTORY, List.of(hotFile("a.json", "one"), hotFile("b.json", "two")));
+        
+        assertThat(read(archive, "a.json")).isEqualTo("one");
+        assertThat(archive.contains(DIRECTORY + "/b.json")).isTrue();
+        assertThat(archive.read(DIRECTORY + "/missing.json")).isNull();
+        assertThat(archive.read("interview-prep/a.json")).isNull();
+        try (Stream<String> names = archive.names(DIRECTORY)) {
+            assertThat(names).containsExactlyInAnyOrder("a.json", "b.json");
+        }
+        assertThat(archive.getSegments(DIRECTORY)).isEqualTo(1);
+    }
+    
+    @Test
+    void laterSegmentSupersedesEarlierOne() throws Exception {
+        archive.pack(DIRECTORY, List.of(hotFile("a.json", "old")));
+        archive.pack(DIRECTORY, List.of(hotFile("a.json", "new")));
+        
+        assertThat(read(archive, "a.json")).isEqualTo("new");
+        assertThat(archive.getArchivedFiles(DIRECTORY)).isEqualTo(1);
+    }
+    
+    @Test
+    void deletedFileIsHiddenUntilPackedAgain() throws Exception {
+        archive.pack(DIRECTORY, List.of(hotFile("a.json", "one"), hotFile("b.json", "two")));
+        
+        archive.delete(DIRECTORY + "/a.json");
+        
+        assertThat(archive.read(DIRECTORY + "/a.json")).isNull();
+        assertThat(otherInstance.contains(DIRECTORY + "/a.json")).isFalse();
+        assertThat(archive.getArchivedFiles(DIRECTORY)).isEqualTo(1);
+        
+        archive.pack(DIRECTORY, List.of(hotFile("a.json", "again")));
+        
+        assertThat(read(archive, "a.json")).isEqualTo("again");
+    }
+    
+    @Test
+    void segmentsPackedByAnotherInstanceAreVisible() throws Exception {
+        otherInstance.pack(DIRECTORY, List.of(hotFile("a.json", "one")));
+        
+        assertThat(read(archive, "a.json")).isEqualTo("one");
+    }
+    
+    @Test
+    void compactionRewritesSparseSegmentsAndDropsObsoleteMarkers() throws Exception {
+        archive.pack(DIRECTORY, List.of(hotFile("a.json", "one"), hotFile("b.json", "two"),
+                hotFile("c.json", "three"), hotFile("d.json", "four")));
+        archive.pack(DIRECTORY, List.of(hotFile("e.json", "five"), hotFile("f.json", "six")));
+        archive.delete(DIRECTORY + "/a.json");
+        archive.delete(DIRECTORY + "/b.json");
+        archive.delete(DIRECTORY + "/c.json");
+        
+        assertThat(archive.compact(DIRECTORY, 0.5, 100)).isEqualTo(1);
+        
+        assertThat(archive.getSegments(DIRECTORY)).isEqualTo(2);
+        assertThat(read(archive, "d.json")).isEqualTo("four");
+        assertThat(read(archive, "e.json")).isEqualTo("five");
+        assertThat(archive.contains(DIRECTORY + "/a.json")).isFalse();
+        assertThat(baseDir.resolve(StorageArchive.ARCHIVE_DIR).resolve(DIRECTORY).resolve("deleted")).isEmptyDirectory();
+        assertThat(archive.compact(DIRECTORY, 0.5, 100)).isZero();
+    }
+    
+    @Test
+    void segmentsCompactedByAnotherInstanceAreDropped() throws Exception {
+        archive.pack(DIRECTORY, List.of(hotFile("a.json", "one"), hotFile("b.json", "two"), hotFile("c.json", "three")));
+        assertThat(read(otherInstance, "c.json")).isEqualTo("three");
+        archive.delete(DIRECTORY + "/a.json");
+        archive.delete(DIRECTORY + "/b.json");
+        
+        archive.compact(DIRECTORY, 0.5, 100);
+        
+        assertThat(otherInstance.getSegments(DIRECTORY)).isEqualTo(1);
+        assertThat(read(otherInstance, "c.json")).isEqualTo("three");
+        assertThat(otherInstance.contains(DIRECTORY + "/a.json")).isFalse();
+    }
+    
+    private Path hotFile(String name, String content) throws IOException {
+        Path file = baseDir.resolve(DIRECTORY).resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+    
+    private static String read(StorageArchive archive, String name) throws IOException {
+        byte[] bytes = archive.read(DIRECTORY + "/" + name);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+}
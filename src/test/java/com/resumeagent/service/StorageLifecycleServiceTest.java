@@ -0,0 +1,78 @@
+package com.resumeagent.service;
+
+import com.resumeagent.config.FileStorageConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageLifecycleServiceTest {
+    
+    @TempDir
+    Path baseDir;
+    
+    private StorageArchive archive;
+    private FileStorageService fileStorage;
+    private LeaseService leaseService;
+    private StorageLifecycleService lifecycle;
+    
+    @BeforeEach
+    void setUp() {
+        FileStorageConfig config = TestStorage.config(baseDir);
+        archive = new StorageArchive(config, List.of("analyses"));
+        fileStorage = new FileStorageService(config, TestStorage.jsonUtil(), archive);
+        leaseService = TestStorage.leaseService(fileStorage, "node-a", Duration.ofMinutes(1));
+        lifecycle = new StorageLifecycleService(fileStorage, archive, leaseService, false,
+                Duration.ofDays(30), Duration.ofDays(7), 100, 0.5, Duration.ofHours(6));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        lifecycle.shutdown();
+        leaseService.shutdown();
+        archive.close();
+    }
+    
+    @Test
+    void coldFilesMoveToTheArchiveAndStayReadable() throws Exception {
+        fileStorage.saveJson(Map.of("fitScore", 40), "analyses/old.json");
+        fileStorage.saveJson(Map.of("fitScore", 90), "analyses/new.json");
+        age(baseDir.resolve("analyses/old.json"), Duration.ofDays(60));
+        
+        assertThat(lifecycle.run()).isTrue();
+        
+        assertThat(baseDir.resolve("analyses/old.json")).doesNotExist();
+        assertThat(baseDir.resolve("analyses/new.json")).exists();
+        assertThat(fileStorage.loadJson("analyses/old.json", Map.class)).containsEntry("fitScore", 40);
+        assertThat(fileStorage.listFiles("analyses")).containsExactlyInAnyOrder("old.json", "new.json");
+        try (Stream<Path> names = Files.list(baseDir.resolve("analyses"))) {
+            assertThat(names).noneMatch(path -> path.getFileName().toString().endsWith(".archiving"));
+        }
+    }
+    
+    @Test
+    void savingAgainAfterArchivingWinsOverTheArchivedCopy() throws Exception {
+        fileStorage.saveJson(Map.of("fitScore", 40), "analyses/a.json");
+        age(baseDir.resolve("analyses/a.json"), Duration.ofDays(60));
+        lifecycle.run();
+        
+        fileStorage.saveJson(Map.of("fitScore", 75), "analyses/a.json");
+        
+        assertThat(fileStorage.loadJson("analyses/a.json", Map.class)).containsEntry("fitScore", 75);
+    }
+    
+    private static void age(Path file, Duration age) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.resumeagent.service;
+
+import com.resumeagent.config.FileStorageConfig;
+import com.resumeagent.config.SkillProperties;
+import com.resumeagent.util.JsonUtil;
+import com.resumeagent.util.SkillRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A file store on a temporary directory, wired the way the application wires it
+ */
+final class TestStorage {
+    
+    private TestStorage() {
+    }
+    
+    static FileStorageConfig config(Path baseDir) {
+        FileStorageConfig config = new FileStorageConfig();
+        ReflectionTestUtils.setField(config, "basePath", baseDir.toString());
+        config.init();
+        return config;
+    }
+    
+    static JsonUtil jsonUtil() {
+        return new JsonUtil(new SkillRegistry(new SkillProperties()));
+    }
+    
+    static FileStorageService fileStorage(Path baseDir) {
+        FileStorageConfig config = config(baseDir);
+        return new FileStorageService(config, jsonUtil(), new StorageArchive(config, List.of("analyses")));
+    }
+    
+    /**
+     * A node whose leases are never renewed, so tests control expiry
+     */
+    static LeaseService leaseService(FileStorageService fileStorage, String nodeId, Duration ttl) {
+        return new LeaseService(fileStorage, jsonUtil(), nodeId, ttl, Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.resumeagent.util;
+
+import com.resumeagent.config.SkillProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkillRegistryTest {
+    
+    private SkillRegistry registry;
+    
+    @BeforeEach
+    void setUp() {
+        SkillProperties properties = new SkillProperties();
+        properties.setAliases(Map.of("K8s", "Kubernetes", "JS", "JavaScript"));
+        registry = new SkillRegistry(properties);
+    }
+    
+    @Test
+    void spellingsThatDifferInCaseOrPunctuationShareAKey() {
+        assertThat(registry.keyOf("Spring Boot")).isEqualTo("springboot");
+        assertThat(registry.keyOf("spring-boot")).isEqualTo("springboot");
+        assertThat(registry.keyOf(" SPRINGBOOT ")).isEqualTo("springboot");
+        assertThat(registry.keyOf("Node.js")).isEqualTo("nodejs");
+    }
+    
+    @Test
+    void plusAndHashAreKept() {
+        assertThat(registry.keyOf("C++")).isEqualTo("c++");
+        assertThat(registry.keyOf("C#")).isEqualTo("c#");
+        assertThat(registry.keyOf("C")).isEqualTo("c");
+    }
+    
+    @Test
+    void namesMadeOfPunctuationStayDistinct() {
+        assertThat(registry.keyOf("...")).isNotEqualTo(registry.keyOf("--"));
+    }
+    
+    @Test
+    void aliasesResolveToTheirSkill() {
+        assertThat(registry.keyOf("k8s")).isEqualTo("kubernetes");
+        assertThat(registry.keyOf("Js")).isEqualTo("javascript");
+        
+        SkillRegistry.SkillSet skills = registry.skillSetOf(List.of("K8S", "kubernetes"));
+        assertThat(skills.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void equalSpellingsAreInternedToOneInstance() {
+        String first = registry.intern(new String("Spring Boot"));
+        String second = registry.intern(new String("Spring Boot"));
+        
+        assertThat(second).isSameAs(first);
+        assertThat(registry.intern((String) null)).isNull();
+        
+        String java = registry.intern(new String("Java"));
+        List<String> interned = registry.intern(Arrays.asList(new String("Java"), null, new String("Java")));
+        assertThat(interned).hasSize(3);
+        assertThat(interned.get(0)).isSameAs(java);
+        assertThat(interned.get(1)).isNull();
+        assertThat(interned.get(2)).isSameAs(java);
+    }
+    
+    @Test
+    void skillSetsAreDistinctByKey() {
+        SkillRegistry.SkillSet skills = registry.skillSetOf(Arrays.asList("Java", "java", "JAVA", null, "Go"));
+        
+        assertThat(skills.size()).isEqualTo(2);
+        assertThat(registry.skillSetOf(null).size()).isZero();
+    }
+    
+    @Test
+    void matchingCountsSkillsWithTheSameKeyOrAlias() {
+        SkillRegistry.SkillSet candidate = registry.skillSetOf(List.of("Java", "Spring-Boot", "K8s", "SQL"));
+        
+        assertThat(SkillRegistry.countMatched(candidate, registry.skillSetOf(List.of("spring boot", "Kubernetes", "JAVA"))))
+                .isEqualTo(3);
+        assertThat(SkillRegistry.countMatched(candidate, registry.skillSetOf(List.of("Rust", "Go"))))
+                .isZero();
+        assertThat(SkillRegistry.countMatched(registry.skillSetOf(List.of()), candidate)).isZero();
+    }
+    
+    @Test
+    void skillsContainingAnotherSkillsNameDoNotMatch() {
+        SkillRegistry.SkillSet candidate = registry.skillSetOf(List.of("JavaScript", "MongoDB", "Django", "C++", "PostgreSQL"));
+        
+        assertThat(SkillRegistry.countMatched(candidate, registry.skillSetOf(List.of("Java", "Go", "C", "SQL"))))
+                .isZero();
+    }
+}